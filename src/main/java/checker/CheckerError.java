@@ -1,7 +1,9 @@
-/* Licensed under MIT 2023. */
+/* Licensed under MIT 2023-2024. */
 package checker;
 
 import data.TimeSheet;
+import i18n.MessageSource;
+import i18n.ResourceHandler;
 
 /**
  * A CheckerError is used when an expected or user induced error occurs while
@@ -35,6 +37,17 @@ public class CheckerError {
 		return errorMessageProvider.getErrorMessage(args);
 	}
 
+	/**
+	 * Gets the error message of an {@link CheckerError} in the locale of the given
+	 * message source.
+	 * 
+	 * @param messageSource - Message source to get the error message from.
+	 * @return The error message.
+	 */
+	public String getErrorMessage(MessageSource messageSource) {
+		return errorMessageProvider.getErrorMessage(messageSource, args);
+	}
+
 	/**
 	 * Gets the {@link CheckerErrorMessageProvider} used to create this
 	 * {@link CheckerError}.
@@ -45,6 +58,16 @@ public class CheckerError {
 		return errorMessageProvider;
 	}
 
+	/**
+	 * Gets the locale independent code identifying the kind of this
+	 * {@link CheckerError}.
+	 * 
+	 * @return The code of the error.
+	 */
+	public String getCode() {
+		return errorMessageProvider.getCode();
+	}
+
 	/**
 	 * Gets the arguments used to create this {@link CheckerError}.
 	 * 
@@ -61,12 +84,31 @@ public class CheckerError {
 	public interface CheckerErrorMessageProvider {
 
 		/**
-		 * Gets the error message.
+		 * Gets the error message in the locale used by the application.
 		 * 
 		 * @param args Arguments that will be inserted in the error message
 		 * @return Error message including the formatted arguments
 		 */
-		String getErrorMessage(Object... args);
+		default String getErrorMessage(Object... args) {
+			return getErrorMessage(ResourceHandler.getMessageSource(), args);
+		}
+
+		/**
+		 * Gets the error message in the locale of the given message source.
+		 * 
+		 * @param messageSource Message source to get the error message from
+		 * @param args          Arguments that will be inserted in the error message
+		 * @return Error message including the formatted arguments
+		 */
+		String getErrorMessage(MessageSource messageSource, Object... args);
+
+		/**
+		 * Gets a locale independent code identifying the kind of error, for
+		 * machine readable reports.
+		 * 
+		 * @return Code of the error
+		 */
+		String getCode();
 
 	}
 
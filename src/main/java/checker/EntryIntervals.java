@@ -0,0 +1,105 @@
+/* Licensed under MIT 2024. */
+package checker;
+
+import data.Entry;
+import data.TimeSpan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The time intervals of the {@link Entry entries} of a time sheet, determined
+ * by a sweep over the entries of every day ordered by their start. The sweep
+ * compares every entry with all previous entries of its day, not only with its
+ * neighbour, in O(n log n) time for n entries, and determines the merged
+ * windows in which at least two entries overlap. Instances are immutable.
+ */
+final class EntryIntervals {
+
+	private final List<Interval> overlapWindows = new ArrayList<>();
+
+	/**
+	 * An interval of time on a day. Like the entries, it contains its start but
+	 * not its end.
+	 *
+	 * @param date  - the day of the interval.
+	 * @param start - the start of the interval.
+	 * @param end   - the end of the interval.
+	 */
+	record Interval(LocalDate date, TimeSpan start, TimeSpan end) {
+	}
+
+	/**
+	 * Determines the intervals of the given entries.
+	 *
+	 * @param entries - the entries of a time sheet, in any order.
+	 */
+	EntryIntervals(Collection<Entry> entries) {
+		List<Entry> sorted = new ArrayList<>(entries);
+		Collections.sort(sorted); // By date and start, entries of a time sheet are already sorted
+
+		int dayStart = 0;
+		for (int i = 1; i <= sorted.size(); i++) {
+			if (i == sorted.size() || !sorted.get(i).getDate().equals(sorted.get(dayStart).getDate())) {
+				sweepDay(sorted.subList(dayStart, i));
+				dayStart = i;
+			}
+		}
+	}
+
+	/**
+	 * Sweeps over the entries of a single day ordered by their start. An entry
+	 * overlaps a previous entry if it starts before the latest end of the
+	 * previous entries.
+	 *
+	 * @param day - the entries of a day, ordered by their start.
+	 */
+	private void sweepDay(List<Entry> day) {
+		LocalDate date = day.get(0).getDate();
+		TimeSpan latestEnd = null; // of all entries before the current one
+
+		for (Entry entry : day) {
+			if (latestEnd != null && latestEnd.compareTo(entry.getStart()) > 0) {
+				// At least two entries run from the start of this entry until it or the latest
+				// previous entry ends
+				TimeSpan overlapEnd = latestEnd.compareTo(entry.getEnd()) < 0 ? latestEnd : entry.getEnd();
+				merge(overlapWindows, new Interval(date, entry.getStart(), overlapEnd));
+			}
+
+			if (latestEnd == null || latestEnd.compareTo(entry.getEnd()) < 0) {
+				latestEnd = entry.getEnd();
+			}
+		}
+	}
+
+	/**
+	 * Adds an interval to a list of disjoint intervals ordered by their start,
+	 * merging it with the last interval if they intersect. The interval must not
+	 * start before the last interval.
+	 */
+	private static void merge(List<Interval> intervals, Interval interval) {
+		if (!intervals.isEmpty()) {
+			Interval last = intervals.get(intervals.size() - 1);
+			if (last.date().equals(interval.date()) && interval.start().compareTo(last.end()) < 0) {
+				if (interval.end().compareTo(last.end()) > 0) {
+					intervals.set(intervals.size() - 1, new Interval(last.date(), last.start(), interval.end()));
+				}
+				return;
+			}
+		}
+		intervals.add(interval);
+	}
+
+	/**
+	 * Gets the merged windows of time in which at least two entries overlap.
+	 *
+	 * @return The disjoint overlap windows, ordered by date and start.
+	 */
+	List<Interval> getOverlapWindows() {
+		return Collections.unmodifiableList(overlapWindows);
+	}
+
+}
@@ -3,12 +3,15 @@ package checker;
 
 import checker.holiday.GermanState;
 import checker.holiday.GermanyHolidayChecker;
+import checker.holiday.Holiday;
 import checker.holiday.HolidayFetchException;
 import checker.holiday.IHolidayChecker;
 import data.Entry;
 import data.TimeSheet;
 import data.TimeSpan;
-import i18n.ResourceHandler;
+import data.TimeSpanFormat;
+import i18n.MessageSource;
+import profiling.CheckRuleEvent;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -34,6 +37,7 @@ public class MiLoGChecker implements IChecker {
 
 	private CheckerReturn result;
 	private final Collection<CheckerError> errors;
+	private EntryIntervals entryIntervals; // Determined once per check, when a rule needs them
 
 	/**
 	 * Constructs a new {@link MiLoGChecker} instance.
@@ -59,20 +63,46 @@ public class MiLoGChecker implements IChecker {
 	public CheckerReturn check() throws CheckerException {
 		result = CheckerReturn.VALID;
 		errors.clear();
+		entryIntervals = null;
 
-		checkTotalTimeExceedance();
-		checkDayTimeExceedance();
-		checkDayPauseTime();
-		checkDayTimeBounds();
-		checkValidWorkingDays();
-		checkTimeOverlap();
+		checkRule("totalTimeExceedance", this::checkTotalTimeExceedance);
+		checkRule("dayTimeExceedance", this::checkDayTimeExceedance);
+		checkRule("dayPauseTime", this::checkDayPauseTime);
+		checkRule("dayTimeBounds", this::checkDayTimeBounds);
+		checkRule("validWorkingDays", this::checkValidWorkingDays);
+		checkRule("timeOverlap", this::checkTimeOverlap);
 
-		checkRowNumExceedance();
-		checkDepartmentName();
+		checkRule("rowNumExceedance", this::checkRowNumExceedance);
+		checkRule("departmentName", this::checkDepartmentName);
 
 		return result;
 	}
 
+	/**
+	 * Applies a single rule and records a {@link CheckRuleEvent} for it.
+	 *
+	 * @param name - the name of the rule.
+	 * @param rule - the rule to apply.
+	 * @throws CheckerException Thrown if an error occurs while applying the rule
+	 */
+	private void checkRule(String name, Rule rule) throws CheckerException {
+		CheckRuleEvent event = new CheckRuleEvent();
+		int errorsBefore = errors.size();
+		event.begin();
+		try {
+			rule.check();
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.sheetId = timeSheet.getSheetId();
+				event.rule = name;
+				event.entryCount = timeSheet.getEntries().size();
+				event.errorCount = errors.size() - errorsBefore;
+				event.commit();
+			}
+		}
+	}
+
 	/**
 	 * Returns a collection of all occurred checker errors during the execution of
 	 * the last call to {@link #check()}
@@ -196,13 +226,47 @@ public class MiLoGChecker implements IChecker {
 		}
 	}
 
+	/**
+	 * Checks whether the check of a time sheet depends on the holidays of its year.
+	 * This is not the case if all entries are on Sundays.
+	 *
+	 * @param timeSheet - to be checked.
+	 * @return {@code True} if the holidays are needed to check the time sheet,
+	 *         {@code False} otherwise.
+	 */
+	public static boolean dependsOnHolidays(TimeSheet timeSheet) {
+		return !timeSheet.getEntries().stream().allMatch(entry -> entry.getDate().getDayOfWeek().equals(DayOfWeek.SUNDAY));
+	}
+
+	/**
+	 * Gets the holidays the check of a time sheet depends on, which are the
+	 * holidays of its year in the checked state. If the check does not
+	 * {@link #dependsOnHolidays(TimeSheet) depend on the holidays}, none are
+	 * fetched.
+	 *
+	 * @param timeSheet - to get the holidays of.
+	 * @return The holidays the check depends on, empty if it does not depend on
+	 *         any.
+	 * @throws CheckerException if an error occurs while fetching the holidays.
+	 */
+	public static Collection<Holiday> getHolidays(TimeSheet timeSheet) throws CheckerException {
+		if (!dependsOnHolidays(timeSheet)) {
+			return List.of();
+		}
+		try {
+			return new GermanyHolidayChecker(timeSheet.getYear(), STATE).getHolidays();
+		} catch (HolidayFetchException e) {
+			throw new CheckerException(e.getMessage());
+		}
+	}
+
 	/**
 	 * Checks whether all of the days are valid working days.
 	 *
 	 * @throws CheckerException Thrown if an error occurs while fetching holidays
 	 */
 	protected void checkValidWorkingDays() throws CheckerException {
-		IHolidayChecker holidayChecker = new GermanyHolidayChecker(timeSheet.getYear(), STATE);
+		IHolidayChecker holidayChecker = null; // Only created if needed, so that the holiday code is only loaded then
 		for (Entry entry : timeSheet.getEntries()) {
 			LocalDate localDate = entry.getDate();
 
@@ -214,6 +278,9 @@ public class MiLoGChecker implements IChecker {
 			}
 
 			// Check for each entry whether it is a holiday
+			if (holidayChecker == null) {
+				holidayChecker = new GermanyHolidayChecker(timeSheet.getYear(), STATE);
+			}
 			try {
 				if (holidayChecker.isHoliday(localDate)) {
 					errors.add(new CheckerError(MiLoGCheckerErrorMessageProvider.TIME_HOLIDAY, localDate));
@@ -226,20 +293,28 @@ public class MiLoGChecker implements IChecker {
 	}
 
 	/**
-	 * Checks whether times of different entries in the time sheet overlap.
+	 * Checks whether times of different entries in the time sheet overlap. An
+	 * error is reported for every merged window of overlapping entries.
 	 */
 	protected void checkTimeOverlap() {
-		List<Entry> entries = timeSheet.getEntries();
-		if (entries.isEmpty()) {
-			return;
+		for (EntryIntervals.Interval window : getEntryIntervals().getOverlapWindows()) {
+			errors.add(new CheckerError(MiLoGCheckerErrorMessageProvider.TIME_OVERLAP, window.date()));
+			result = CheckerReturn.INVALID;
 		}
+	}
 
-		for (int i = 0; i < entries.size() - 1; i++) {
-			if (entries.get(i).getDate().equals(entries.get(i + 1).getDate()) && entries.get(i).getEnd().compareTo(entries.get(i + 1).getStart()) > 0) {
-				errors.add(new CheckerError(MiLoGCheckerErrorMessageProvider.TIME_OVERLAP, entries.get(i).getDate()));
-				result = CheckerReturn.INVALID;
-			}
+	/**
+	 * Gets the intervals of the entries of the time sheet, such as the merged
+	 * intervals in which work takes place on a day. They are only determined once
+	 * per check.
+	 *
+	 * @return The intervals of the entries.
+	 */
+	EntryIntervals getEntryIntervals() {
+		if (entryIntervals == null) {
+			entryIntervals = new EntryIntervals(timeSheet.getEntries());
 		}
+		return entryIntervals;
 	}
 
 	/**
@@ -320,6 +395,23 @@ public class MiLoGChecker implements IChecker {
 		return PAUSE_RULES;
 	}
 
+	/**
+	 * A single rule of this checker.
+	 */
+	@FunctionalInterface
+	private interface Rule {
+		void check() throws CheckerException;
+	}
+
+	/**
+	 * Gets the codes of all errors this checker can report.
+	 *
+	 * @return The codes of the errors, see {@link CheckerError#getCode()}.
+	 */
+	public static List<String> getErrorCodes() {
+		return Arrays.stream(MiLoGCheckerErrorMessageProvider.values()).map(MiLoGCheckerErrorMessageProvider::getCode).toList();
+	}
+
 	/**
 	 * This enum holds the possible error messages (including format specifiers) for
 	 * this checker
@@ -339,10 +431,22 @@ public class MiLoGChecker implements IChecker {
 		private final String messageKey;
 
 		@Override
-		public String getErrorMessage(Object... args) {
+		public String getErrorMessage(MessageSource messageSource, Object... args) {
 			String key = messageKeyPrefix + messageKey;
 
-			return ResourceHandler.getMessage(key, args);
+			// Time spans are formatted in the locale of the message source as well
+			Object[] localizedArgs = args.clone();
+			for (int i = 0; i < localizedArgs.length; i++) {
+				if (localizedArgs[i] instanceof TimeSpan timeSpan) {
+					localizedArgs[i] = TimeSpanFormat.getInstance(messageSource).format(timeSpan);
+				}
+			}
+			return messageSource.getMessage(key, localizedArgs);
+		}
+
+		@Override
+		public String getCode() {
+			return name();
 		}
 	}
 
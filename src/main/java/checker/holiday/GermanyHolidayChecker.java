@@ -1,14 +1,13 @@
 /* Licensed under MIT 2023-2024. */
 package checker.holiday;
 
-import io.FileController;
 import parser.IHolidayParser;
 import parser.ParseException;
 import parser.json.JsonHolidayParser;
+import profiling.HolidayFetchEvent;
 
-import javax.net.ssl.SSLHandshakeException;
 import java.io.IOException;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.Year;
 import java.util.Collection;
@@ -22,9 +21,9 @@ public class GermanyHolidayChecker implements IHolidayChecker {
 
 	private final Year year;
 	private final GermanState state;
+	private final HolidayClient client;
 	private Collection<Holiday> holidays;
-	private static final String HOLIDAY_FETCH_ADDRESS_HTTPS = "https://feiertage-api.de/api/?jahr=$year$&nur_land=$state$";
-	private static final String HOLIDAY_FETCH_ADDRESS_HTTP = "http://feiertage-api.de/api/?jahr=$year$&nur_land=$state$";
+	private static final String HOLIDAY_QUERY = "jahr=%d&nur_land=%s";
 
 	/**
 	 * Constructs a new {@link GermanyHolidayChecker} instance.
@@ -33,8 +32,21 @@ public class GermanyHolidayChecker implements IHolidayChecker {
 	 * @param state - of Germany to check for possible {@link Holiday holidays}.
 	 */
 	public GermanyHolidayChecker(int year, GermanState state) {
+		this(year, state, HolidayClient.getDefault());
+	}
+
+	/**
+	 * Constructs a new {@link GermanyHolidayChecker} instance fetching the
+	 * holidays with the given client.
+	 * 
+	 * @param year   - in which the {@link Holiday holidays} take place.
+	 * @param state  - of Germany to check for possible {@link Holiday holidays}.
+	 * @param client - to fetch the holidays with.
+	 */
+	GermanyHolidayChecker(int year, GermanState state, HolidayClient client) {
 		this.year = Year.of(year);
 		this.state = state;
+		this.client = client;
 	}
 
 	@Override
@@ -60,55 +72,59 @@ public class GermanyHolidayChecker implements IHolidayChecker {
 	}
 
 	/**
-	 * Fetches the occurring holidays from a specific source.
+	 * Fetches the occurring holidays from a specific source. Holidays that were
+	 * already fetched by another instance are taken from the {@link HolidayCache}.
+	 * If fetching the holidays of the year failed recently, the failure is
+	 * reported again without a request.
 	 * 
 	 * @throws HolidayFetchException if an error occurs fetching the holidays.
 	 */
 	private void fetchHolidays() throws HolidayFetchException {
-		String stringHolidays;
+		HolidayFetchEvent event = new HolidayFetchEvent();
+		event.begin();
+		String stringHolidays = null;
 		try {
-			stringHolidays = fetchHolidaysJSONString();
-		} catch (IOException e) {
-			throw new HolidayFetchException(e.getMessage());
-		}
+			Collection<Holiday> cachedHolidays = HolidayCache.get(year, state);
+			if (cachedHolidays != null) {
+				holidays = cachedHolidays;
+				event.cached = true;
+				return;
+			}
+			String failure = HolidayCache.getFailure(year);
+			if (failure != null) {
+				throw new HolidayFetchException(failure);
+			}
 
-		try {
-			IHolidayParser holidayParser = new JsonHolidayParser(stringHolidays);
+			try {
+				stringHolidays = fetchHolidaysJSONString();
+				IHolidayParser holidayParser = new JsonHolidayParser(stringHolidays);
 
-			holidays = holidayParser.getHolidays();
-		} catch (ParseException e) {
-			throw new HolidayFetchException(e.getMessage());
+				holidays = HolidayCache.put(year, state, holidayParser.getHolidays());
+			} catch (IOException | ParseException e) {
+				HolidayFetchException exception = new HolidayFetchException(e.getMessage());
+				HolidayCache.putFailure(year, exception);
+				throw exception;
+			}
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.year = year.getValue();
+				event.state = state.name();
+				event.holidayCount = holidays == null ? 0 : holidays.size();
+				event.bytes = stringHolidays == null ? 0 : stringHolidays.getBytes(StandardCharsets.UTF_8).length;
+				event.commit();
+			}
 		}
-
 	}
 
 	/**
-	 * Reads holidays formatted as JSON string and retries with fallback http
-	 * address if https is not available.
+	 * Fetches the holidays of the state formatted as JSON string.
 	 * 
 	 * @return Holidays formatted as JSON string
 	 * @throws IOException if an I/O error occurs.
 	 */
 	private String fetchHolidaysJSONString() throws IOException {
-		try {
-			return readHolidayJSONStringFromAddress(HOLIDAY_FETCH_ADDRESS_HTTPS);
-		} catch (SSLHandshakeException e) {
-			return readHolidayJSONStringFromAddress(HOLIDAY_FETCH_ADDRESS_HTTP);
-		}
-	}
-
-	/**
-	 * Reads holidays formatted as JSON string from address given.
-	 * 
-	 * @param address - to fetch holidays from
-	 * @return Holidays formatted as JSON string
-	 * @throws SSLHandshakeException if an SSL handshake error occurs.
-	 * @throws IOException           if an I/O error occurs.
-	 */
-	private String readHolidayJSONStringFromAddress(String address) throws SSLHandshakeException, IOException {
-		String filledAddress = address.replace("$year$", Integer.toString(year.getValue())).replace("$state$", state.name());
-
-		return FileController.readURLToString(new URL(filledAddress));
+		return client.fetch(HOLIDAY_QUERY.formatted(year.getValue(), state.name()));
 	}
 
 	/**
@@ -0,0 +1,114 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import parser.ParseException;
+import parser.json.JsonStateHolidaysParser;
+import profiling.HolidayFetchEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Loads the {@link Holiday holidays} of all {@link GermanState GermanStates}
+ * into the {@link HolidayCache} with a single request per year. A batch of
+ * time sheets of several states or years therefore needs at most one request
+ * per year, instead of one for every {@link GermanyHolidayChecker} of a state
+ * and year that was not cached yet.
+ */
+public final class HolidayBulkLoader {
+
+	private static final String ALL_STATES_QUERY = "jahr=%d";
+	private static final String ALL_STATES = "ALL";
+
+	private HolidayBulkLoader() {
+	}
+
+	/**
+	 * Loads the holidays of all states for every year of a range. Years of which
+	 * the holidays of all states are already cached are skipped. Years of which
+	 * fetching the holidays failed recently are not requested again.
+	 * 
+	 * @param fromYear - the first year to load, inclusive.
+	 * @param toYear   - the last year to load, inclusive.
+	 * @return The number of years that were fetched.
+	 * @throws HolidayFetchException if an error occurs fetching the holidays.
+	 */
+	public static int load(int fromYear, int toYear) throws HolidayFetchException {
+		return load(fromYear, toYear, HolidayClient.getDefault());
+	}
+
+	/**
+	 * Loads the holidays of all states for every year of a range with the given
+	 * client.
+	 * 
+	 * @param fromYear - the first year to load, inclusive.
+	 * @param toYear   - the last year to load, inclusive.
+	 * @param client   - to fetch the holidays with.
+	 * @return The number of years that were fetched.
+	 * @throws HolidayFetchException if an error occurs fetching the holidays.
+	 */
+	static int load(int fromYear, int toYear, HolidayClient client) throws HolidayFetchException {
+		if (fromYear > toYear) {
+			throw new IllegalArgumentException("The first year %d is after the last year %d.".formatted(fromYear, toYear));
+		}
+		int fetched = 0;
+		for (int year = fromYear; year <= toYear; year++) {
+			if (!HolidayCache.containsAllStates(Year.of(year))) {
+				String failure = HolidayCache.getFailure(Year.of(year));
+				if (failure != null) {
+					throw new HolidayFetchException(failure);
+				}
+				try {
+					loadYear(Year.of(year), client);
+				} catch (HolidayFetchException e) {
+					HolidayCache.putFailure(Year.of(year), e);
+					throw e;
+				}
+				fetched++;
+			}
+		}
+		return fetched;
+	}
+
+	private static void loadYear(Year year, HolidayClient client) throws HolidayFetchException {
+		HolidayFetchEvent event = new HolidayFetchEvent();
+		event.begin();
+		String stringHolidays = null;
+		int holidayCount = 0;
+		try {
+			try {
+				stringHolidays = client.fetch(ALL_STATES_QUERY.formatted(year.getValue()));
+			} catch (IOException e) {
+				throw new HolidayFetchException(e.getMessage());
+			}
+
+			Map<String, Collection<Holiday>> holidaysByState;
+			try {
+				holidaysByState = new JsonStateHolidaysParser(stringHolidays).getHolidaysByState();
+			} catch (ParseException e) {
+				throw new HolidayFetchException(e.getMessage());
+			}
+			for (GermanState state : GermanState.values()) {
+				Collection<Holiday> holidays = holidaysByState.get(state.name());
+				if (holidays == null) {
+					continue; // Fetched on its own by a checker of the state if needed
+				}
+				HolidayCache.put(year, state, holidays);
+				holidayCount += holidays.size();
+			}
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.year = year.getValue();
+				event.state = ALL_STATES;
+				event.holidayCount = holidayCount;
+				event.bytes = stringHolidays == null ? 0 : stringHolidays.getBytes(StandardCharsets.UTF_8).length;
+				event.commit();
+			}
+		}
+	}
+
+}
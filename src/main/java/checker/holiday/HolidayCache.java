@@ -0,0 +1,131 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.time.Year;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide cache of the {@link Holiday holidays} fetched for a year and a
+ * {@link GermanState}. Holidays do not change once published, so fetched
+ * holidays are kept for the lifetime of the application and shared by all
+ * {@link GermanyHolidayChecker} instances. <br/>
+ * Failed fetches are remembered per year for a short time, during which the
+ * holidays of the year are not requested again. This class is thread safe.
+ */
+final class HolidayCache {
+
+	private static final Map<Key, Collection<Holiday>> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Time a failed fetch is remembered, as long as the circuit breaker of the
+	 * default {@link HolidayClient} stays open. Without it, the checks of a batch
+	 * of time sheets would each retry the fetch after the bulk load failed.
+	 */
+	private static final Duration FAILURE_RETENTION = Duration.ofSeconds(30);
+	private static final Map<Year, Failure> FAILURES = new ConcurrentHashMap<>();
+
+	private static final Counter HITS = MetricsRegistry.getDefault().counter("timesheet_holiday_cache_hits_total", "Holiday lookups answered from the cache.");
+	private static final Counter MISSES = MetricsRegistry.getDefault().counter("timesheet_holiday_cache_misses_total",
+			"Holiday lookups that had to fetch the holidays.");
+
+	private HolidayCache() {
+	}
+
+	/**
+	 * Gets the cached holidays of a year and a state.
+	 * 
+	 * @param year  - of the holidays.
+	 * @param state - of the holidays.
+	 * @return The cached holidays or {@code null} if they were not fetched yet.
+	 */
+	static Collection<Holiday> get(Year year, GermanState state) {
+		Collection<Holiday> holidays = CACHE.get(new Key(year, state));
+		(holidays != null ? HITS : MISSES).increment();
+		return holidays;
+	}
+
+	/**
+	 * Checks whether the holidays of a year are cached for every state. Unlike
+	 * {@link #get(Year, GermanState)}, this is not counted as a lookup.
+	 * 
+	 * @param year - of the holidays.
+	 * @return {@code True} if the holidays of all states are cached, {@code False}
+	 *         otherwise.
+	 */
+	static boolean containsAllStates(Year year) {
+		for (GermanState state : GermanState.values()) {
+			if (!CACHE.containsKey(new Key(year, state))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Caches the holidays of a year and a state, unless they are already cached.
+	 * If they were fetched concurrently, the holidays cached first are kept, so
+	 * that all checkers use the same holidays.
+	 * 
+	 * @param year     - of the holidays.
+	 * @param state    - of the holidays.
+	 * @param holidays - to be cached.
+	 * @return The cached, unmodifiable holidays.
+	 */
+	static Collection<Holiday> put(Year year, GermanState state, Collection<Holiday> holidays) {
+		Collection<Holiday> cached = List.copyOf(holidays);
+		Collection<Holiday> previous = CACHE.putIfAbsent(new Key(year, state), cached);
+		FAILURES.remove(year);
+		return previous != null ? previous : cached;
+	}
+
+	/**
+	 * Remembers that fetching the holidays of a year failed.
+	 * 
+	 * @param year      - of the holidays.
+	 * @param exception - the failure.
+	 */
+	static void putFailure(Year year, HolidayFetchException exception) {
+		FAILURES.put(year, new Failure(exception.getMessage(), System.nanoTime() + FAILURE_RETENTION.toNanos()));
+	}
+
+	/**
+	 * Gets the message of a recently failed fetch of the holidays of a year.
+	 * 
+	 * @param year - of the holidays.
+	 * @return The message of the failure or {@code null} if fetching the holidays
+	 *         did not fail recently.
+	 */
+	static String getFailure(Year year) {
+		Failure failure = FAILURES.get(year);
+		if (failure == null) {
+			return null;
+		}
+		if (System.nanoTime() - failure.expiresNanos() >= 0) {
+			FAILURES.remove(year, failure);
+			return null;
+		}
+		return failure.message();
+	}
+
+	/**
+	 * Removes all cached holidays and failures.
+	 */
+	static void clear() {
+		CACHE.clear();
+		FAILURES.clear();
+	}
+
+	private record Key(Year year, GermanState state) {
+	}
+
+	private record Failure(String message, long expiresNanos) {
+	}
+
+}
@@ -0,0 +1,225 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client of the holiday api shared by all {@link GermanyHolidayChecker}
+ * instances. It uses one {@link HttpClient}, which reuses connections and
+ * prefers HTTP/2, with timeouts for connecting and for every request. <br/>
+ * Failed requests, i.e. I/O errors, timeouts and server errors, are retried a
+ * bounded number of times with exponential backoff and full jitter. A circuit
+ * breaker stops requests for a while after several fetches failed in a row, so
+ * that checking many time sheets does not wait for the timeouts of an
+ * unavailable api again and again. After that while, one trial request decides
+ * whether the circuit is closed again. <br/>
+ * Responses are revalidated with their ETag and Last-Modified validators, so an
+ * unchanged response is not transferred again. This class is thread safe.
+ */
+final class HolidayClient {
+
+	private static final URI DEFAULT_BASE_URI = URI.create("https://feiertage-api.de/api/");
+	private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+	private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+	private static final int DEFAULT_MAX_ATTEMPTS = 3;
+	private static final Duration DEFAULT_BACKOFF = Duration.ofMillis(250);
+	private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+	private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+	private static final int HTTP_OK = 200;
+	private static final int HTTP_NOT_MODIFIED = 304;
+	private static final int HTTP_TOO_MANY_REQUESTS = 429;
+	private static final int HTTP_SERVER_ERROR = 500;
+
+	private final HttpClient httpClient;
+	private final URI baseUri;
+	private final Duration requestTimeout;
+	private final int maxAttempts;
+	private final Duration backoff;
+	private final int failureThreshold;
+	private final Duration openDuration;
+
+	private final Map<URI, CachedResponse> responses = new ConcurrentHashMap<>();
+
+	// circuit breaker state, guarded by this
+	private int consecutiveFailures;
+	private long openUntilNanos;
+	private boolean trialRunning;
+
+	/**
+	 * Constructs a new {@link HolidayClient}.
+	 *
+	 * @param baseUri          - of the api, the query is appended to.
+	 * @param connectTimeout   - of connecting to the api.
+	 * @param requestTimeout   - of a single request, until the response headers
+	 *                         are received.
+	 * @param maxAttempts      - of a fetch, including the first request.
+	 * @param backoff          - before the first retry, doubled for every further
+	 *                         retry.
+	 * @param failureThreshold - of failed fetches in a row opening the circuit.
+	 * @param openDuration     - of the circuit staying open.
+	 */
+	HolidayClient(URI baseUri, Duration connectTimeout, Duration requestTimeout, int maxAttempts, Duration backoff, int failureThreshold,
+			Duration openDuration) {
+		if (maxAttempts < 1 || failureThreshold < 1) {
+			throw new IllegalArgumentException("At least one attempt and failure are required.");
+		}
+		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).connectTimeout(connectTimeout)
+				.followRedirects(HttpClient.Redirect.NORMAL).build();
+		this.baseUri = baseUri;
+		this.requestTimeout = requestTimeout;
+		this.maxAttempts = maxAttempts;
+		this.backoff = backoff;
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+	}
+
+	/**
+	 * Gets the client of the public holiday api. It is only created when it is
+	 * used for the first time.
+	 *
+	 * @return The shared client.
+	 */
+	static HolidayClient getDefault() {
+		return DefaultHolder.DEFAULT;
+	}
+
+	/**
+	 * Fetches the response of the api to a query.
+	 *
+	 * @param query - the query string, e.g. <code>jahr=2024&amp;nur_land=BW</code>.
+	 * @return The body of the response.
+	 * @throws IOException if the circuit is open, the api responded with an error
+	 *                     or all attempts failed.
+	 */
+	String fetch(String query) throws IOException {
+		acquirePermission();
+		URI uri = baseUri.resolve("?" + query);
+		try {
+			String body = fetchWithRetries(uri);
+			recordSuccess();
+			return body;
+		} catch (IOException | RuntimeException e) {
+			recordFailure();
+			throw e;
+		}
+	}
+
+	private String fetchWithRetries(URI uri) throws IOException {
+		for (int attempt = 1;; attempt++) {
+			try {
+				return send(uri);
+			} catch (RetryableException e) {
+				if (attempt >= maxAttempts) {
+					throw e.getCause();
+				}
+			}
+			sleepBeforeRetry(attempt);
+		}
+	}
+
+	private String send(URI uri) throws IOException, RetryableException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(requestTimeout).header("Accept", "application/json").GET();
+		CachedResponse cached = responses.get(uri);
+		if (cached != null) {
+			cached.etag().ifPresent(etag -> request.header("If-None-Match", etag));
+			cached.lastModified().ifPresent(lastModified -> request.header("If-Modified-Since", lastModified));
+		}
+
+		HttpResponse<String> response;
+		try {
+			response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while fetching holidays from %s".formatted(uri));
+		} catch (IOException e) { // includes timeouts
+			throw new RetryableException(e);
+		}
+
+		int status = response.statusCode();
+		if (status == HTTP_NOT_MODIFIED && cached != null) {
+			return cached.body();
+		}
+		if (status == HTTP_TOO_MANY_REQUESTS || status >= HTTP_SERVER_ERROR) {
+			throw new RetryableException(new IOException("Fetching holidays from %s failed with status %d".formatted(uri, status)));
+		}
+		if (status != HTTP_OK) {
+			throw new IOException("Fetching holidays from %s failed with status %d".formatted(uri, status));
+		}
+
+		Optional<String> etag = response.headers().firstValue("ETag");
+		Optional<String> lastModified = response.headers().firstValue("Last-Modified");
+		if (etag.isPresent() || lastModified.isPresent()) {
+			responses.put(uri, new CachedResponse(response.body(), etag, lastModified));
+		}
+		return response.body();
+	}
+
+	private void sleepBeforeRetry(int attempt) throws InterruptedIOException {
+		long maxMillis = backoff.toMillis() << Math.min(attempt - 1, 16);
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1)); // Full jitter
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to retry fetching holidays");
+		}
+	}
+
+	private synchronized void acquirePermission() throws IOException {
+		if (consecutiveFailures < failureThreshold) {
+			return; // closed
+		}
+		if (System.nanoTime() - openUntilNanos < 0 || trialRunning) {
+			throw new IOException("Fetching holidays is paused after %d failed fetches in a row".formatted(consecutiveFailures));
+		}
+		trialRunning = true; // half open, this request decides
+	}
+
+	private synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+		trialRunning = false;
+	}
+
+	private synchronized void recordFailure() {
+		consecutiveFailures++;
+		trialRunning = false;
+		if (consecutiveFailures >= failureThreshold) {
+			openUntilNanos = System.nanoTime() + openDuration.toNanos();
+		}
+	}
+
+	private record CachedResponse(String body, Optional<String> etag, Optional<String> lastModified) {
+	}
+
+	/**
+	 * Failure of a single request that is worth retrying.
+	 */
+	private static final class RetryableException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		RetryableException(IOException cause) {
+			super(cause.getMessage(), cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+
+	private static final class DefaultHolder {
+		private static final HolidayClient DEFAULT = new HolidayClient(DEFAULT_BASE_URI, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT,
+				DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+	}
+
+}
@@ -122,6 +122,17 @@ public class TimeSheet {
 		return this.profession;
 	}
 
+	/**
+	 * Gets an id identifying a {@link TimeSheet} in reports and diagnostics,
+	 * consisting of the staff id of the employee and the month, e.g.
+	 * <code>1234567/2019-11</code>.
+	 * 
+	 * @return The id of the time sheet.
+	 */
+	public String getSheetId() {
+		return "%d/%d-%02d".formatted(employee.getId(), getYear(), getMonth().getValue());
+	}
+
 	/**
 	 * Calculates the overall working time of all entries.
 	 * 
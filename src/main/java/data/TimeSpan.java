@@ -50,6 +50,29 @@ public class TimeSpan implements Comparable<TimeSpan> {
 		return hour;
 	}
 
+	/**
+	 * Gets the total number of minutes of a TimeSpan.
+	 * 
+	 * @return - The hours and minutes in minutes.
+	 */
+	public long toMinutes() {
+		return hour * (MAX_MINUTE + 1L) + minute;
+	}
+
+	/**
+	 * Constructs a new TimeSpan instance from a total number of minutes.
+	 * 
+	 * @param minutes - Non-negative number of minutes
+	 * @return The {@link TimeSpan} of the minutes, with minutes of 60 and more
+	 *         carried over into hours
+	 */
+	public static TimeSpan ofMinutes(long minutes) {
+		if (minutes < 0) {
+			throw new IllegalArgumentException(ResourceHandler.getMessage("error.timespan.timeNegative"));
+		}
+		return new TimeSpan(Math.toIntExact(minutes / (MAX_MINUTE + 1)), (int) (minutes % (MAX_MINUTE + 1)));
+	}
+
 	/**
 	 * Sums up hours and minutes taking carryover into account.
 	 * 
@@ -88,28 +111,15 @@ public class TimeSpan implements Comparable<TimeSpan> {
 	 * 
 	 * @param s - the string to be parsed.
 	 * @return A {@link TimeSpan} representing the input string
+	 * @see TimeSpanFormat#parse(CharSequence)
 	 */
 	public static TimeSpan parse(String s) {
-		if (!s.matches(ResourceHandler.getMessage("locale.timespan.parseRegex"))) {
-			throw new IllegalArgumentException(ResourceHandler.getMessage("error.timespan.invalidParseInput"));
-		}
-		String[] splittedString = s.split(ResourceHandler.getMessage("locale.timespan.separatorHourMinute"));
-
-		int hours;
-		int minutes;
-		try {
-			hours = Integer.parseInt(splittedString[0]);
-			minutes = Integer.parseInt(splittedString[1]);
-		} catch (NumberFormatException e) {
-			throw new IllegalArgumentException(e.getMessage());
-		}
-
-		return new TimeSpan(hours, minutes);
+		return TimeSpanFormat.getInstance().parse(s);
 	}
 
 	@Override
 	public String toString() {
-		return ResourceHandler.getMessage("locale.timespan.stringFormat", hour, minute);
+		return TimeSpanFormat.getInstance().format(this);
 	}
 
 	@Override
@@ -0,0 +1,147 @@
+/* Licensed under MIT 2024. */
+package data;
+
+import i18n.MessageSource;
+import i18n.ResourceHandler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Formats and parses {@link TimeSpan} instances in the <code>h...h:mm</code>
+ * notation. The separator and the number of digits are read once per message
+ * source from its i18n message bundle, afterwards formatting and parsing work
+ * directly on the characters without regular expressions or message formats.
+ * Instances are immutable and thread safe.
+ */
+public final class TimeSpanFormat {
+
+	/**
+	 * The formats by the message source they were read from. Message sources are
+	 * shared per bundle and locale, so there is one format for each of them.
+	 */
+	private static final ConcurrentMap<MessageSource, TimeSpanFormat> INSTANCES = new ConcurrentHashMap<>();
+
+	private final MessageSource messageSource;
+	private final String separator;
+	private final int minHourDigits;
+	private final int minuteDigits;
+
+	private TimeSpanFormat(MessageSource messageSource) {
+		this.messageSource = messageSource;
+		this.separator = messageSource.getMessage("locale.timespan.separatorHourMinute");
+		this.minHourDigits = Integer.parseInt(messageSource.getMessage("locale.timespan.minHourDigits"));
+		this.minuteDigits = Integer.parseInt(messageSource.getMessage("locale.timespan.minuteDigits"));
+	}
+
+	/**
+	 * Gets the format of the currently used locale.
+	 *
+	 * @return The format of the currently used locale.
+	 */
+	public static TimeSpanFormat getInstance() {
+		return getInstance(ResourceHandler.getMessageSource());
+	}
+
+	/**
+	 * Gets the format of a message source.
+	 *
+	 * @param messageSource - The message source to read the format from.
+	 * @return The format of the message source.
+	 */
+	public static TimeSpanFormat getInstance(MessageSource messageSource) {
+		return INSTANCES.computeIfAbsent(messageSource, TimeSpanFormat::new);
+	}
+
+	/**
+	 * Formats a time span, padding hours and minutes with leading zeros.
+	 *
+	 * @param timeSpan - The time span to format.
+	 * @return The formatted time span.
+	 */
+	public String format(TimeSpan timeSpan) {
+		return formatTo(timeSpan, new StringBuilder(minHourDigits + separator.length() + minuteDigits)).toString();
+	}
+
+	/**
+	 * Appends a formatted time span to a string builder.
+	 *
+	 * @param timeSpan - The time span to format.
+	 * @param builder  - The builder to append to.
+	 * @return The given builder.
+	 */
+	public StringBuilder formatTo(TimeSpan timeSpan, StringBuilder builder) {
+		appendPadded(builder, timeSpan.getHour(), minHourDigits);
+		builder.append(separator);
+		appendPadded(builder, timeSpan.getMinute(), minuteDigits);
+		return builder;
+	}
+
+	/**
+	 * Parses a time span consisting of at least one digit for the hours, the
+	 * separator and at most as many digits for the minutes as are formatted.
+	 *
+	 * @param text - The text to parse.
+	 * @return The parsed time span.
+	 * @throws IllegalArgumentException if the text is not a valid time span.
+	 */
+	public TimeSpan parse(CharSequence text) {
+		int length = text.length();
+		int index = 0;
+
+		long hours = 0;
+		while (index < length && isDigit(text.charAt(index))) {
+			hours = hours * 10 + (text.charAt(index) - '0');
+			if (hours > Integer.MAX_VALUE) {
+				throw invalidInput();
+			}
+			index++;
+		}
+		if (index == 0 || !regionMatches(text, index, separator)) {
+			throw invalidInput();
+		}
+		index += separator.length();
+
+		int minuteStart = index;
+		int minutes = 0;
+		while (index < length && index - minuteStart < minuteDigits && isDigit(text.charAt(index))) {
+			minutes = minutes * 10 + (text.charAt(index) - '0');
+			index++;
+		}
+		if (index == minuteStart || index != length) {
+			throw invalidInput();
+		}
+
+		return new TimeSpan((int) hours, minutes);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean regionMatches(CharSequence text, int offset, String other) {
+		if (offset + other.length() > text.length()) {
+			return false;
+		}
+		for (int i = 0; i < other.length(); i++) {
+			if (text.charAt(offset + i) != other.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void appendPadded(StringBuilder builder, int value, int digits) {
+		for (int limit = 10, i = 1; i < digits; i++, limit *= 10) {
+			if (value < limit) {
+				builder.append('0');
+			}
+		}
+		builder.append(value);
+	}
+
+	private IllegalArgumentException invalidInput() {
+		return new IllegalArgumentException(messageSource.getMessage("error.timespan.invalidParseInput"));
+	}
+
+}
@@ -57,6 +57,12 @@ class DateFormatWrapper extends Format {
 		return innerFormat.format(obj, toAppendTo, pos);
 	}
 
+	@Override
+	public Object clone() {
+		// The wrapped format is not thread-safe, so clones must not share it
+		return new DateFormatWrapper((DateFormat) innerFormat.clone());
+	}
+
 	@Override
 	public Object parseObject(String source, ParsePosition pos) {
 		return innerFormat.parseObject(source, pos);
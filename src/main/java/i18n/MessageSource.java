@@ -0,0 +1,138 @@
+/* Licensed under MIT 2024. */
+package i18n;
+
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Localized messages from the i18n message bundles of a single locale. <br/>
+ * In contrast to the {@link ResourceHandler}, whose locale is shared by the
+ * whole application, a message source is bound to one locale. It can be passed
+ * explicitly to anything that creates localized output, so time sheets in
+ * different languages can be generated at the same time. <br/>
+ * Message sources are created once per locale and shared. They are immutable
+ * apart from the lazily compiled message formats, which are held in a
+ * concurrent map, so they can be used by any number of threads without
+ * locking. As <code>MessageFormat</code> is not thread-safe, every call formats
+ * with a clone of the compiled format, which is a lot cheaper than parsing the
+ * pattern again.
+ */
+public final class MessageSource {
+
+	static final String DEFAULT_MESSAGE_BUNDLE_PATH = "i18n/MessageBundle";
+
+	private static final ConcurrentMap<BundleKey, MessageSource> INSTANCES = new ConcurrentHashMap<>();
+	private static final List<Locale> AVAILABLE_LOCALES = Arrays.asList(Locale.getAvailableLocales());
+	private static final ResourceBundle.Control NO_FALLBACK_CONTROL = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+	private final Locale locale;
+	private final ResourceBundle resourceBundle;
+	private final ConcurrentMap<String, MessageFormat> formats = new ConcurrentHashMap<>();
+
+	private record BundleKey(String messageBundlePath, Locale locale) {
+	}
+
+	private MessageSource(String messageBundlePath, Locale locale) {
+		this.locale = locale;
+		this.resourceBundle = ResourceBundle.getBundle(messageBundlePath, locale);
+	}
+
+	/**
+	 * Gets the message source of the application message bundles for a locale.
+	 * The locale will be the first choice for the i18n message bundle loaded.
+	 * 
+	 * @param locale Locale of the message source
+	 * @return The shared message source of the locale
+	 */
+	public static MessageSource forLocale(final Locale locale) {
+		return forLocale(DEFAULT_MESSAGE_BUNDLE_PATH, locale);
+	}
+
+	static MessageSource forLocale(final String messageBundlePath, final Locale locale) {
+		return INSTANCES.computeIfAbsent(new BundleKey(messageBundlePath, locale), key -> new MessageSource(key.messageBundlePath(), key.locale()));
+	}
+
+	/**
+	 * Gets the message source of the application message bundles that best match
+	 * a priority list of language ranges, as sent by HTTP clients. The ranges are
+	 * resolved to the locale of the matching message bundle, so there is at most
+	 * one message source per bundle, whatever ranges are passed.
+	 * 
+	 * @param ranges Language ranges in descending order of preference
+	 * @return The shared message source of the best matching bundle or an empty
+	 *         optional if only the base bundle matches
+	 */
+	public static Optional<MessageSource> forLanguageRanges(final List<Locale.LanguageRange> ranges) {
+		return forLanguageRanges(DEFAULT_MESSAGE_BUNDLE_PATH, ranges);
+	}
+
+	static Optional<MessageSource> forLanguageRanges(final String messageBundlePath, final List<Locale.LanguageRange> ranges) {
+		for (Locale.LanguageRange range : ranges) {
+			Locale requested = Locale.lookup(List.of(range), AVAILABLE_LOCALES);
+			if (requested != null) {
+				Locale bundleLocale = ResourceBundle.getBundle(messageBundlePath, requested, NO_FALLBACK_CONTROL).getLocale();
+				if (!bundleLocale.equals(Locale.ROOT)) {
+					return Optional.of(forLocale(messageBundlePath, bundleLocale));
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the locale of this message source.
+	 * 
+	 * @return Locale of this message source
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Get a message string from the i18n message bundles. <br/>
+	 * The key will be searched in the i18n message bundle of the locale of this
+	 * message source and all parent message bundles ("fallback"). <br/>
+	 * The objects provided in <code>args</code> will be inserted in the loaded
+	 * message string with the format specified in the message string.
+	 * 
+	 * @param key  Message key
+	 * @param args Objects to insert in the loaded message string
+	 * 
+	 * @return Loaded message string containing a string representation of the
+	 *         provided objects
+	 */
+	public String getMessage(final String key, final Object... args) {
+		MessageFormat format = formats.computeIfAbsent(key, this::compile);
+		return ((MessageFormat) format.clone()).format(args);
+	}
+
+	private MessageFormat compile(final String key) {
+		String message = resourceBundle.getString(key);
+
+		MessageFormat format = new MessageFormat("");
+		format.setLocale(locale);
+		format.applyPattern(message);
+		replaceUnsupportedFormats(format);
+
+		return format;
+	}
+
+	private static void replaceUnsupportedFormats(MessageFormat format) {
+		Format[] subformats = format.getFormats();
+
+		for (int i = 0; i < subformats.length; i++) {
+			if (subformats[i] instanceof DateFormat) {
+				format.setFormat(i, new DateFormatWrapper((DateFormat) subformats[i]));
+			}
+		}
+	}
+
+}
@@ -1,72 +1,52 @@
 /* Licensed under MIT 2023-2024. */
 package i18n;
 
-import java.text.DateFormat;
-import java.text.Format;
-import java.text.MessageFormat;
 import java.util.Locale;
-import java.util.ResourceBundle;
 
 /**
- * Static class providing localized messages from the i18n message bundles.
+ * Static class providing localized messages from the i18n message bundles in
+ * the locale used by the application. Code that has to create output in a
+ * locale independent of the application locale should use a
+ * {@link MessageSource} instead.
  */
 public class ResourceHandler {
 
-	private static final String DEFAULT_MESSAGE_BUNDLE_PATH = "i18n/MessageBundle";
-
 	protected static class ResourceHandlerInstance {
 
 		protected ResourceHandlerInstance(String messageBundlePath) {
 			this.messageBundlePath = messageBundlePath;
 
-			locale = Locale.getDefault();
-
-			loadResourceBundle();
+			messageSource = MessageSource.forLocale(messageBundlePath, Locale.getDefault());
 		}
 
 		private final String messageBundlePath;
 
-		private Locale locale;
-		private ResourceBundle resourceBundle;
+		/**
+		 * Message source of the currently used locale. Replaced as a whole when the
+		 * locale changes, so a message is never formatted with a format compiled for
+		 * another locale.
+		 */
+		private volatile MessageSource messageSource;
 
 		protected Locale getLocale() {
-			return locale;
+			return messageSource.getLocale();
 		}
 
 		protected void setLocale(final Locale locale) {
-			this.locale = locale;
-
-			loadResourceBundle();
-		}
-
-		protected String getMessage(final String key, final Object... args) {
-			String message = resourceBundle.getString(key);
-
-			MessageFormat format = new MessageFormat("");
-			format.setLocale(locale);
-			format.applyPattern(message);
-			replaceUnsupportedFormats(format);
-
-			return format.format(args);
+			messageSource = MessageSource.forLocale(messageBundlePath, locale);
 		}
 
-		private void loadResourceBundle() {
-			resourceBundle = ResourceBundle.getBundle(messageBundlePath, locale);
+		protected MessageSource getMessageSource() {
+			return messageSource;
 		}
 
-		private static void replaceUnsupportedFormats(MessageFormat format) {
-			Format[] subformats = format.getFormats();
-
-			for (int i = 0; i < subformats.length; i++) {
-				if (subformats[i] instanceof DateFormat) {
-					format.setFormat(i, new DateFormatWrapper((DateFormat) subformats[i]));
-				}
-			}
+		protected String getMessage(final String key, final Object... args) {
+			return messageSource.getMessage(key, args);
 		}
 
 	}
 
-	private static final ResourceHandlerInstance instance = new ResourceHandlerInstance(DEFAULT_MESSAGE_BUNDLE_PATH);
+	private static final ResourceHandlerInstance instance = new ResourceHandlerInstance(MessageSource.DEFAULT_MESSAGE_BUNDLE_PATH);
 
 	/**
 	 * Get the currently used locale.
@@ -87,6 +67,16 @@ public class ResourceHandler {
 		instance.setLocale(locale);
 	}
 
+	/**
+	 * Get the message source of the currently used locale. The returned message
+	 * source is not affected by later changes of the locale.
+	 * 
+	 * @return Message source of the currently used locale
+	 */
+	public static MessageSource getMessageSource() {
+		return instance.getMessageSource();
+	}
+
 	/**
 	 * Get a message string from the i18n message bundles. <br/>
 	 * The key will be searched in the i18n message bundle specified by the
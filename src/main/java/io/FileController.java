@@ -1,76 +1,184 @@
 /* Licensed under MIT 2023-2024. */
 package io;
 
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import profiling.FileIOEvent;
+
 import java.io.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.function.LongSupplier;
 
 /**
- * The FileController class provides functionality for file handling.
+ * The FileController class provides functionality for file handling. <br/>
+ * Files are read as a whole into a byte array, which can be handed to the json
+ * parsers directly, and are decoded as UTF-8 without changing their line
+ * endings. Files are written atomically: the content is written to a temporary
+ * file in the same directory, which then replaces the target file, so readers
+ * never see a partially written file.
  */
 public class FileController {
 
 	private static final Charset CHARSET = StandardCharsets.UTF_8;
+	private static final String TEMP_FILE_FORMAT = ".%s.%s.tmp";
+
+	private static final Counter BYTES_WRITTEN = MetricsRegistry.getDefault().counter("timesheet_bytes_written_total", "Bytes written to files.");
 
 	private FileController() {
 	}
 
 	/**
-	 * This method returns a {@link String} read from an {@link InputStream}.
-	 * 
+	 * This method returns a {@link String} read from an {@link InputStream}. The
+	 * stream is closed afterwards.
+	 *
 	 * @param inStream - The stream the {@link String} is read from.
 	 * @return a {@link String} read from the {@link InputStream}
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static String readInputStreamToString(InputStream inStream) throws IOException {
-		StringBuilder stringBuilder = new StringBuilder();
-		String ls = System.getProperty("line.separator", "\n");
-
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inStream, CHARSET))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				stringBuilder.append(line);
-				stringBuilder.append(ls);
-			}
-
-			return stringBuilder.toString();
+		try (inStream) {
+			return new String(inStream.readAllBytes(), CHARSET);
 		}
 	}
 
 	/**
 	 * This method returns a {@link String} read from a {@link File}.
-	 * 
+	 *
 	 * @param file - The file the {@link String} is read from.
 	 * @return a {@link String} read from the {@link File}
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static String readFileToString(File file) throws IOException {
-		return readInputStreamToString(new FileInputStream(file));
+		return new String(readFileToBytes(file), CHARSET);
+	}
+
+	/**
+	 * This method returns the content of a {@link File}.
+	 *
+	 * @param file - The file to read.
+	 * @return the content of the {@link File}
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static byte[] readFileToBytes(File file) throws IOException {
+		FileIOEvent event = begin(FileIOEvent.READ);
+		byte[] content = Files.readAllBytes(file.toPath());
+		commit(event, file.getPath(), () -> content.length);
+		return content;
+	}
+
+	/**
+	 * This method maps a {@link File} into memory for reading. Unlike reading the
+	 * file into a byte array, only the parts that are accessed are read, which
+	 * suits large files that are accessed at random.
+	 *
+	 * @param file - The file to map.
+	 * @return a read-only buffer of the content of the {@link File}
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static MappedByteBuffer mapFile(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) { // The mapping stays valid after closing
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
 	}
 
 	/**
 	 * This method returns a {@link String} read from an {@link URL}.
-	 * 
+	 *
 	 * @param url - The url the {@link String} is read from.
 	 * @return a {@link String} read from the {@link URL}
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static String readURLToString(URL url) throws IOException {
-		return readInputStreamToString(url.openStream());
+		FileIOEvent event = begin(FileIOEvent.READ);
+		String content = readInputStreamToString(url.openStream());
+		commit(event, url.toString(), () -> content.getBytes(CHARSET).length);
+		return content;
 	}
 
 	/**
-	 * This method saves a {@link String} to a {@link File}.
-	 * 
+	 * This method saves a {@link String} to a {@link File} atomically.
+	 *
 	 * @param content - The {@link String} to be saved.
 	 * @param file    - The {@link File} to save the content to.
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static void saveStringToFile(String content, File file) throws IOException {
-		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), CHARSET)) {
-			writer.write(content);
+		writeAtomically(file.toPath(), content.getBytes(CHARSET), false);
+	}
+
+	/**
+	 * This method saves bytes to a {@link File} atomically.
+	 *
+	 * @param content - The bytes to be saved.
+	 * @param file    - The {@link File} to save the content to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void saveBytesToFile(byte[] content, File file) throws IOException {
+		writeAtomically(file.toPath(), content, false);
+	}
+
+	/**
+	 * This method writes bytes to a temporary file next to the target, which then
+	 * replaces the target. If the file system can not move the file atomically, it
+	 * is replaced non-atomically.
+	 *
+	 * @param target  - The file to save the content to.
+	 * @param content - The bytes to be saved.
+	 * @param sync    - Whether the content is forced to the storage device before
+	 *                the target is replaced, so that it survives a crash of the
+	 *                system.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void writeAtomically(Path target, byte[] content, boolean sync) throws IOException {
+		FileIOEvent event = begin(FileIOEvent.WRITE);
+		Path absoluteTarget = target.toAbsolutePath();
+		Path temp = absoluteTarget.resolveSibling(TEMP_FILE_FORMAT.formatted(absoluteTarget.getFileName(), UUID.randomUUID()));
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(content);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if (sync) {
+					channel.force(true);
+				}
+			}
+			try {
+				Files.move(temp, absoluteTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp); // Only exists if writing or moving failed
+		}
+		BYTES_WRITTEN.add(content.length);
+		commit(event, target.toString(), () -> content.length);
+	}
+
+	private static FileIOEvent begin(String operation) {
+		FileIOEvent event = new FileIOEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+
+	private static void commit(FileIOEvent event, String location, LongSupplier bytes) {
+		event.end();
+		if (event.shouldCommit()) { // Only determine the size if the event is recorded
+			event.location = location;
+			event.bytes = bytes.getAsLong();
+			event.commit();
 		}
 	}
 }
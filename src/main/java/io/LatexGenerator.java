@@ -3,11 +3,16 @@ package io;
 
 import data.Entry;
 import data.TimeSheet;
+import data.TimeSpan;
+import data.TimeSpanFormat;
 import data.WorkingArea;
 import etc.ContextStringReplacer;
+import i18n.MessageSource;
 import i18n.ResourceHandler;
+import profiling.GenerateEvent;
 
 import javax.swing.filechooser.FileNameExtensionFilter;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,6 +25,13 @@ import java.util.regex.Matcher;
  */
 public class LatexGenerator implements IGenerator {
 
+	/**
+	 * Version of the generated documents. It has to be increased whenever a change
+	 * of the generator changes the document generated for the same input, so that
+	 * cached documents are not reused.
+	 */
+	public static final int VERSION = 1;
+
 	private static final String SHORTHAND_VACATION = "U";
 
 	/**
@@ -40,21 +52,55 @@ public class LatexGenerator implements IGenerator {
 
 	private final TimeSheet timeSheet;
 	private final String template;
+	private final MessageSource messageSource;
+	private final TimeSpanFormat timeSpanFormat;
 
 	/**
-	 * Constructs a new {@link TimeSheet} instance.
+	 * Constructs a new {@link TimeSheet} instance, which generates the document in
+	 * the locale used by the application.
 	 * 
 	 * @param timeSheet - as source of data to fill into the template.
 	 * @param template  - the template the generated LaTeX {@link String} should be
 	 *                  based on.
 	 */
 	public LatexGenerator(TimeSheet timeSheet, String template) {
+		this(timeSheet, template, ResourceHandler.getMessageSource());
+	}
+
+	/**
+	 * Constructs a new {@link TimeSheet} instance, which generates the document in
+	 * the locale of the given message source.
+	 * 
+	 * @param timeSheet     - as source of data to fill into the template.
+	 * @param template      - the template the generated LaTeX {@link String}
+	 *                      should be based on.
+	 * @param messageSource - the message source providing the localized texts.
+	 */
+	public LatexGenerator(TimeSheet timeSheet, String template, MessageSource messageSource) {
 		this.timeSheet = timeSheet;
 		this.template = template;
+		this.messageSource = messageSource;
+		this.timeSpanFormat = TimeSpanFormat.getInstance(messageSource);
 	}
 
 	@Override
 	public String generate() {
+		GenerateEvent event = new GenerateEvent();
+		event.begin();
+		String filledTex = fillTemplate();
+		event.end();
+		if (event.shouldCommit()) {
+			event.sheetId = timeSheet.getSheetId();
+			event.format = "tex";
+			event.entryCount = timeSheet.getEntries().size();
+			event.templateBytes = template.getBytes(StandardCharsets.UTF_8).length;
+			event.bytes = filledTex.getBytes(StandardCharsets.UTF_8).length;
+			event.commit();
+		}
+		return filledTex;
+	}
+
+	private String fillTemplate() {
 		String filledTex = template;
 
 		/*
@@ -93,7 +139,7 @@ public class LatexGenerator implements IGenerator {
 
 	@Override
 	public FileNameExtensionFilter getFileNameExtensionFilter() {
-		return new FileNameExtensionFilter(ResourceHandler.getMessage("file.tex.description"), ResourceHandler.getMessage("file.tex.extension"));
+		return new FileNameExtensionFilter(messageSource.getMessage("file.tex.description"), messageSource.getMessage("file.tex.extension"));
 	}
 
 	/**
@@ -104,7 +150,7 @@ public class LatexGenerator implements IGenerator {
 	 * @param element   - element to get the substitute for
 	 * @return A substitute as a {@link String}
 	 */
-	private static String getSubstitute(TimeSheet timeSheet, TimeSheetElement element) {
+	private String getSubstitute(TimeSheet timeSheet, TimeSheetElement element) {
 		String value;
 		switch (element) {
 		case YEAR:
@@ -130,22 +176,22 @@ public class LatexGenerator implements IGenerator {
 			value = escapeText(timeSheet.getProfession().getDepartmentName());
 			break;
 		case MAX_HOURS:
-			value = timeSheet.getProfession().getMaxWorkingTime().toString();
+			value = format(timeSheet.getProfession().getMaxWorkingTime());
 			break;
 		case WAGE:
 			value = Double.toString(timeSheet.getProfession().getWage());
 			break;
 		case VACATION:
-			value = timeSheet.getTotalVacationTime().toString();
+			value = format(timeSheet.getTotalVacationTime());
 			break;
 		case HOURS_SUM:
-			value = timeSheet.getTotalWorkTime().add(timeSheet.getTotalVacationTime()).toString();
+			value = format(timeSheet.getTotalWorkTime().add(timeSheet.getTotalVacationTime()));
 			break;
 		case TRANSFER_PRED:
-			value = timeSheet.getPredTransfer().toString();
+			value = format(timeSheet.getPredTransfer());
 			break;
 		case TRANSFER_SUCC:
-			value = timeSheet.getSuccTransfer().toString();
+			value = format(timeSheet.getSuccTransfer());
 			break;
 		default:
 			value = null;
@@ -163,7 +209,7 @@ public class LatexGenerator implements IGenerator {
 	 * @param element - element to get the substitute for
 	 * @return A substitute as a {@link String}
 	 */
-	private static String getSubstitute(Entry entry, EntryElement element) {
+	private String getSubstitute(Entry entry, EntryElement element) {
 		String value;
 		switch (element) {
 		case TABLE_ACTION:
@@ -174,19 +220,19 @@ public class LatexGenerator implements IGenerator {
 			value = entry.getDate().format(formatter);
 			break;
 		case TABLE_START:
-			value = entry.getStart().toString();
+			value = format(entry.getStart());
 			break;
 		case TABLE_END:
-			value = entry.getEnd().toString();
+			value = format(entry.getEnd());
 			break;
 		case TABLE_PAUSE:
-			value = entry.getPause().toString();
+			value = format(entry.getPause());
 			break;
 		case TABLE_TIME:
 			if (entry.isVacation()) {
-				value = entry.getWorkingTime().toString() + " " + SHORTHAND_VACATION;
+				value = format(entry.getWorkingTime()) + " " + SHORTHAND_VACATION;
 			} else {
-				value = entry.getWorkingTime().toString();
+				value = format(entry.getWorkingTime());
 			}
 			break;
 		default:
@@ -196,6 +242,10 @@ public class LatexGenerator implements IGenerator {
 		return value;
 	}
 
+	private String format(TimeSpan timeSpan) {
+		return timeSpanFormat.format(timeSpan);
+	}
+
 	/**
 	 * Escape all LaTeX special characters in the given text string
 	 * 
@@ -0,0 +1,329 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Content addressed store for generated documents. Every document is stored in
+ * its own file in the cache directory, named by the key it was stored under.
+ * The key is expected to be a hash of everything the document depends on, so
+ * a stored document never becomes stale and is simply looked up again. <br/>
+ * The cache is limited in size. When the limit is exceeded, the least recently
+ * used documents are removed. The keys, sizes and usage order are kept in an
+ * index file in the cache directory, which is rewritten whenever documents are
+ * added and when the cache is closed. <br/>
+ * Several processes may use the same cache directory. Documents are added and
+ * the index is rewritten while holding a lock on a file in the directory, and
+ * the index on disk is merged with the changes of this instance before it is
+ * rewritten, so documents added by other processes are kept. This class is
+ * thread safe.
+ */
+public class OutputCache implements AutoCloseable {
+
+	/**
+	 * Default maximum total size of the stored documents in bytes.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	private static final String INDEX_FILE_NAME = "index";
+	private static final String LOCK_FILE_NAME = "lock";
+	private static final String ENTRY_EXTENSION = ".out";
+	private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{16,128}");
+
+	/**
+	 * Age after which a document that is not listed in the index is considered
+	 * left behind by a process that died while adding it.
+	 */
+	private static final Duration ORPHAN_AGE = Duration.ofDays(1);
+
+	/**
+	 * File locks are held by the whole process, so the instances of this process
+	 * take turns before locking the directory.
+	 */
+	private static final Object PROCESS_LOCK = new Object();
+
+	private final Path directory;
+	private final long maxBytes;
+
+	/**
+	 * Sizes of the stored documents by their keys, in the order they were used
+	 * with the least recently used document first.
+	 */
+	private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Documents added or used by this instance since the index was last written,
+	 * in the order they were used.
+	 */
+	private final LinkedHashMap<String, Long> used = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Documents found missing by this instance since the index was last written.
+	 */
+	private final Set<String> removed = new HashSet<>();
+	private long totalBytes;
+
+	/**
+	 * Opens the cache in a directory with the default size limit. The directory is
+	 * created if it does not exist.
+	 *
+	 * @param directory - the cache directory.
+	 * @throws IOException if the directory could not be created or read.
+	 */
+	public OutputCache(Path directory) throws IOException {
+		this(directory, DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Opens the cache in a directory. The directory is created if it does not
+	 * exist. Documents that are not listed in the index and were not modified for
+	 * a day are removed.
+	 *
+	 * @param directory - the cache directory.
+	 * @param maxBytes  - the maximum total size of the stored documents in bytes.
+	 * @throws IOException if the directory could not be created or read.
+	 */
+	public OutputCache(Path directory, long maxBytes) throws IOException {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		Files.createDirectories(directory);
+		synchronized (this) {
+			withDirectoryLock(() -> {
+				updateIndex();
+				removeOrphanedEntries();
+			});
+		}
+	}
+
+	/**
+	 * Gets the default cache directory of the current user.
+	 *
+	 * @return The default cache directory.
+	 */
+	public static Path getDefaultDirectory() {
+		String localAppData = System.getenv("LOCALAPPDATA"); // Windows
+		Path base = localAppData != null ? Path.of(localAppData) : Path.of(System.getProperty("user.home"), ".cache");
+		return base.resolve("TimeSheetGenerator").resolve("output");
+	}
+
+	/**
+	 * Gets a stored document and marks it as recently used.
+	 *
+	 * @param key - the key the document was stored under.
+	 * @return The stored document or an empty optional if there is none.
+	 * @throws IOException if the stored document could not be read.
+	 */
+	public Optional<byte[]> get(String key) throws IOException {
+		checkKey(key);
+		synchronized (this) {
+			Long size = entries.get(key); // Updates the usage order
+			if (size == null) {
+				return Optional.empty();
+			}
+			used.put(key, size);
+		}
+		try {
+			return Optional.of(Files.readAllBytes(getEntryFile(key)));
+		} catch (NoSuchFileException e) { // Removed by a concurrent eviction or externally
+			remove(key);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Stores a document, replacing the document stored under the same key. The
+	 * least recently used documents are removed if the size limit is exceeded.
+	 * Documents larger than the size limit are not stored.
+	 *
+	 * @param key     - the key to store the document under.
+	 * @param content - the document.
+	 * @throws IOException if the document or the index could not be written.
+	 */
+	public void put(String key, byte[] content) throws IOException {
+		checkKey(key);
+		if (content.length > maxBytes) {
+			return;
+		}
+		synchronized (this) {
+			withDirectoryLock(() -> {
+				FileController.writeAtomically(getEntryFile(key), content, false);
+				removed.remove(key);
+				used.put(key, (long) content.length);
+				updateIndex();
+			});
+		}
+	}
+
+	/**
+	 * Gets the total size of the stored documents.
+	 *
+	 * @return The total size of the stored documents in bytes.
+	 */
+	public synchronized long size() {
+		return totalBytes;
+	}
+
+	/**
+	 * Checks whether a document is stored under a key without marking it as used.
+	 *
+	 * @param key - the key of the document.
+	 * @return True if a document is stored under the key.
+	 */
+	public synchronized boolean contains(String key) {
+		return entries.containsKey(key);
+	}
+
+	/**
+	 * Writes the usage order to the index file.
+	 *
+	 * @throws IOException if the index could not be written.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!used.isEmpty() || !removed.isEmpty()) {
+			withDirectoryLock(this::updateIndex);
+		}
+	}
+
+	private synchronized void remove(String key) throws IOException {
+		if (entries.containsKey(key)) {
+			used.remove(key);
+			removed.add(key);
+			withDirectoryLock(this::updateIndex);
+		}
+	}
+
+	/**
+	 * Merges the changes of this instance into the index on disk, removes the
+	 * least recently used documents if the size limit is exceeded and rewrites the
+	 * index. Must be called while holding the directory lock.
+	 */
+	private void updateIndex() throws IOException {
+		LinkedHashMap<String, Long> merged = readIndex();
+		merged.keySet().removeAll(removed);
+		for (Map.Entry<String, Long> entry : used.entrySet()) {
+			// Documents used by this instance may have been evicted by another process
+			if (merged.remove(entry.getKey()) != null || Files.exists(getEntryFile(entry.getKey()))) {
+				merged.put(entry.getKey(), entry.getValue());
+			}
+		}
+		entries.clear();
+		entries.putAll(merged);
+		totalBytes = entries.values().stream().mapToLong(Long::longValue).sum();
+		evict();
+		writeIndex();
+		used.clear();
+		removed.clear();
+	}
+
+	private void evict() throws IOException {
+		Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while (totalBytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<String, Long> eldest = iterator.next();
+			Files.deleteIfExists(getEntryFile(eldest.getKey()));
+			totalBytes -= eldest.getValue();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Reads the index. Every line consists of a key and the size of its document,
+	 * the least recently used document comes first. Lines of documents that do not
+	 * exist anymore are skipped.
+	 */
+	private LinkedHashMap<String, Long> readIndex() throws IOException {
+		LinkedHashMap<String, Long> index = new LinkedHashMap<>();
+		Path indexFile = directory.resolve(INDEX_FILE_NAME);
+		if (!Files.exists(indexFile)) {
+			return index;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separator = line.indexOf(' ');
+				if (separator < 0) {
+					continue;
+				}
+				String key = line.substring(0, separator);
+				try {
+					long size = Long.parseLong(line.substring(separator + 1));
+					if (KEY_PATTERN.matcher(key).matches() && Files.size(getEntryFile(key)) == size) {
+						index.put(key, size);
+					}
+				} catch (NumberFormatException | NoSuchFileException e) {
+					// Drop the broken line
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Removes documents that are not listed in the index and were not modified
+	 * for {@link #ORPHAN_AGE}. Must be called while holding the directory lock.
+	 */
+	private void removeOrphanedEntries() throws IOException {
+		FileTime threshold = FileTime.from(Instant.now().minus(ORPHAN_AGE));
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_EXTENSION)) {
+			for (Path file : stream) {
+				String name = file.getFileName().toString();
+				if (!entries.containsKey(name.substring(0, name.length() - ENTRY_EXTENSION.length()))
+						&& Files.getLastModifiedTime(file).compareTo(threshold) < 0) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	private void writeIndex() throws IOException {
+		StringBuilder index = new StringBuilder(entries.size() * 80);
+		for (Map.Entry<String, Long> entry : entries.entrySet()) {
+			index.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+		}
+		FileController.writeAtomically(directory.resolve(INDEX_FILE_NAME), index.toString().getBytes(StandardCharsets.UTF_8), false);
+	}
+
+	private void withDirectoryLock(IOAction action) throws IOException {
+		synchronized (PROCESS_LOCK) {
+			try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					FileLock lock = channel.lock()) {
+				action.run();
+			}
+		}
+	}
+
+	private Path getEntryFile(String key) {
+		return directory.resolve(key + ENTRY_EXTENSION);
+	}
+
+	private static void checkKey(String key) {
+		if (!KEY_PATTERN.matcher(key).matches()) {
+			throw new IllegalArgumentException("Invalid cache key: %s".formatted(key));
+		}
+	}
+
+	@FunctionalInterface
+	private interface IOAction {
+		void run() throws IOException;
+	}
+
+}
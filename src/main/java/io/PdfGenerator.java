@@ -0,0 +1,194 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import data.Entry;
+import data.TimeSheet;
+import data.TimeSpan;
+import data.TimeSpanFormat;
+import data.WorkingArea;
+import i18n.MessageSource;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import profiling.GenerateEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Logger;
+
+/**
+ * The PdfGenerator fills the form fields of the official PDF time sheet with
+ * the information of a {@link TimeSheet} and its associated {@link Entry
+ * Entries}. In contrast to the {@link LatexGenerator} the result is a binary
+ * document, which does not need to be compiled any further.
+ */
+public class PdfGenerator {
+
+	private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yy");
+	private static final DateTimeFormatter SIGNATURE_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+	private final TimeSheet timeSheet;
+	private final byte[] template;
+	private final boolean addSignature;
+	private final TimeSpanFormat timeSpanFormat;
+
+	/**
+	 * Constructs a new {@link PdfGenerator} instance.
+	 *
+	 * @param timeSheet     - as source of data to fill into the template.
+	 * @param template      - the PDF form the generated document is based on.
+	 * @param addSignature  - whether the name of the employee is added to the
+	 *                      signature field.
+	 * @param messageSource - the message source providing the localized formats.
+	 */
+	public PdfGenerator(TimeSheet timeSheet, byte[] template, boolean addSignature, MessageSource messageSource) {
+		this.timeSheet = timeSheet;
+		this.template = template;
+		this.addSignature = addSignature;
+		this.timeSpanFormat = TimeSpanFormat.getInstance(messageSource);
+	}
+
+	/**
+	 * Generates the PDF document.
+	 *
+	 * @return The generated PDF document.
+	 * @throws IOException if the template is not a valid PDF form.
+	 */
+	public byte[] generate() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(template.length);
+		generate(output);
+		return output.toByteArray();
+	}
+
+	/**
+	 * Generates the PDF document and writes it to an output stream.
+	 *
+	 * @param output - to write the generated PDF document to.
+	 * @throws IOException if the template is not a valid PDF form or the document
+	 *                     could not be written.
+	 */
+	public void generate(OutputStream output) throws IOException {
+		GenerateEvent event = new GenerateEvent();
+		CountingOutputStream countingOutput = new CountingOutputStream(output);
+		event.begin();
+		try (PDDocument document = Loader.loadPDF(template)) {
+			PDAcroForm form = document.getDocumentCatalog().getAcroForm();
+			if (form == null) {
+				throw new IOException("No form found in the PDF template.");
+			}
+			fillForm(form);
+			document.save(countingOutput);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.sheetId = timeSheet.getSheetId();
+				event.format = "pdf";
+				event.entryCount = timeSheet.getEntries().size();
+				event.templateBytes = template.length;
+				event.bytes = countingOutput.count;
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Counts the bytes written to the wrapped stream, without closing it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush(); // The caller owns the wrapped stream
+		}
+	}
+
+	private void fillForm(PDAcroForm form) throws IOException {
+		String name = timeSheet.getEmployee().getName();
+		String workingTime = format(timeSheet.getProfession().getMaxWorkingTime());
+		boolean gf = timeSheet.getProfession().getWorkingArea() == WorkingArea.GF;
+
+		form.getField("GF").setValue(getFormalName(name)); // Name
+		form.getField("abc").setValue(String.valueOf(timeSheet.getMonth().getValue())); // Month
+		form.getField("abdd").setValue(String.valueOf(timeSheet.getYear())); // Year
+		form.getField("Personalnummer").setValue(String.valueOf(timeSheet.getEmployee().getId()));
+		form.getField("GFB").setValue(gf ? "On" : "Off");
+		form.getField("UB").setValue(gf ? "Off" : "On");
+		form.getField("OE").setValue(timeSheet.getProfession().getDepartmentName());
+		form.getField("Std").setValue(workingTime); // Total hours
+		form.getField("Stundensatz").setValue(String.valueOf(timeSheet.getProfession().getWage()));
+
+		form.getField("Übertrag vom Vormonat").setValue(format(timeSheet.getPredTransfer()));
+		form.getField("Übertrag in den Folgemonat").setValue(format(timeSheet.getSuccTransfer()));
+		form.getField("monatliche SollArbeitszeit").setValue(workingTime);
+
+		try {
+			form.getField("Ich bestätige die Richtigkeit der Angaben")
+					.setValue("%s, %s".formatted(SIGNATURE_DATE_FORMATTER.format(LocalDate.now()), addSignature ? name : ""));
+		} catch (EOFException ignored) {
+			Logger.getGlobal().warning("Could not load font for signature field when exporting to PDF. Proceeding with default.");
+		}
+
+		int fieldIndex = 1;
+		for (Entry entry : timeSheet.getEntries()) {
+			if (entry.isVacation()) {
+				continue;
+			}
+
+			form.getField("Tätigkeit Stichwort ProjektRow%d".formatted(fieldIndex)).setValue(entry.getAction());
+			form.getField("ttmmjjRow%d".formatted(fieldIndex)).setValue(DAY_FORMATTER.format(entry.getDate()));
+			form.getField("hhmmRow%d".formatted(fieldIndex)).setValue(format(entry.getStart()));
+			form.getField("hhmmRow%d_2".formatted(fieldIndex)).setValue(format(entry.getEnd()));
+			form.getField("hhmmRow%d_3".formatted(fieldIndex)).setValue(format(entry.getPause()));
+			form.getField("hhmmRow%d_4".formatted(fieldIndex)).setValue(format(entry.getWorkingTime()));
+			fieldIndex++;
+		}
+
+		TimeSpan vacation = timeSheet.getTotalVacationTime();
+		TimeSpan sum = timeSheet.getPredTransfer().add(timeSheet.getTotalWorkTime()).add(vacation);
+		form.getField("Summe").setValue(format(sum)); // Total time worked
+		form.getField("Urlaub anteilig").setValue(format(vacation)); // Total time of Vacation
+	}
+
+	private String format(TimeSpan timeSpan) {
+		return timeSpanFormat.format(timeSpan);
+	}
+
+	/**
+	 * Formats a name as "lastname, firstnames". If the name does not contain any
+	 * spaces, the name is returned unchanged.
+	 *
+	 * @param name - the name to format.
+	 * @return The formatted name.
+	 */
+	public static String getFormalName(String name) {
+		int lastSpace = name.lastIndexOf(' ');
+		if (lastSpace < 0) {
+			return name;
+		}
+		return "%s, %s".formatted(name.substring(lastSpace + 1), name.substring(0, lastSpace));
+	}
+
+}
@@ -0,0 +1,188 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import data.TimeSheet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only archive of many time sheets in a single file, e.g. of all
+ * employees over several years. The time sheets are encoded with the
+ * {@link TimeSheetCodec} and are followed by an index sorted by staff id and
+ * month, which holds the offset and length of every time sheet. <br/>
+ * An opened archive is memory mapped. Looking up a time sheet searches the
+ * index in place and only decodes that time sheet, so neither the whole file
+ * is read nor are all time sheets decoded. This class is thread safe.
+ */
+public final class TimeSheetArchive {
+
+	private static final int MAGIC = 0x54534741; // "TSGA"
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_BYTES = 4 + 4 + 4 + 8; // magic, version, count, index offset
+	private static final int INDEX_ENTRY_BYTES = 4 + 4 + 8 + 4; // staff id, month, offset, length
+
+	private static final Comparator<TimeSheet> BY_KEY = Comparator.comparingInt((TimeSheet timeSheet) -> timeSheet.getEmployee().getId())
+			.thenComparingInt(timeSheet -> monthKey(YearMonth.of(timeSheet.getYear(), timeSheet.getMonth())));
+
+	private final ByteBuffer buffer;
+	private final int count;
+	private final int indexOffset;
+
+	private TimeSheetArchive(ByteBuffer buffer, int count, int indexOffset) {
+		this.buffer = buffer;
+		this.count = count;
+		this.indexOffset = indexOffset;
+	}
+
+	/**
+	 * Writes time sheets to an archive file, replacing it atomically.
+	 *
+	 * @param file       - The archive file.
+	 * @param timeSheets - The time sheets to archive, at most one per employee
+	 *                   and month.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static void write(Path file, Collection<TimeSheet> timeSheets) throws IOException {
+		List<TimeSheet> sorted = new ArrayList<>(timeSheets);
+		sorted.sort(BY_KEY);
+		List<byte[]> encoded = new ArrayList<>(sorted.size());
+		long size = HEADER_BYTES + (long) INDEX_ENTRY_BYTES * sorted.size();
+		for (int i = 0; i < sorted.size(); i++) {
+			if (i > 0 && BY_KEY.compare(sorted.get(i - 1), sorted.get(i)) == 0) {
+				throw new IllegalArgumentException("The time sheet %s is archived twice.".formatted(sorted.get(i).getSheetId()));
+			}
+			byte[] bytes = TimeSheetCodec.encode(sorted.get(i));
+			encoded.add(bytes);
+			size += bytes.length;
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The archive would exceed %d bytes".formatted(Integer.MAX_VALUE));
+		}
+
+		ByteBuffer out = ByteBuffer.allocate((int) size);
+		out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(sorted.size()).putLong(size - (long) INDEX_ENTRY_BYTES * sorted.size());
+		encoded.forEach(out::put);
+		int offset = HEADER_BYTES;
+		for (int i = 0; i < sorted.size(); i++) {
+			TimeSheet timeSheet = sorted.get(i);
+			out.putInt(timeSheet.getEmployee().getId()).putInt(monthKey(YearMonth.of(timeSheet.getYear(), timeSheet.getMonth())));
+			out.putLong(offset).putInt(encoded.get(i).length);
+			offset += encoded.get(i).length;
+		}
+		FileController.writeAtomically(file, out.array(), true);
+	}
+
+	/**
+	 * Opens an archive file by mapping it into memory.
+	 *
+	 * @param file - The archive file.
+	 * @return the opened archive
+	 * @throws IOException if an I/O error occurs or the file is no valid archive.
+	 */
+	public static TimeSheetArchive open(Path file) throws IOException {
+		ByteBuffer buffer = FileController.mapFile(file);
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException("%s is no time sheet archive".formatted(file));
+		}
+		int version = buffer.getInt(4);
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported archive version %d of %s".formatted(version, file));
+		}
+		int count = buffer.getInt(8);
+		long indexOffset = buffer.getLong(12);
+		if (count < 0 || indexOffset < HEADER_BYTES || indexOffset + (long) INDEX_ENTRY_BYTES * count != buffer.capacity()) {
+			throw new IOException("The index of %s is corrupted".formatted(file));
+		}
+		return new TimeSheetArchive(buffer, count, (int) indexOffset);
+	}
+
+	/**
+	 * Gets the number of archived time sheets.
+	 *
+	 * @return the number of time sheets
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Decodes the time sheet of an employee and month.
+	 *
+	 * @param staffId   - The staff id of the employee.
+	 * @param yearMonth - The month of the time sheet.
+	 * @return the time sheet, or an empty optional if it is not archived
+	 * @throws IOException if the time sheet is corrupted.
+	 */
+	public Optional<TimeSheet> get(int staffId, YearMonth yearMonth) throws IOException {
+		int index = lowerBound(staffId, monthKey(yearMonth));
+		if (index < count && staffIdAt(index) == staffId && monthKeyAt(index) == monthKey(yearMonth)) {
+			return Optional.of(decodeAt(index));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Decodes the time sheets of an employee in a range of months.
+	 *
+	 * @param staffId - The staff id of the employee.
+	 * @param from    - The first month, inclusive.
+	 * @param to      - The last month, inclusive.
+	 * @return the archived time sheets of the range, ordered by month
+	 * @throws IOException if a time sheet is corrupted.
+	 */
+	public List<TimeSheet> get(int staffId, YearMonth from, YearMonth to) throws IOException {
+		List<TimeSheet> timeSheets = new ArrayList<>();
+		for (int i = lowerBound(staffId, monthKey(from)); i < count && staffIdAt(i) == staffId && monthKeyAt(i) <= monthKey(to); i++) {
+			timeSheets.add(decodeAt(i));
+		}
+		return timeSheets;
+	}
+
+	/**
+	 * Finds the first index entry that is not ordered before the given key.
+	 */
+	private int lowerBound(int staffId, int monthKey) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int compared = staffIdAt(middle) != staffId ? Integer.compare(staffIdAt(middle), staffId) : Integer.compare(monthKeyAt(middle), monthKey);
+			if (compared < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int staffIdAt(int index) {
+		return buffer.getInt(indexOffset + index * INDEX_ENTRY_BYTES);
+	}
+
+	private int monthKeyAt(int index) {
+		return buffer.getInt(indexOffset + index * INDEX_ENTRY_BYTES + 4);
+	}
+
+	private TimeSheet decodeAt(int index) throws IOException {
+		long offset = buffer.getLong(indexOffset + index * INDEX_ENTRY_BYTES + 8);
+		int length = buffer.getInt(indexOffset + index * INDEX_ENTRY_BYTES + 16);
+		if (offset < HEADER_BYTES || length < 0 || offset + length > indexOffset) {
+			throw new IOException("The index entry %d is corrupted".formatted(index));
+		}
+		return TimeSheetCodec.decode(buffer.slice((int) offset, length)); // A slice, so concurrent lookups do not share a position
+	}
+
+	private static int monthKey(YearMonth yearMonth) {
+		return yearMonth.getYear() * 12 + yearMonth.getMonthValue() - 1;
+	}
+
+}
@@ -0,0 +1,206 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import data.Employee;
+import data.Entry;
+import data.Profession;
+import data.TimeSheet;
+import data.TimeSpan;
+import data.WorkingArea;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a {@link TimeSheet}, used by the
+ * {@link TimeSheetArchive}. Compared to the json files, decoding needs neither
+ * a json parser nor parsing of dates and times. <br/>
+ * An encoded time sheet starts with the version of the encoding, followed by a
+ * table of all strings of the time sheet, which are referred to by their
+ * index. Numbers are written as variable length integers, times as minutes and
+ * the dates of the entries as the days since the date of the previous entry.
+ * Whether the entries are vacation entries is written as a bitmap. The wage is
+ * the only value written with a fixed length.
+ */
+public final class TimeSheetCodec {
+
+	/**
+	 * The version of the encoding written by {@link #encode(TimeSheet)}.
+	 */
+	public static final int VERSION = 1;
+
+	private static final WorkingArea[] WORKING_AREAS = WorkingArea.values();
+
+	private TimeSheetCodec() {
+	}
+
+	/**
+	 * Encodes a time sheet.
+	 *
+	 * @param timeSheet - The time sheet to encode.
+	 * @return the encoded time sheet
+	 */
+	public static byte[] encode(TimeSheet timeSheet) {
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		Employee employee = timeSheet.getEmployee();
+		Profession profession = timeSheet.getProfession();
+		List<Entry> entries = timeSheet.getEntries();
+		int name = index(strings, employee.getName());
+		int department = index(strings, profession.getDepartmentName());
+		int[] actions = new int[entries.size()];
+		for (int i = 0; i < actions.length; i++) {
+			actions[i] = index(strings, entries.get(i).getAction());
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64 + 8 * entries.size());
+		out.write(VERSION);
+		writeVarInt(out, strings.size());
+		for (String string : strings.keySet()) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, bytes.length);
+			out.writeBytes(bytes);
+		}
+
+		writeVarInt(out, name);
+		writeVarInt(out, zigZag(employee.getId()));
+		writeVarInt(out, department);
+		out.write(profession.getWorkingArea().ordinal());
+		writeVarInt(out, Math.toIntExact(profession.getMaxWorkingTime().toMinutes()));
+		long wage = Double.doubleToLongBits(profession.getWage());
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			out.write((int) (wage >>> shift));
+		}
+
+		writeVarInt(out, zigZag(timeSheet.getYear()));
+		out.write(timeSheet.getMonth().getValue());
+		writeVarInt(out, Math.toIntExact(timeSheet.getSuccTransfer().toMinutes()));
+		writeVarInt(out, Math.toIntExact(timeSheet.getPredTransfer().toMinutes()));
+
+		writeVarInt(out, entries.size());
+		byte[] vacation = new byte[(entries.size() + 7) / 8];
+		for (int i = 0; i < entries.size(); i++) {
+			if (entries.get(i).isVacation()) {
+				vacation[i / 8] |= (byte) (1 << (i % 8));
+			}
+		}
+		out.writeBytes(vacation);
+		LocalDate previous = YearMonth.of(timeSheet.getYear(), timeSheet.getMonth()).atDay(1);
+		for (int i = 0; i < entries.size(); i++) {
+			Entry entry = entries.get(i);
+			writeVarInt(out, zigZag(Math.toIntExact(entry.getDate().toEpochDay() - previous.toEpochDay())));
+			previous = entry.getDate();
+			writeVarInt(out, actions[i]);
+			writeVarInt(out, Math.toIntExact(entry.getStart().toMinutes()));
+			writeVarInt(out, Math.toIntExact(entry.getEnd().toMinutes() - entry.getStart().toMinutes()));
+			writeVarInt(out, Math.toIntExact(entry.getPause().toMinutes()));
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes a time sheet. The buffer is read from its position to its limit.
+	 *
+	 * @param buffer - The encoded time sheet.
+	 * @return the decoded time sheet
+	 * @throws IOException if the buffer does not contain a valid time sheet of a
+	 *                     supported version.
+	 */
+	public static TimeSheet decode(ByteBuffer buffer) throws IOException {
+		try {
+			int version = Byte.toUnsignedInt(buffer.get());
+			if (version != VERSION) {
+				throw new IOException("Unsupported time sheet encoding version %d".formatted(version));
+			}
+			String[] strings = new String[readLength(buffer)];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[readLength(buffer)];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			Employee employee = new Employee(strings[readVarInt(buffer)], unZigZag(readVarInt(buffer)));
+			String department = strings[readVarInt(buffer)];
+			WorkingArea workingArea = WORKING_AREAS[Byte.toUnsignedInt(buffer.get())];
+			TimeSpan maxWorkingTime = TimeSpan.ofMinutes(readVarInt(buffer));
+			Profession profession = new Profession(department, workingArea, maxWorkingTime, Double.longBitsToDouble(buffer.getLong()));
+
+			YearMonth yearMonth = YearMonth.of(unZigZag(readVarInt(buffer)), Byte.toUnsignedInt(buffer.get()));
+			TimeSpan succTransfer = TimeSpan.ofMinutes(readVarInt(buffer));
+			TimeSpan predTransfer = TimeSpan.ofMinutes(readVarInt(buffer));
+
+			Entry[] entries = new Entry[readLength(buffer)];
+			byte[] vacation = new byte[(entries.length + 7) / 8];
+			buffer.get(vacation);
+			LocalDate date = yearMonth.atDay(1);
+			for (int i = 0; i < entries.length; i++) {
+				date = date.plusDays(unZigZag(readVarInt(buffer)));
+				String action = strings[readVarInt(buffer)];
+				int start = readVarInt(buffer);
+				int end = start + readVarInt(buffer);
+				TimeSpan pause = TimeSpan.ofMinutes(readVarInt(buffer));
+				entries[i] = new Entry(action, date, TimeSpan.ofMinutes(start), TimeSpan.ofMinutes(end), pause, (vacation[i / 8] & (1 << (i % 8))) != 0);
+			}
+			return new TimeSheet(employee, profession, yearMonth, entries, succTransfer, predTransfer);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException | DateTimeException e) {
+			throw new IOException("Invalid encoded time sheet: %s".formatted(e.getMessage()), e);
+		}
+	}
+
+	private static int index(Map<String, Integer> strings, String string) {
+		return strings.computeIfAbsent(string, s -> strings.size());
+	}
+
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes an unsigned integer in groups of seven bits, the lowest group first.
+	 * The highest bit of a byte is set if another byte follows.
+	 */
+	private static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarInt(ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Invalid variable length integer");
+	}
+
+	/**
+	 * Reads the length of a string or array. Every element takes at least one
+	 * byte, so a corrupted length can not allocate more than the remaining bytes.
+	 */
+	private static int readLength(ByteBuffer buffer) throws IOException {
+		int length = readVarInt(buffer);
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IOException("Invalid length %d".formatted(length));
+		}
+		return length;
+	}
+
+}
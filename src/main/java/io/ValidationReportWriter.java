@@ -0,0 +1,162 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import checker.CheckerError;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import data.TimeSpan;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the results of checking time sheets as a machine readable report, so
+ * tools do not have to parse the localized error messages. Every error is
+ * reported with the code of its kind, its arguments, the date it refers to and
+ * the id of its time sheet:
+ * <code>{"sheet": "1234567/2019-11", "code": "TIME_SUNDAY", "date": "2019-11-03", "args": ["2019-11-03"]}</code>.
+ * Dates are written in ISO format and time spans as <code>h:mm</code>. <br/>
+ * In the {@link Format#JSON JSON} format the report is a single object, which
+ * contains the errors and a summary of the number of checked and invalid time
+ * sheets and the number of errors per code. In the {@link Format#NDJSON
+ * NDJSON} format every error is written as its own line. In both formats the
+ * errors are written as soon as they are reported, so reports of large batches
+ * are not held in memory.
+ */
+public class ValidationReportWriter implements Closeable {
+
+	private static final JsonFactory FACTORY = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+	private final Format format;
+	private final JsonGenerator generator;
+
+	private long sheets;
+	private long invalidSheets;
+	private final Map<String, Long> errorsPerCode = new TreeMap<>();
+
+	/**
+	 * The format of a report.
+	 */
+	public enum Format {
+		/**
+		 * A single json object containing the errors and a summary.
+		 */
+		JSON,
+		/**
+		 * One json object per error and line.
+		 */
+		NDJSON
+	}
+
+	/**
+	 * Creates a new report writer. The output stream is flushed, but not closed,
+	 * when the writer is closed.
+	 *
+	 * @param output - the output stream to write the report to in UTF-8.
+	 * @param format - the format of the report.
+	 * @throws IOException if the report could not be started.
+	 */
+	public ValidationReportWriter(OutputStream output, Format format) throws IOException {
+		this.format = format;
+		this.generator = FACTORY.createGenerator(output, JsonEncoding.UTF8);
+		if (format == Format.NDJSON) {
+			generator.setRootValueSeparator(null); // Every error ends its own line
+		} else {
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("errors");
+		}
+	}
+
+	/**
+	 * Reports the result of checking a time sheet. A valid time sheet is only
+	 * counted in the summary.
+	 *
+	 * @param sheetId - the id of the time sheet.
+	 * @param errors  - the errors found in the time sheet, empty if it is valid.
+	 * @throws IOException if the report could not be written.
+	 */
+	public void write(String sheetId, Collection<CheckerError> errors) throws IOException {
+		sheets++;
+		if (errors.isEmpty()) {
+			return;
+		}
+		invalidSheets++;
+		for (CheckerError error : errors) {
+			writeError(sheetId, error);
+			if (format == Format.NDJSON) {
+				generator.writeRaw('\n');
+			}
+			errorsPerCode.merge(error.getCode(), 1L, Long::sum);
+		}
+		if (format == Format.NDJSON) {
+			generator.flush(); // Lines can be consumed while the batch is running
+		}
+	}
+
+	/**
+	 * Completes the report and flushes the output stream.
+	 *
+	 * @throws IOException if the report could not be completed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try (generator) {
+			if (format == Format.JSON) {
+				generator.writeEndArray();
+				generator.writeObjectFieldStart("summary");
+				generator.writeNumberField("sheets", sheets);
+				generator.writeNumberField("invalidSheets", invalidSheets);
+				generator.writeObjectFieldStart("errors");
+				for (Map.Entry<String, Long> entry : errorsPerCode.entrySet()) {
+					generator.writeNumberField(entry.getKey(), entry.getValue());
+				}
+				generator.writeEndObject();
+				generator.writeEndObject();
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+			}
+		}
+	}
+
+	private void writeError(String sheetId, CheckerError error) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("sheet", sheetId);
+		generator.writeStringField("code", error.getCode());
+		for (Object arg : error.getArgs()) {
+			if (arg instanceof LocalDate date) { // The first date is the day the error refers to
+				generator.writeStringField("date", date.toString());
+				break;
+			}
+		}
+		generator.writeArrayFieldStart("args");
+		for (Object arg : error.getArgs()) {
+			writeArg(arg);
+		}
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	private void writeArg(Object arg) throws IOException {
+		switch (arg) {
+		case null -> generator.writeNull();
+		case Integer value -> generator.writeNumber(value);
+		case Long value -> generator.writeNumber(value);
+		case BigInteger value -> generator.writeNumber(value);
+		case BigDecimal value -> generator.writeNumber(value);
+		case Number value -> generator.writeNumber(value.doubleValue());
+		case Boolean value -> generator.writeBoolean(value);
+		case TimeSpan value -> generator.writeString("%d:%02d".formatted(value.getHour(), value.getMinute()));
+		default -> generator.writeString(arg.toString());
+		}
+	}
+
+}
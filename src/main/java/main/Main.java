@@ -1,21 +1,40 @@
 /* Licensed under MIT 2023-2024. */
 package main;
 
-import checker.*;
+import checker.CheckerError;
+import checker.CheckerException;
 import data.TimeSheet;
 import i18n.ResourceHandler;
 import io.FileController;
-import io.IGenerator;
-import io.LatexGenerator;
+import io.OutputCache;
+import io.ValidationReportWriter;
 import main.UserInput.Request;
+import metrics.MetricsRegistry;
 import parser.ParseException;
-import parser.Parser;
+import profiling.Profiler;
+import profiling.StartupMilestone;
+import service.DirectoryLinter;
+import service.StreamProcessor;
+import service.TimeSheetIndex;
+import service.TimeSheetServer;
+import service.TimeSheetService;
+import service.TransferLedger;
+import service.WatchDaemon;
 import ui.UserInterface;
 
 import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Main class of the application containing the main method as entry point for
@@ -46,6 +65,11 @@ public class Main {
 			System.exit(1);
 			return;
 		}
+		// No display is needed in streaming mode, this must be set before any class
+		// initializes the AWT toolkit
+		if (request == Request.STREAM) {
+			System.setProperty("java.awt.headless", "true");
+		}
 
 		// If requested: Print help and return
 		if (request == Request.HELP) {
@@ -57,66 +81,393 @@ public class Main {
 			userInput.printVersion();
 			return;
 		}
+		// If requested: Record the run, the recording is written when the JVM exits
+		Optional<Path> profileFile = userInput.getProfileFile();
+		if (profileFile.isPresent()) {
+			try {
+				Profiler.start(profileFile.get());
+				System.err.println(ResourceHandler.getMessage("command.output.profiling", profileFile.get().toAbsolutePath()));
+			} catch (IOException | IllegalStateException e) { // The run continues without recording
+				System.err.println(ResourceHandler.getMessage("error.profile.notStarted", e.getMessage()));
+			}
+		}
+		// If requested: Write the metrics when the JVM exits, which also covers
+		// terminating the server and the watch daemon
+		userInput.getMetricsOutFile().ifPresent(metricsFile -> Runtime.getRuntime().addShutdownHook(new Thread(() -> writeMetrics(metricsFile))));
+		// If requested: Serve requests until the process is terminated
+		if (request == Request.SERVE) {
+			try {
+				serve(userInput.getServePort());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.out.println(e.getMessage());
+				System.exit(1);
+			}
+			return;
+		}
+		// If requested: Regenerate changed months until the process is terminated
+		if (request == Request.WATCH) {
+			try {
+				watch(userInput.getWatchDirectories(), userInput.getCacheDirectory());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.out.println(e.getMessage());
+				System.exit(1);
+			}
+			return;
+		}
+
+		// If requested: Process records from stdin to stdout
+		if (request == Request.STREAM) {
+			try {
+				stream(userInput.getStreamFormat());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.err.println(e.getMessage());
+				System.exit(1);
+			}
+			return;
+		}
+
+		// If requested: Update the time sheet index and print the matching time sheets
+		if (request == Request.INDEX) {
+			try {
+				index(userInput.getIndexDirectory(), userInput.getIndexQuery());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.err.println(e.getMessage());
+				System.exit(1);
+			}
+			return;
+		}
+
+		// If requested: Check all time sheets below a directory
+		if (request == Request.LINT) {
+			boolean valid;
+			try {
+				valid = lint(userInput.getLintDirectory(), userInput.getReportFormat());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.err.println(e.getMessage());
+				System.exit(1);
+				return;
+			}
+			if (!valid) {
+				System.exit(1);
+			}
+			return;
+		}
+
+		// If requested: Check the transfers between the months of all employees
+		if (request == Request.LEDGER) {
+			boolean unbroken;
+			try {
+				unbroken = ledger(userInput.getLedgerDirectory());
+			} catch (org.apache.commons.cli.ParseException | IOException e) {
+				System.err.println(e.getMessage());
+				System.exit(1);
+				return;
+			}
+			if (!unbroken) {
+				System.exit(1);
+			}
+			return;
+		}
 
 		// Get content of input files
-		String global;
-		String month;
+		byte[] global;
+		byte[] month;
 		try {
-			global = FileController.readFileToString(userInput.getFile(UserInputFile.JSON_GLOBAL));
-			month = FileController.readFileToString(userInput.getFile(UserInputFile.JSON_MONTH));
+			global = FileController.readFileToBytes(userInput.getFile(UserInputFile.JSON_GLOBAL));
+			month = FileController.readFileToBytes(userInput.getFile(UserInputFile.JSON_MONTH));
 		} catch (IOException e) {
 			System.out.println(e.getMessage());
 			System.exit(1);
 			return;
 		}
 
+		TimeSheetService service = TimeSheetService.getDefault();
+
 		// Initialize time sheet
 		TimeSheet timeSheet;
 		try {
-			timeSheet = Parser.parseTimeSheetJson(global, month);
+			timeSheet = service.parse(global, month);
 		} catch (ParseException e) {
 			System.out.println(e.getMessage());
 			System.exit(1);
 			return;
 		}
 
+		// Look up the document, only documents of valid time sheets are cached
+		OutputCache cache = openCache(userInput.getCacheDirectory(), System.err::println);
+		String cacheKey = null;
+		Optional<byte[]> cached = Optional.empty();
+		if (cache != null) {
+			try {
+				cacheKey = service.getTexCacheKey(new String(global, StandardCharsets.UTF_8), new String(month, StandardCharsets.UTF_8), timeSheet,
+						ResourceHandler.getMessageSource());
+				cached = cache.get(cacheKey);
+			} catch (ParseException | IOException | CheckerException e) { // Generate the document instead
+				cacheKey = null;
+			}
+		}
+
 		// Check time sheet
-		IChecker checker = new MiLoGChecker(timeSheet);
-		CheckerReturn checkerReturn;
+		Collection<CheckerError> errors;
 		try {
-			checkerReturn = checker.check();
+			errors = cached.isPresent() ? List.of() : service.check(timeSheet);
 		} catch (CheckerException e) { // exception does not mean that the time sheet is invalid, but that the process
 			// of checking failed
 			System.out.println(e.getMessage());
 			System.exit(1);
 			return;
 		}
-		// Print all errors in case the time sheet is invalid
-		if (checkerReturn == CheckerReturn.INVALID) {
-			handleInvalidTimesheet(checker, userInput);
+		// Print a report of the errors if requested, all error messages otherwise
+		Optional<ValidationReportWriter.Format> reportFormat;
+		try {
+			reportFormat = userInput.getReportFormat();
+		} catch (org.apache.commons.cli.ParseException e) { // already checked while parsing
+			reportFormat = Optional.empty();
+		}
+		if (reportFormat.isPresent()) {
+			try (ValidationReportWriter report = new ValidationReportWriter(System.out, reportFormat.get())) {
+				report.write(timeSheet.getSheetId(), errors);
+			} catch (IOException e) {
+				System.out.println(e.getMessage());
+				System.exit(1);
+				return;
+			}
+			if (!errors.isEmpty()) {
+				return;
+			}
+		} else if (!errors.isEmpty()) {
+			handleInvalidTimesheet(errors, userInput);
 			return;
 		}
 
 		// Generate and save output file
-		ClassLoader classLoader = Main.class.getClassLoader();
 		try {
-			String latexTemplate = FileController.readInputStreamToString(classLoader.getResourceAsStream("MiLoG_Template.tex"));
-			IGenerator generator = new LatexGenerator(timeSheet, latexTemplate);
-			FileController.saveStringToFile(generator.generate(), userInput.getFile(UserInputFile.OUTPUT));
+			if (cached.isPresent()) {
+				FileController.saveBytesToFile(cached.get(), userInput.getFile(UserInputFile.OUTPUT));
+			} else {
+				byte[] tex = service.generateTex(timeSheet).getBytes(StandardCharsets.UTF_8);
+				FileController.saveBytesToFile(tex, userInput.getFile(UserInputFile.OUTPUT));
+				if (cacheKey != null) {
+					putCached(cache, cacheKey, tex);
+				}
+			}
+			StartupMilestone.OUTPUT.reached();
 		} catch (IOException e) {
 			System.out.println(e.getMessage());
 			System.exit(1);
 		}
+		closeCache(cache);
+	}
+
+	/**
+	 * Opens the output cache if it was requested.
+	 *
+	 * @param directory The cache directory or an empty optional if documents
+	 *                  should not be cached
+	 * @param log       Receives the message if the cache is not available
+	 * @return The cache or null if it was not requested or is not available
+	 */
+	private static OutputCache openCache(Optional<Path> directory, Consumer<String> log) {
+		if (directory.isEmpty()) {
+			return null;
+		}
+		try {
+			return new OutputCache(directory.get());
+		} catch (IOException e) { // Generate every document instead
+			log.accept(ResourceHandler.getMessage("error.output.cacheUnavailable", e.getMessage()));
+			return null;
+		}
+	}
+
+	private static void putCached(OutputCache cache, String key, byte[] tex) {
+		try {
+			cache.put(key, tex);
+		} catch (IOException e) {
+			// The document is generated again next time
+		}
+	}
+
+	private static void closeCache(OutputCache cache) {
+		if (cache != null) {
+			try {
+				cache.close();
+			} catch (IOException e) {
+				// The usage order is lost, the cached documents are kept
+			}
+		}
 	}
 
-	private static void handleInvalidTimesheet(IChecker checker, UserInput userInput) {
-		for (CheckerError error : checker.getErrors()) {
+	/**
+	 * Writes the metrics of the run in the Prometheus text format.
+	 *
+	 * @param file The file to write the metrics to
+	 */
+	private static void writeMetrics(Path file) {
+		try {
+			FileController.saveStringToFile(MetricsRegistry.getDefault().toPrometheus(), file.toFile());
+		} catch (IOException e) {
+			System.err.println(ResourceHandler.getMessage("error.metrics.notWritten", e.getMessage()));
+		}
+	}
+
+	/**
+	 * Starts the local HTTP service. It keeps running after this method returns,
+	 * until the process is terminated, and finishes running requests on shutdown.
+	 * 
+	 * @param port The port to listen on
+	 * @throws IOException Thrown if the server could not be started
+	 */
+	private static void serve(int port) throws IOException {
+		TimeSheetServer server = new TimeSheetServer(TimeSheetService.getDefault(), new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close, "server-shutdown"));
+		server.start();
+		System.out.println(ResourceHandler.getMessage("command.output.serving", server.getAddress().getHostString(), server.getAddress().getPort()));
+	}
+
+	/**
+	 * Starts watching the directories for changed months. The daemon keeps running
+	 * after this method returns, until the process is terminated.
+	 * 
+	 * @param directories    The directories to watch
+	 * @param cacheDirectory The directory to cache the generated documents in or
+	 *                       an empty optional if they should not be cached
+	 * @throws IOException Thrown if a directory could not be watched
+	 */
+	private static void watch(List<Path> directories, Optional<Path> cacheDirectory) throws IOException {
+		OutputCache cache = openCache(cacheDirectory, System.out::println);
+		WatchDaemon daemon = new WatchDaemon(TimeSheetService.getDefault(), directories, WatchDaemon.DEFAULT_DEBOUNCE, WatchDaemon.DEFAULT_QUEUE_CAPACITY,
+				cache, System.out::println);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			daemon.close();
+			closeCache(cache);
+		}, "watch-shutdown"));
+		daemon.start();
+		for (Path directory : directories) {
+			System.out.println(ResourceHandler.getMessage("command.output.watching", directory.toAbsolutePath()));
+		}
+	}
+
+	/**
+	 * Processes newline delimited json records from stdin and writes the results to
+	 * stdout.
+	 * 
+	 * @param format The format of the generated documents
+	 * @throws IOException Thrown if stdin could not be read or stdout could not be
+	 *                     written
+	 */
+	private static void stream(StreamProcessor.Format format) throws IOException {
+		new StreamProcessor(TimeSheetService.getDefault(), format, ResourceHandler.getMessageSource()).process(System.in, System.out);
+	}
+
+	/**
+	 * Updates the index of the time sheets below a directory and prints the
+	 * matching time sheets to stdout, one tab separated line per time sheet.
+	 * 
+	 * @param directory The root directory of the index
+	 * @param query     The criteria of the printed time sheets
+	 * @throws IOException Thrown if the directory could not be walked or the index
+	 *                     could not be stored
+	 */
+	private static void index(Path directory, TimeSheetIndex.Query query) throws IOException {
+		TimeSheetIndex index = new TimeSheetIndex(TimeSheetService.getDefault(), directory, System.err::println);
+		int indexed = index.refresh();
+		List<TimeSheetIndex.Sheet> sheets = index.find(query);
+		for (TimeSheetIndex.Sheet sheet : sheets) {
+			System.out.println(String.join("\t", "%d/%s".formatted(sheet.staffId(), sheet.yearMonth()), sheet.employeeName(), sheet.department(),
+					sheet.workingArea().getStringValue(), sheet.workTime().toString(), sheet.vacationTime().toString(), sheet.file().toString()));
+		}
+		System.err.println(ResourceHandler.getMessage("command.output.index.summary", sheets.size(), indexed));
+	}
+
+	/**
+	 * Checks all time sheets below a directory in parallel. The errors of every
+	 * time sheet are printed as soon as it is checked, either as error messages or
+	 * as a validation report. The number of invalid time sheets per rule is
+	 * printed to stderr at the end.
+	 * 
+	 * @param directory    The root directory of the time sheets
+	 * @param reportFormat The format of the validation report, or an empty
+	 *                     optional to print the error messages
+	 * @return True if all time sheets were checked and are valid
+	 * @throws IOException Thrown if the directory could not be walked or the
+	 *                     report could not be written
+	 */
+	private static boolean lint(Path directory, Optional<ValidationReportWriter.Format> reportFormat) throws IOException {
+		DirectoryLinter linter = new DirectoryLinter(TimeSheetService.getDefault());
+		DirectoryLinter.Summary summary;
+		if (reportFormat.isPresent()) {
+			try (ValidationReportWriter report = new ValidationReportWriter(System.out, reportFormat.get())) {
+				summary = linter.lint(directory, result -> {
+					if (result.failure() != null) {
+						System.err.println(ResourceHandler.getMessage("command.output.lint.error", result.file(), result.failure()));
+						return;
+					}
+					try {
+						report.write(result.sheetId(), result.errors());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		} else {
+			summary = linter.lint(directory, result -> {
+				if (result.failure() != null) {
+					System.out.println(ResourceHandler.getMessage("command.output.lint.error", result.file(), result.failure()));
+				}
+				for (CheckerError error : result.errors()) {
+					System.out.println(ResourceHandler.getMessage("command.output.lint.error", result.file(), error.getErrorMessage()));
+				}
+			});
+		}
+		summary.invalidSheetsByCode().forEach((code, sheets) -> System.err.println(ResourceHandler.getMessage("command.output.lint.rule", code, sheets)));
+		System.err.println(ResourceHandler.getMessage("command.output.lint.summary", summary.sheets(), summary.invalidSheets(), summary.failedSheets()));
+		return summary.isValid();
+	}
+
+	/**
+	 * Reads the months of all employees below a directory and prints the months
+	 * breaking the chain of transfers. A summary is printed to stderr at the end.
+	 * 
+	 * @param directory The directory containing a directory per employee
+	 * @return True if the chain of transfers of every employee is unbroken
+	 * @throws IOException Thrown if the directories could not be listed
+	 */
+	private static boolean ledger(Path directory) throws IOException {
+		TransferLedger ledger = new TransferLedger(TimeSheetService.getDefault(), directory, System.err::println);
+		ledger.refresh();
+		Map<Path, List<TransferLedger.Month>> employees = ledger.getMonths();
+		int months = 0;
+		int breaks = 0;
+		for (List<TransferLedger.Month> employeeMonths : employees.values()) {
+			TransferLedger.Month previous = null;
+			for (TransferLedger.Month month : employeeMonths) {
+				if (month.chainBreak() != null) {
+					breaks++;
+					System.out.println(switch (month.chainBreak()) {
+					case MISSING_MONTH -> ResourceHandler.getMessage("command.output.ledger.missingMonth", month.file(), month.yearMonth(),
+							month.predTransfer());
+					case TRANSFER_MISMATCH -> ResourceHandler.getMessage("command.output.ledger.transferMismatch", month.file(), month.predTransfer(),
+							previous.file(), previous.succTransfer());
+					});
+				}
+				previous = month;
+				months++;
+			}
+		}
+		System.err.println(ResourceHandler.getMessage("command.output.ledger.summary", months, employees.size(), breaks));
+		return breaks == 0;
+	}
+
+	private static void handleInvalidTimesheet(Collection<CheckerError> errors, UserInput userInput) {
+		for (CheckerError error : errors) {
 			System.out.println(error.getErrorMessage());
 		}
 
 		if (userInput.isGui()) {
 			StringBuilder errorList = new StringBuilder();
-			for (CheckerError error : checker.getErrors()) {
+			for (CheckerError error : errors) {
 				errorList.append(error.getErrorMessage()).append(System.lineSeparator());
 			}
 
@@ -137,43 +488,36 @@ public class Main {
 	public static Optional<String> validateTimesheet(File globalFile, File monthFile) {
 		if (globalFile == null || monthFile == null)
 			return Optional.of("The global or month file were null. Try saving.");
-		String globalStr;
-		String monthStr;
+		byte[] globalJson;
+		byte[] monthJson;
 		try {
-			globalStr = FileController.readFileToString(globalFile);
-			monthStr = FileController.readFileToString(monthFile);
+			globalJson = FileController.readFileToBytes(globalFile);
+			monthJson = FileController.readFileToBytes(monthFile);
 		} catch (IOException e) {
 			return Optional.of(e.getMessage());
 		}
 
-		// Validation code from above.
-
 		// Initialize time sheet
 		TimeSheet timeSheet;
 		try {
-			timeSheet = Parser.parseTimeSheetJson(globalStr, monthStr);
+			timeSheet = TimeSheetService.getDefault().parse(globalJson, monthJson);
 		} catch (ParseException e) {
 			return Optional.of(e.getMessage());
 		}
 
-		// Check time sheet
-		IChecker checker = new MiLoGChecker(timeSheet);
-		CheckerReturn checkerReturn;
-		try {
-			checkerReturn = checker.check();
-		} catch (CheckerException e) {
-			return Optional.of(e.getMessage());
-		}
-
-		if (checkerReturn == CheckerReturn.INVALID) {
-			StringBuilder errorList = new StringBuilder();
-			for (CheckerError error : checker.getErrors()) {
-				errorList.append(error.getErrorMessage()).append(System.lineSeparator());
-			}
-			return Optional.of(errorList.toString());
-		}
+		return validateTimesheet(timeSheet);
+	}
 
-		return Optional.empty();
+	/**
+	 * Validates the contents of an already parsed timesheet. If the timesheet is
+	 * not valid, this method returns an optional containing the error message. If
+	 * it is, this method will return an empty optional.
+	 * 
+	 * @param timeSheet The timesheet to validate.
+	 * @return An optional of the error message.
+	 */
+	public static Optional<String> validateTimesheet(TimeSheet timeSheet) {
+		return TimeSheetService.getDefault().validate(timeSheet);
 	}
 
 }
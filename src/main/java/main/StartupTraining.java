@@ -0,0 +1,70 @@
+/* Licensed under MIT 2024. */
+package main;
+
+import data.TimeSheet;
+import i18n.ResourceHandler;
+import parser.ParseException;
+import service.TimeSheetService;
+import ui.UserInterface;
+
+import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Training run for the class data sharing archive built by the
+ * <code>cds</code> profile. It runs the command line generation, the PDF
+ * export of the user interface and, if a display is available, opens the user
+ * interface, so the classes of these paths are archived. The JVM running it
+ * dumps the archive when it exits, e.g. with
+ * <code>-XX:ArchiveClassesAtExit=timesheetgenerator.jsa</code>.
+ */
+public final class StartupTraining {
+
+	private static final String GLOBAL = "{\"name\": \"Max Mustermann\", \"staffId\": 1234567, \"department\": \"Fakultät für Informatik\","
+			+ " \"workingTime\": \"40:00\", \"wage\": 10.31, \"workingArea\": \"ub\"}";
+	// No entries, so that no holidays are fetched
+	private static final String MONTH = "{\"year\": 2019, \"month\": 11, \"entries\": []}";
+	private static final long FIRST_FRAME_TIMEOUT_MS = 60_000;
+	private static final long FIRST_FRAME_POLL_MS = 50;
+
+	private StartupTraining() {
+	}
+
+	/**
+	 * Runs the training.
+	 * 
+	 * @param args the directory to write the training files to
+	 * @throws IOException          Thrown if the training files could not be
+	 *                              written
+	 * @throws ParseException       Never thrown, the training data is valid
+	 * @throws InterruptedException Thrown if interrupted while waiting for the
+	 *                              user interface
+	 */
+	public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+		Path directory = Files.createDirectories(Path.of(args.length > 0 ? args[0] : "cds-training"));
+		Path global = Files.writeString(directory.resolve("global.json"), GLOBAL, StandardCharsets.UTF_8);
+		Path month = Files.writeString(directory.resolve("month.json"), MONTH, StandardCharsets.UTF_8);
+
+		// Without --cache, so that every run checks and generates the document
+		Main.main(new String[] { "-f", global.toString(), month.toString(), directory.resolve("month.tex").toString() });
+
+		TimeSheetService service = TimeSheetService.getDefault();
+		TimeSheet timeSheet = service.parse(GLOBAL, MONTH);
+		Files.write(directory.resolve("month.pdf"), service.generatePdf(timeSheet, true, ResourceHandler.getMessageSource()));
+
+		if (!GraphicsEnvironment.isHeadless()) {
+			UserInterface.main(new String[0]);
+			long deadline = System.currentTimeMillis() + FIRST_FRAME_TIMEOUT_MS;
+			while (System.currentTimeMillis() < deadline && Arrays.stream(Frame.getFrames()).noneMatch(Frame::isShowing)) {
+				Thread.sleep(FIRST_FRAME_POLL_MS);
+			}
+		}
+		System.exit(0);
+	}
+
+}
@@ -1,15 +1,27 @@
 /* Licensed under MIT 2023-2024. */
 package main;
 
+import data.WorkingArea;
 import i18n.ResourceHandler;
+import io.OutputCache;
+import io.ValidationReportWriter;
 import org.apache.commons.cli.*;
 import org.apache.commons.io.FilenameUtils;
+import service.StreamProcessor;
+import service.TimeSheetIndex;
 
 import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.Properties;
 
 /**
@@ -17,6 +29,11 @@ import java.util.Properties;
  */
 public class UserInput {
 
+	private static final int DEFAULT_SERVE_PORT = 8080;
+	private static final String DEFAULT_PROFILE_FILE_NAME = "timesheetgenerator.jfr";
+	private static final String PROFILE_EXTENSION = ".jfr";
+	private static final int MAX_PORT = 65535;
+
 	private CommandLine commandLine;
 	private final String[] args;
 
@@ -47,6 +64,34 @@ public class UserInput {
 		if (commandLine.hasOption(UserInputOption.VERSION.getOption().getOpt())) {
 			return Request.VERSION;
 		}
+		if (commandLine.hasOption(UserInputOption.SERVE.getOption().getOpt())) {
+			getServePort(); // Fail early on an invalid port
+			return Request.SERVE;
+		}
+		if (commandLine.hasOption(UserInputOption.WATCH.getOption().getOpt())) {
+			getWatchDirectories(); // Fail early on an invalid directory
+			return Request.WATCH;
+		}
+		if (commandLine.hasOption(UserInputOption.STREAM.getOption().getOpt())) {
+			getStreamFormat(); // Fail early on an invalid format
+			return Request.STREAM;
+		}
+		if (commandLine.hasOption(UserInputOption.INDEX.getOption().getOpt())) {
+			getIndexDirectory(); // Fail early on an invalid directory or filter
+			getIndexQuery();
+			return Request.INDEX;
+		}
+		if (commandLine.hasOption(UserInputOption.LINT.getOption().getOpt())) {
+			getLintDirectory(); // Fail early on an invalid directory or format
+			getReportFormat();
+			return Request.LINT;
+		}
+		if (commandLine.hasOption(UserInputOption.LEDGER.getOption().getOpt())) {
+			getLedgerDirectory(); // Fail early on an invalid directory
+			return Request.LEDGER;
+		}
+
+		getReportFormat(); // Fail early on an invalid format
 
 		// "gui" and "file" options are mutually exclusive
 		if (commandLine.hasOption(UserInputOption.GUI.getOption().getOpt()) && commandLine.hasOption(UserInputOption.FILE.getOption().getOpt())) {
@@ -65,12 +110,226 @@ public class UserInput {
 		return !commandLine.hasOption(UserInputOption.FILE.getOption().getOpt());
 	}
 
+	/**
+	 * Get the port the HTTP service should listen on.
+	 * 
+	 * @return The port given with the serve option or the default port
+	 * @throws ParseException Thrown in case the port is invalid
+	 */
+	public int getServePort() throws ParseException {
+		String port = commandLine.getOptionValue(UserInputOption.SERVE.getOption().getOpt());
+		if (port == null) {
+			return DEFAULT_SERVE_PORT;
+		}
+		try {
+			int value = Integer.parseInt(port);
+			if (value < 0 || value > MAX_PORT) {
+				throw new NumberFormatException();
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.invalidPort", port));
+		}
+	}
+
+	/**
+	 * Get the directories that should be watched for changed months.
+	 * 
+	 * @return The directories given with the watch option
+	 * @throws ParseException Thrown in case a path is not a directory
+	 */
+	public List<Path> getWatchDirectories() throws ParseException {
+		List<Path> directories = new ArrayList<>();
+		for (String directory : commandLine.getOptionValues(UserInputOption.WATCH.getOption().getOpt())) {
+			Path path = Path.of(directory);
+			if (!Files.isDirectory(path)) {
+				throw new ParseException(ResourceHandler.getMessage("error.userinput.notADirectory", directory));
+			}
+			directories.add(path);
+		}
+		return directories;
+	}
+
+	/**
+	 * Get the format of the documents generated in streaming mode.
+	 * 
+	 * @return The format given with the stream option or LaTeX
+	 * @throws ParseException Thrown in case the format is unknown
+	 */
+	public StreamProcessor.Format getStreamFormat() throws ParseException {
+		String format = commandLine.getOptionValue(UserInputOption.STREAM.getOption().getOpt());
+		if (format == null) {
+			return StreamProcessor.Format.TEX;
+		}
+		try {
+			return StreamProcessor.Format.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.invalidStreamFormat", format));
+		}
+	}
+
+	/**
+	 * Get the root directory of the time sheet index.
+	 * 
+	 * @return The directory given with the index option
+	 * @throws ParseException Thrown in case the path is not a directory
+	 */
+	public Path getIndexDirectory() throws ParseException {
+		String directory = commandLine.getOptionValues(UserInputOption.INDEX.getOption().getOpt())[0];
+		Path path = Path.of(directory);
+		if (!Files.isDirectory(path)) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.notADirectory", directory));
+		}
+		return path;
+	}
+
+	/**
+	 * Get the query of the time sheet index. Every filter following the directory
+	 * of the index option is of the form <code>name=value</code>, with the names
+	 * staff, month, department and area. A month is given as <code>yyyy-mm</code>
+	 * or as a whole year <code>yyyy</code>.
+	 * 
+	 * @return The query of the filters given with the index option
+	 * @throws ParseException Thrown in case a filter is invalid
+	 */
+	public TimeSheetIndex.Query getIndexQuery() throws ParseException {
+		String[] values = commandLine.getOptionValues(UserInputOption.INDEX.getOption().getOpt());
+		Integer staffId = null;
+		YearMonth from = null;
+		YearMonth to = null;
+		String department = null;
+		WorkingArea workingArea = null;
+		for (String filter : Arrays.asList(values).subList(1, values.length)) {
+			int separator = filter.indexOf('=');
+			String name = separator < 0 ? "" : filter.substring(0, separator);
+			String value = filter.substring(separator + 1);
+			try {
+				switch (name) {
+				case "staff" -> staffId = Integer.parseInt(value);
+				case "month" -> {
+					if (value.length() == 4) {
+						from = YearMonth.of(Integer.parseInt(value), 1);
+						to = YearMonth.of(Integer.parseInt(value), 12);
+					} else {
+						from = YearMonth.parse(value);
+						to = from;
+					}
+				}
+				case "department" -> department = value;
+				case "area" -> workingArea = WorkingArea.parse(value);
+				default -> throw new IllegalArgumentException(filter);
+				}
+			} catch (RuntimeException e) {
+				throw new ParseException(ResourceHandler.getMessage("error.userinput.invalidIndexFilter", filter));
+			}
+		}
+		return new TimeSheetIndex.Query(staffId, from, to, department, workingArea);
+	}
+
+	/**
+	 * Get the root directory of the time sheets that should be checked.
+	 * 
+	 * @return The directory given with the lint option
+	 * @throws ParseException Thrown in case the path is not a directory
+	 */
+	public Path getLintDirectory() throws ParseException {
+		String directory = commandLine.getOptionValue(UserInputOption.LINT.getOption().getOpt());
+		Path path = Path.of(directory);
+		if (!Files.isDirectory(path)) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.notADirectory", directory));
+		}
+		return path;
+	}
+
+	/**
+	 * Get the directory containing a directory per employee whose transfers should
+	 * be checked.
+	 * 
+	 * @return The directory given with the ledger option
+	 * @throws ParseException Thrown in case the path is not a directory
+	 */
+	public Path getLedgerDirectory() throws ParseException {
+		String directory = commandLine.getOptionValue(UserInputOption.LEDGER.getOption().getOpt());
+		Path path = Path.of(directory);
+		if (!Files.isDirectory(path)) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.notADirectory", directory));
+		}
+		return path;
+	}
+
+	/**
+	 * Get the format of the validation report.
+	 * 
+	 * @return The format given with the report option or an empty optional if
+	 *         error messages should be printed instead
+	 * @throws ParseException Thrown in case the format is unknown
+	 */
+	public Optional<ValidationReportWriter.Format> getReportFormat() throws ParseException {
+		String format = commandLine.getOptionValue(UserInputOption.REPORT.getOption().getOpt());
+		if (format == null) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(ValidationReportWriter.Format.valueOf(format.toUpperCase(Locale.ROOT)));
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(ResourceHandler.getMessage("error.userinput.invalidReportFormat", format));
+		}
+	}
+
+	/**
+	 * Get the file the flight recording should be written to. Without an explicit
+	 * file, the recording is written next to the output file given on the command
+	 * line, or to the working directory.
+	 * 
+	 * @return The file of the flight recording or an empty optional if the run
+	 *         should not be recorded
+	 */
+	public Optional<Path> getProfileFile() {
+		if (!commandLine.hasOption(UserInputOption.PROFILE.getOption().getOpt())) {
+			return Optional.empty();
+		}
+		String file = commandLine.getOptionValue(UserInputOption.PROFILE.getOption().getOpt());
+		if (file != null) {
+			return Optional.of(Path.of(file));
+		}
+		if (commandLine.hasOption(UserInputOption.FILE.getOption().getOpt())) {
+			Path output = Path.of(commandLine.getOptionValues(UserInputOption.FILE.getOption().getOpt())[2]);
+			return Optional.of(output.resolveSibling(FilenameUtils.getBaseName(output.getFileName().toString()) + PROFILE_EXTENSION));
+		}
+		return Optional.of(Path.of(DEFAULT_PROFILE_FILE_NAME));
+	}
+
+	/**
+	 * Get the directory generated documents should be cached in. Without an
+	 * explicit directory, the default cache directory of the user is used.
+	 * 
+	 * @return The cache directory or an empty optional if documents should not be
+	 *         cached
+	 */
+	public Optional<Path> getCacheDirectory() {
+		if (!commandLine.hasOption(UserInputOption.CACHE.getOption().getOpt())) {
+			return Optional.empty();
+		}
+		String directory = commandLine.getOptionValue(UserInputOption.CACHE.getOption().getOpt());
+		return Optional.of(directory != null ? Path.of(directory) : OutputCache.getDefaultDirectory());
+	}
+
+	/**
+	 * Get the file the metrics should be written to when the run ends.
+	 * 
+	 * @return The file of the metrics or an empty optional if the metrics should
+	 *         not be written
+	 */
+	public Optional<Path> getMetricsOutFile() {
+		return Optional.ofNullable(commandLine.getOptionValue(UserInputOption.METRICS_OUT.getOption().getOpt())).map(Path::of);
+	}
+
 	/**
 	 * Print the command line help
 	 */
 	public void printHelp() {
 		HelpFormatter formatter = new HelpFormatter();
-		formatter.printHelp(ResourceHandler.getMessage("application.name"), UserInputOption.getOptions());
+		formatter.printHelp(ResourceHandler.getMessage("application.name"), UserInputOption.getLocalizedOptions());
 	}
 
 	/**
@@ -219,7 +478,7 @@ public class UserInput {
 	 * Action a user requested through the command line arguments
 	 */
 	public enum Request {
-		HELP, VERSION, GENERATE
+		HELP, VERSION, GENERATE, SERVE, WATCH, STREAM, INDEX, LINT, LEDGER
 	}
 
 }
@@ -25,18 +25,21 @@ public enum UserInputFile {
 	 */
 	OUTPUT("file.tex.output.description", "file.tex.description", "file.tex.extension", FileOperation.SAVE);
 
-	private final String dialogTitel;
-	private final FileNameExtensionFilter fileFilter;
+	private final String dialogTitleKey;
+	private final String fileDescriptionKey;
+	private final String fileExtensionKey;
 	private final FileOperation operation;
 
 	/**
-	 * Create a new type of user input file
+	 * Create a new type of user input file. The messages are only looked up when
+	 * a dialog is shown, so that the command line does not load Swing.
 	 * 
 	 * @param operation Operation associated with this user file type (OPEN or SAVE)
 	 */
 	UserInputFile(String dialogTitleKey, String fileDescriptionKey, String fileExtensionKey, FileOperation operation) {
-		this.dialogTitel = ResourceHandler.getMessage(dialogTitleKey);
-		this.fileFilter = new FileNameExtensionFilter(ResourceHandler.getMessage(fileDescriptionKey), ResourceHandler.getMessage(fileExtensionKey));
+		this.dialogTitleKey = dialogTitleKey;
+		this.fileDescriptionKey = fileDescriptionKey;
+		this.fileExtensionKey = fileExtensionKey;
 		this.operation = operation;
 	}
 
@@ -46,7 +49,7 @@ public enum UserInputFile {
 	 * @return Dialog title
 	 */
 	public String getDialogTitel() {
-		return this.dialogTitel;
+		return ResourceHandler.getMessage(dialogTitleKey);
 	}
 
 	/**
@@ -55,7 +58,7 @@ public enum UserInputFile {
 	 * @return File extension filter
 	 */
 	public FileNameExtensionFilter getFileFilter() {
-		return this.fileFilter;
+		return new FileNameExtensionFilter(ResourceHandler.getMessage(fileDescriptionKey), ResourceHandler.getMessage(fileExtensionKey));
 	}
 
 	/**
@@ -13,30 +13,78 @@ public enum UserInputOption {
 	/**
 	 * Print the command line help
 	 */
-	HELP(Option.builder("h").longOpt("help").desc(ResourceHandler.getMessage("command.input.help.description")).hasArg(false).build()),
+	HELP(Option.builder("h").longOpt("help").hasArg(false), "help"),
 	/**
 	 * Print the version of the application
 	 */
-	VERSION(Option.builder("v").longOpt("version").desc(ResourceHandler.getMessage("command.input.version.description")).hasArg(false).build()),
+	VERSION(Option.builder("v").longOpt("version").hasArg(false), "version"),
 	/**
 	 * Show the GUI for choosing the files
 	 */
-	GUI(Option.builder("g").longOpt("gui").desc(ResourceHandler.getMessage("command.input.gui.description")).hasArg(false).build()),
+	GUI(Option.builder("g").longOpt("gui").hasArg(false), "gui"),
 	/**
 	 * Specify the files in the arguments of this command
 	 */
-	FILE(Option.builder("f").longOpt("file").desc(ResourceHandler.getMessage("command.input.file.description")).numberOfArgs(3)
-			.argName(ResourceHandler.getMessage("command.input.file.arguments")).build());
+	FILE(Option.builder("f").longOpt("file").numberOfArgs(3), "file"),
+	/**
+	 * Serve validation and generation via HTTP
+	 */
+	SERVE(Option.builder("s").longOpt("serve").hasArg().optionalArg(true), "serve"),
+	/**
+	 * Regenerate the documents of changed months in the given directories
+	 */
+	WATCH(Option.builder("w").longOpt("watch").hasArgs(), "watch"),
+	/**
+	 * Process newline delimited json records from stdin to stdout
+	 */
+	STREAM(Option.builder("n").longOpt("stream").hasArg().optionalArg(true), "stream"),
+	/**
+	 * Print a machine readable validation report instead of the error messages
+	 */
+	REPORT(Option.builder("r").longOpt("report").hasArg(), "report"),
+	/**
+	 * Record a flight recording of the run
+	 */
+	PROFILE(Option.builder("p").longOpt("profile").hasArg().optionalArg(true), "profile"),
+	/**
+	 * Write the metrics of the run when it ends
+	 */
+	METRICS_OUT(Option.builder("m").longOpt("metrics-out").hasArg(), "metricsOut"),
+	/**
+	 * Reuse the documents generated for unchanged input
+	 */
+	CACHE(Option.builder("c").longOpt("cache").hasArg().optionalArg(true), "cache"),
+	/**
+	 * Update the index of the time sheets below a directory and print the matching
+	 * time sheets
+	 */
+	INDEX(Option.builder("i").longOpt("index").hasArgs(), "index"),
+	/**
+	 * Check all time sheets below a directory in parallel
+	 */
+	LINT(Option.builder("l").longOpt("lint").hasArg(), "lint"),
+	/**
+	 * Print the months breaking the chain of transfers of the employees below a
+	 * directory
+	 */
+	LEDGER(Option.builder("t").longOpt("ledger").hasArg(), "ledger");
+
+	private static final String MESSAGE_KEY_PREFIX = "command.input.";
 
 	private final Option option;
+	private final String messageKey;
 
 	/**
-	 * Create a user input option
+	 * Create a user input option. The description and argument name are only
+	 * looked up when the help is printed, so that parsing the command line does
+	 * not load the message bundle.
 	 * 
-	 * @param option Apache CLI option for the user input option
+	 * @param option     Builder of the Apache CLI option for the user input option
+	 * @param messageKey Key of the description and argument name messages
 	 */
-	UserInputOption(Option option) {
-		this.option = option;
+	UserInputOption(Option.Builder option, String messageKey) {
+		this.option = option.build();
+		this.messageKey = MESSAGE_KEY_PREFIX + messageKey;
 	}
 
 	/**
@@ -61,4 +109,23 @@ public enum UserInputOption {
 		return options;
 	}
 
+	/**
+	 * Get the Apache CLI options with their localized descriptions and argument
+	 * names
+	 * 
+	 * @return Apache CLI options for printing the help
+	 */
+	public static Options getLocalizedOptions() {
+		Options options = new Options();
+		for (UserInputOption uio : UserInputOption.values()) {
+			Option option = (Option) uio.getOption().clone();
+			option.setDescription(ResourceHandler.getMessage(uio.messageKey + ".description"));
+			if (option.hasArg() || option.hasArgs()) {
+				option.setArgName(ResourceHandler.getMessage(uio.messageKey + ".arguments"));
+			}
+			options.addOption(option);
+		}
+		return options;
+	}
+
 }
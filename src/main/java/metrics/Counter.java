@@ -0,0 +1,45 @@
+/* Licensed under MIT 2024. */
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count. Incrementing does not lock and scales with
+ * the number of threads incrementing concurrently.
+ */
+public final class Counter {
+
+	private final LongAdder value = new LongAdder();
+
+	Counter() {
+	}
+
+	/**
+	 * Increments the count by one.
+	 */
+	public void increment() {
+		value.increment();
+	}
+
+	/**
+	 * Increments the count.
+	 *
+	 * @param amount - the non-negative amount to add.
+	 */
+	public void add(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("Counters can only increase.");
+		}
+		value.add(amount);
+	}
+
+	/**
+	 * Gets the current count.
+	 *
+	 * @return The current count.
+	 */
+	public long get() {
+		return value.sum();
+	}
+
+}
@@ -0,0 +1,133 @@
+/* Licensed under MIT 2024. */
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative values, usually durations in nanoseconds. Like
+ * an HDR histogram, values are counted in buckets whose width grows with the
+ * magnitude of the value: every power of two is split into
+ * {@value #SUB_BUCKETS} buckets, so the bucket a value is counted in differs
+ * from the value by at most 1/{@value #SUB_BUCKETS}, for any value up to
+ * {@link Long#MAX_VALUE}. The buckets are a fixed array of atomic counters, so
+ * recording a value does not lock or allocate.
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+
+	Histogram() {
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as zero.
+	 *
+	 * @param value - the value to record.
+	 */
+	public void record(long value) {
+		long clamped = Math.max(0, value);
+		buckets.incrementAndGet(bucketIndex(clamped));
+		count.increment();
+		sum.add(clamped);
+	}
+
+	/**
+	 * Records the time elapsed since a start time.
+	 *
+	 * @param startNanos - the start time as returned by {@link System#nanoTime()}.
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 *
+	 * @return The number of recorded values.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Gets the sum of the recorded values.
+	 *
+	 * @return The sum of the recorded values.
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * Gets an upper estimate of the value below which a fraction of the recorded
+	 * values lies.
+	 *
+	 * @param quantile - the fraction between 0 and 1.
+	 * @return The upper bound of the bucket containing the quantile, 0 if no
+	 *         values were recorded.
+	 */
+	public long getValueAtQuantile(double quantile) {
+		long[] snapshot = snapshot();
+		long total = 0;
+		for (long bucket : snapshot) {
+			total += bucket;
+		}
+		long rank = (long) Math.ceil(quantile * total);
+		long seen = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			seen += snapshot[i];
+			if (seen >= rank && seen > 0) {
+				return bucketUpperBound(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Counts the recorded values of a bucket snapshot that are at most the bound.
+	 * Values in the bucket containing the bound are not counted, unless the bucket
+	 * ends at the bound.
+	 */
+	static long countAtMost(long[] snapshot, long bound) {
+		long counted = 0;
+		for (int i = 0; i < snapshot.length && bucketUpperBound(i) <= bound; i++) {
+			counted += snapshot[i];
+		}
+		return counted;
+	}
+
+	long[] snapshot() {
+		long[] snapshot = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = buckets.get(i);
+		}
+		return snapshot;
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lower + ((1L << shift) - 1);
+	}
+
+}
@@ -0,0 +1,210 @@
+/* Licensed under MIT 2024. */
+package metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the counters and histograms of the application. Metrics are
+ * registered by name and optional label pairs on first use and kept for the
+ * lifetime of the registry. Classes should look up their metrics once and keep
+ * them, recording values then neither locks nor allocates. Looking up an
+ * already registered metric does not lock either. <br/>
+ * The registry is exported in the Prometheus text format. Histograms record
+ * durations in nanoseconds and are exported in seconds with fixed bucket
+ * bounds.
+ */
+public final class MetricsRegistry {
+
+	/**
+	 * Content type of the Prometheus text format.
+	 */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000d;
+	private static final double[] EXPORTED_BOUNDS_SECONDS = { 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5,
+			5, 10 };
+
+	private final ConcurrentMap<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Gets the registry shared by the application.
+	 *
+	 * @return The shared registry.
+	 */
+	public static MetricsRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Gets or registers a counter.
+	 *
+	 * @param name   - the name of the counter, ending in <code>_total</code>.
+	 * @param help   - the description of the counter.
+	 * @param labels - pairs of label names and values.
+	 * @return The counter.
+	 */
+	public Counter counter(String name, String help, String... labels) {
+		return this.<Counter>family(name, help, Type.COUNTER).get(labels, Counter::new);
+	}
+
+	/**
+	 * Gets or registers a histogram of durations in nanoseconds.
+	 *
+	 * @param name   - the name of the histogram, ending in <code>_seconds</code>.
+	 * @param help   - the description of the histogram.
+	 * @param labels - pairs of label names and values.
+	 * @return The histogram.
+	 */
+	public Histogram histogram(String name, String help, String... labels) {
+		return this.<Histogram>family(name, help, Type.HISTOGRAM).get(labels, Histogram::new);
+	}
+
+	/**
+	 * Writes all metrics in the Prometheus text format.
+	 *
+	 * @param writer - to write the metrics to.
+	 * @throws IOException if the metrics could not be written.
+	 */
+	public void writePrometheus(Writer writer) throws IOException {
+		for (Family<?> family : families.values()) {
+			family.write(writer);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Gets all metrics in the Prometheus text format.
+	 *
+	 * @return The metrics in the Prometheus text format.
+	 */
+	public String toPrometheus() {
+		StringWriter writer = new StringWriter();
+		try {
+			writePrometheus(writer);
+		} catch (IOException e) { // not thrown by a string writer
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <M> Family<M> family(String name, String help, Type type) {
+		Family<?> family = families.computeIfAbsent(name, key -> new Family<>(name, help, type));
+		if (family.type != type) {
+			throw new IllegalArgumentException("Metric %s is already registered as %s.".formatted(name, family.type));
+		}
+		return (Family<M>) family;
+	}
+
+	private enum Type {
+		COUNTER("counter"), HISTOGRAM("histogram");
+
+		private final String exposition;
+
+		Type(String exposition) {
+			this.exposition = exposition;
+		}
+	}
+
+	/**
+	 * All metrics of the same name, which only differ in their labels.
+	 */
+	private static final class Family<M> {
+
+		private final String name;
+		private final String help;
+		private final Type type;
+		private final ConcurrentMap<List<String>, M> metrics = new ConcurrentHashMap<>();
+
+		Family(String name, String help, Type type) {
+			this.name = name;
+			this.help = help;
+			this.type = type;
+		}
+
+		M get(String[] labels, Supplier<M> factory) {
+			if (labels.length % 2 != 0) {
+				throw new IllegalArgumentException("Labels must be given as pairs of names and values.");
+			}
+			List<String> key = List.of(labels);
+			M metric = metrics.get(key); // Does not lock if the metric exists
+			return metric != null ? metric : metrics.computeIfAbsent(key, ignored -> factory.get());
+		}
+
+		void write(Writer writer) throws IOException {
+			writer.write("# HELP %s %s\n".formatted(name, escapeHelp(help)));
+			writer.write("# TYPE %s %s\n".formatted(name, type.exposition));
+			List<Map.Entry<List<String>, M>> sorted = metrics.entrySet().stream().sorted(Map.Entry.comparingByKey(Family::compareLabels)).toList();
+			for (Map.Entry<List<String>, M> entry : sorted) {
+				if (entry.getValue() instanceof Counter counter) {
+					writer.write("%s%s %d\n".formatted(name, formatLabels(entry.getKey(), null), counter.get()));
+				} else if (entry.getValue() instanceof Histogram histogram) {
+					writeHistogram(writer, entry.getKey(), histogram);
+				}
+			}
+		}
+
+		private void writeHistogram(Writer writer, List<String> labels, Histogram histogram) throws IOException {
+			long[] snapshot = histogram.snapshot();
+			long count = 0;
+			for (long bucket : snapshot) {
+				count += bucket;
+			}
+			for (double bound : EXPORTED_BOUNDS_SECONDS) {
+				long cumulative = Histogram.countAtMost(snapshot, (long) (bound * NANOS_PER_SECOND));
+				writer.write("%s_bucket%s %d\n".formatted(name, formatLabels(labels, formatDouble(bound)), cumulative));
+			}
+			writer.write("%s_bucket%s %d\n".formatted(name, formatLabels(labels, "+Inf"), count));
+			writer.write("%s_sum%s %s\n".formatted(name, formatLabels(labels, null), formatDouble(histogram.getSum() / NANOS_PER_SECOND)));
+			writer.write("%s_count%s %d\n".formatted(name, formatLabels(labels, null), count));
+		}
+
+		private static int compareLabels(List<String> first, List<String> second) {
+			return String.join("\0", first).compareTo(String.join("\0", second));
+		}
+
+		private static String formatLabels(List<String> labels, String le) {
+			if (labels.isEmpty() && le == null) {
+				return "";
+			}
+			StringBuilder builder = new StringBuilder("{");
+			for (int i = 0; i < labels.size(); i += 2) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append(labels.get(i)).append("=\"").append(escapeLabelValue(labels.get(i + 1))).append('"');
+			}
+			if (le != null) {
+				if (!labels.isEmpty()) {
+					builder.append(',');
+				}
+				builder.append("le=\"").append(le).append('"');
+			}
+			return builder.append('}').toString();
+		}
+
+		private static String formatDouble(double value) {
+			return value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf((long) value) : String.valueOf(value);
+		}
+
+		private static String escapeHelp(String help) {
+			return help.replace("\\", "\\\\").replace("\n", "\\n");
+		}
+
+		private static String escapeLabelValue(String value) {
+			return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+		}
+	}
+
+}
@@ -4,8 +4,11 @@ package parser;
 import data.*;
 import parser.json.JsonGlobalParser;
 import parser.json.JsonMonthParser;
+import profiling.ParseEvent;
 
+import java.nio.charset.StandardCharsets;
 import java.time.YearMonth;
+import java.util.function.LongSupplier;
 
 /**
  * A Parser provides the functionality to construct a {@link TimeSheet} with the
@@ -27,13 +30,58 @@ public class Parser {
 	 * @throws ParseException if an error occurs while parsing the json strings.
 	 */
 	public static TimeSheet parseTimeSheetJson(String globalJson, String monthJson) throws ParseException {
-		IGlobalParser globalParser = new JsonGlobalParser(globalJson);
+		return parseTimeSheetJson(new JsonGlobalParser(globalJson), new JsonMonthParser(monthJson), () -> globalJson.getBytes(StandardCharsets.UTF_8).length,
+				() -> monthJson.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	/**
+	 * Returns a new {@link TimeSheet} constructed out of data coming from two UTF-8
+	 * encoded json documents, e.g. read from files.
+	 * 
+	 * @param globalJson - json to get global data from.
+	 * @param monthJson  - json to get month data from.
+	 * @return A new {@link TimeSheet} instances.
+	 * @throws ParseException if an error occurs while parsing the json documents.
+	 */
+	public static TimeSheet parseTimeSheetJson(byte[] globalJson, byte[] monthJson) throws ParseException {
+		return parseTimeSheetJson(new JsonGlobalParser(globalJson), new JsonMonthParser(monthJson), () -> globalJson.length, () -> monthJson.length);
+	}
+
+	private static TimeSheet parseTimeSheetJson(JsonGlobalParser globalParser, JsonMonthParser monthParser, LongSupplier globalBytes,
+			LongSupplier monthBytes) throws ParseException {
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		TimeSheet timeSheet = null;
+		try {
+			timeSheet = parseTimeSheet(globalParser, monthParser);
+			return timeSheet;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				if (timeSheet != null) {
+					event.sheetId = timeSheet.getSheetId();
+					event.entryCount = timeSheet.getEntries().size();
+				}
+				event.globalBytes = globalBytes.getAsLong();
+				event.monthBytes = monthBytes.getAsLong();
+				event.commit();
+			}
+		}
+	}
 
+	/**
+	 * Returns a new {@link TimeSheet} constructed out of the data provided by a
+	 * global and a month parser.
+	 * 
+	 * @param globalParser - parser to get global data from.
+	 * @param monthParser  - parser to get month data from.
+	 * @return A new {@link TimeSheet} instances.
+	 * @throws ParseException if an error occurs while parsing the data.
+	 */
+	public static TimeSheet parseTimeSheet(IGlobalParser globalParser, IMonthParser monthParser) throws ParseException {
 		Employee employee = globalParser.getEmployee();
 		Profession profession = globalParser.getProfession();
 
-		IMonthParser monthParser = new JsonMonthParser(monthJson);
-
 		YearMonth yearMonth = monthParser.getYearMonth();
 		Entry[] entries = monthParser.getEntries();
 		TimeSpan succTransfer = monthParser.getSuccTransfer();
@@ -19,12 +19,12 @@ class GlobalJson {
 
 	@JsonCreator
 	GlobalJson(@JsonProperty(value = "name", required = true) String name, @JsonProperty(value = "staffId", required = true) int staffId,
-			@JsonProperty(value = "department", required = true) String department, @JsonProperty(value = "workingTime", required = true) String workingTime,
+			@JsonProperty(value = "department", required = true) String department, @JsonProperty(value = "workingTime", required = true) TimeSpan workingTime,
 			@JsonProperty(value = "wage", required = true) double wage, @JsonProperty(value = "workingArea", required = true) String workingArea) {
 		this.name = name;
 		this.staffId = staffId;
 		this.department = department;
-		this.workingTime = TimeSpan.parse(workingTime);
+		this.workingTime = workingTime;
 		this.wage = wage;
 		this.workingArea = WorkingArea.parse(workingArea);
 	}
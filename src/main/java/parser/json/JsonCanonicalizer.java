@@ -0,0 +1,41 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import parser.ParseException;
+
+import java.io.IOException;
+
+/**
+ * Brings json strings into a canonical form, so that json strings describing
+ * the same data are equal regardless of their formatting and the order of their
+ * fields. The canonical form is compact and has the fields of all objects
+ * sorted by name.
+ */
+public final class JsonCanonicalizer {
+
+	private static final ObjectWriter CANONICAL_WRITER = JsonMappers.MAPPER.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.without(SerializationFeature.INDENT_OUTPUT);
+
+	private JsonCanonicalizer() {
+	}
+
+	/**
+	 * Brings a json string into its canonical form.
+	 *
+	 * @param json - the json string.
+	 * @return The canonical form of the json string encoded in UTF-8.
+	 * @throws ParseException if the string is not valid json.
+	 */
+	public static byte[] canonicalize(String json) throws ParseException {
+		try {
+			// Objects are read as maps, which are written sorted by their keys
+			Object value = JsonMappers.MAPPER.readValue(json, Object.class);
+			return CANONICAL_WRITER.writeValueAsBytes(value);
+		} catch (IOException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+}
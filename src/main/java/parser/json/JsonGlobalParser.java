@@ -1,18 +1,13 @@
 /* Licensed under MIT 2023-2024. */
 package parser.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import data.Employee;
 import data.Profession;
 import parser.IGlobalParser;
 import parser.ParseException;
 
+import java.io.IOException;
+
 /**
  * A JsonGlobalParser provides the functionality to parse the elements specified
  * by {@link IGlobalParser} from a json string.
@@ -20,6 +15,7 @@ import parser.ParseException;
 public class JsonGlobalParser implements IGlobalParser {
 
 	private final String json;
+	private final byte[] jsonBytes;
 
 	private GlobalJson globalJson; // caching
 
@@ -30,14 +26,23 @@ public class JsonGlobalParser implements IGlobalParser {
 	 */
 	public JsonGlobalParser(String json) {
 		this.json = json;
+		this.jsonBytes = null;
+	}
+
+	/**
+	 * Constructs a new {@link JsonGlobalParser} instance parsing UTF-8 encoded json, e.g.
+	 * read from a file, without decoding it to a string first.
+	 * 
+	 * @param json - to parse the data from.
+	 */
+	public JsonGlobalParser(byte[] json) {
+		this.json = null;
+		this.jsonBytes = json;
 	}
 
-	private GlobalJson parseJson() throws JsonProcessingException {
+	private GlobalJson parseJson() throws IOException {
 		if (globalJson == null) {
-			ObjectMapper mapper = JsonMapper.builder().addModule(new ParameterNamesModule()).addModule(new Jdk8Module()).addModule(new JavaTimeModule())
-					.build();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-			globalJson = mapper.readValue(json, GlobalJson.class);
+			globalJson = json != null ? JsonMappers.MAPPER.readValue(json, GlobalJson.class) : JsonMappers.MAPPER.readValue(jsonBytes, GlobalJson.class);
 		}
 
 		return globalJson;
@@ -50,7 +55,7 @@ public class JsonGlobalParser implements IGlobalParser {
 			GlobalJson global = parseJson();
 
 			employee = new Employee(global.getName(), global.getStaffId());
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 
@@ -64,7 +69,7 @@ public class JsonGlobalParser implements IGlobalParser {
 			GlobalJson global = parseJson();
 
 			profession = new Profession(global.getDepartment(), global.getWorkingArea(), global.getWorkingTime(), global.getWage());
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 
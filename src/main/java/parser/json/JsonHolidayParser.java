@@ -3,11 +3,6 @@ package parser.json;
 
 import checker.holiday.Holiday;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import parser.IHolidayParser;
 import parser.ParseException;
 
@@ -36,9 +31,7 @@ public class JsonHolidayParser implements IHolidayParser {
 
 	private HolidayMapJson parseJson() throws JsonProcessingException {
 		if (holidayMap == null) {
-			ObjectMapper mapper = JsonMapper.builder().addModule(new ParameterNamesModule()).addModule(new Jdk8Module()).addModule(new JavaTimeModule())
-					.build();
-			holidayMap = mapper.readValue(json, HolidayMapJson.class);
+			holidayMap = JsonMappers.MAPPER.readValue(json, HolidayMapJson.class);
 		}
 
 		return holidayMap;
@@ -47,14 +40,23 @@ public class JsonHolidayParser implements IHolidayParser {
 	@Override
 	public Collection<Holiday> getHolidays() throws ParseException {
 		try {
-			HolidayMapJson holidayMap = parseJson();
-
-			return holidayMap.getHolidays().entrySet().stream()
-					.filter(e -> e.getValue().getNote() == null || !e.getValue().getNote().contains(SCHOOL_HOLIDAY_NOTE))
-					.map(e -> new Holiday(e.getValue().getDate(), e.getKey())).collect(Collectors.toList());
+			return toHolidays(parseJson());
 		} catch (JsonProcessingException e) {
 			throw new ParseException(e.getMessage());
 		}
 	}
 
+	/**
+	 * Converts the parsed holidays of a state to {@link Holiday holidays}. School
+	 * holidays are left out, as they are no legal holidays.
+	 * 
+	 * @param holidayMap - the parsed holidays.
+	 * @return The legal holidays.
+	 */
+	static Collection<Holiday> toHolidays(HolidayMapJson holidayMap) {
+		return holidayMap.getHolidays().entrySet().stream()
+				.filter(e -> e.getValue().getNote() == null || !e.getValue().getNote().contains(SCHOOL_HOLIDAY_NOTE))
+				.map(e -> new Holiday(e.getValue().getDate(), e.getKey())).collect(Collectors.toList());
+	}
+
 }
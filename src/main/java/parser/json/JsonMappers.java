@@ -0,0 +1,36 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import data.TimeSpan;
+
+/**
+ * Holds the {@link ObjectMapper} shared by all json parsers. Building a mapper
+ * and registering its modules is expensive, while a configured mapper is thread
+ * safe, so it is only built once.
+ */
+final class JsonMappers {
+
+	/**
+	 * Module reading and writing {@link TimeSpan} values directly, without going
+	 * through intermediate strings in the json classes.
+	 */
+	static final SimpleModule TIME_SPAN_MODULE = new SimpleModule("TimeSpan").addDeserializer(TimeSpan.class, new TimeSpanDeserializer())
+			.addSerializer(TimeSpan.class, new TimeSpanSerializer());
+
+	/**
+	 * Mapper used to read global, month and holiday json strings.
+	 */
+	static final ObjectMapper MAPPER = JsonMapper.builder().addModule(new ParameterNamesModule()).addModule(new Jdk8Module())
+			.addModule(new JavaTimeModule()).addModule(TIME_SPAN_MODULE).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true).build();
+
+	private JsonMappers() {
+	}
+
+}
@@ -1,18 +1,12 @@
 /* Licensed under MIT 2023-2024. */
 package parser.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import data.Entry;
 import data.TimeSpan;
 import parser.IMonthParser;
 import parser.ParseException;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
@@ -24,6 +18,7 @@ import java.util.List;
 public class JsonMonthParser implements IMonthParser {
 
 	private final String json;
+	private final byte[] jsonBytes;
 
 	private MonthJson monthJson; // caching
 
@@ -34,14 +29,23 @@ public class JsonMonthParser implements IMonthParser {
 	 */
 	public JsonMonthParser(String json) {
 		this.json = json;
+		this.jsonBytes = null;
 	}
 
-	private MonthJson parse() throws JsonProcessingException {
+	/**
+	 * Constructs a new {@link JsonMonthParser} instance parsing UTF-8 encoded json, e.g.
+	 * read from a file, without decoding it to a string first.
+	 * 
+	 * @param json - to parse the data from.
+	 */
+	public JsonMonthParser(byte[] json) {
+		this.json = null;
+		this.jsonBytes = json;
+	}
+
+	private MonthJson parse() throws IOException {
 		if (monthJson == null) {
-			ObjectMapper mapper = JsonMapper.builder().addModule(new ParameterNamesModule()).addModule(new Jdk8Module()).addModule(new JavaTimeModule())
-					.build();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-			monthJson = mapper.readValue(json, MonthJson.class);
+			monthJson = json != null ? JsonMappers.MAPPER.readValue(json, MonthJson.class) : JsonMappers.MAPPER.readValue(jsonBytes, MonthJson.class);
 		}
 
 		return monthJson;
@@ -51,7 +55,7 @@ public class JsonMonthParser implements IMonthParser {
 	public YearMonth getYearMonth() throws ParseException {
 		try {
 			return parse().getYearMonth();
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 	}
@@ -80,7 +84,7 @@ public class JsonMonthParser implements IMonthParser {
 			}).toList();
 		} catch (RuntimeException e) {
 			throw new ParseException(e.getCause().getMessage());
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 
@@ -91,7 +95,7 @@ public class JsonMonthParser implements IMonthParser {
 	public TimeSpan getSuccTransfer() throws ParseException {
 		try {
 			return parse().getSuccTransfer();
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 	}
@@ -100,7 +104,7 @@ public class JsonMonthParser implements IMonthParser {
 	public TimeSpan getPredTransfer() throws ParseException {
 		try {
 			return parse().getPredTransfer();
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			throw new ParseException(e.getMessage());
 		}
 	}
@@ -0,0 +1,51 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import checker.holiday.Holiday;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import parser.ParseException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A JsonStateHolidaysParser parses the {@link Holiday holidays} of all states
+ * from a json string, as it is returned by the holiday api if no state is
+ * requested: <code>{"BW": {"Neujahrstag": {...}, ...}, "BY": {...}, ...}</code>.
+ */
+public class JsonStateHolidaysParser {
+
+	private static final TypeReference<LinkedHashMap<String, HolidayMapJson>> STATE_MAP_TYPE = new TypeReference<>() {
+	};
+
+	private final String json;
+
+	/**
+	 * Constructs a new {@link JsonStateHolidaysParser} instance.
+	 * 
+	 * @param json - to parse the data from.
+	 */
+	public JsonStateHolidaysParser(String json) {
+		this.json = json;
+	}
+
+	/**
+	 * Returns the {@link Holiday holidays} of every state in the data.
+	 * 
+	 * @return The holidays by the abbreviation of their state.
+	 * @throws ParseException if an error occurs while parsing.
+	 */
+	public Map<String, Collection<Holiday>> getHolidaysByState() throws ParseException {
+		try {
+			Map<String, HolidayMapJson> stateMap = JsonMappers.MAPPER.readValue(json, STATE_MAP_TYPE);
+			Map<String, Collection<Holiday>> holidaysByState = new LinkedHashMap<>();
+			stateMap.forEach((state, holidayMap) -> holidaysByState.put(state, JsonHolidayParser.toHolidays(holidayMap)));
+			return holidaysByState;
+		} catch (JsonProcessingException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+}
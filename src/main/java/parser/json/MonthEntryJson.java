@@ -16,11 +16,11 @@ class MonthEntryJson {
 
 	@JsonCreator
 	MonthEntryJson(@JsonProperty(value = "action", required = true) String action, @JsonProperty(value = "day", required = true) int day,
-			@JsonProperty(value = "start", required = true) String start, @JsonProperty(value = "end", required = true) String end) {
+			@JsonProperty(value = "start", required = true) TimeSpan start, @JsonProperty(value = "end", required = true) TimeSpan end) {
 		this.action = action;
 		this.day = day;
-		this.start = TimeSpan.parse(start);
-		this.end = TimeSpan.parse(end);
+		this.start = start;
+		this.end = end;
 		this.pause = new TimeSpan(0, 0); // default
 		this.vacation = false; // default
 	}
@@ -46,8 +46,8 @@ class MonthEntryJson {
 	}
 
 	@JsonProperty("pause")
-	public void setPause(String pause) {
-		this.pause = TimeSpan.parse(pause);
+	public void setPause(TimeSpan pause) {
+		this.pause = pause;
 	}
 
 	public boolean getVacation() {
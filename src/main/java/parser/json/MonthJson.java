@@ -36,8 +36,8 @@ class MonthJson {
 	}
 
 	@JsonProperty("pred_transfer")
-	public void setPredTransfer(String predTransfer) {
-		this.predTransfer = TimeSpan.parse(predTransfer);
+	public void setPredTransfer(TimeSpan predTransfer) {
+		this.predTransfer = predTransfer;
 	}
 
 	public TimeSpan getSuccTransfer() {
@@ -45,8 +45,8 @@ class MonthJson {
 	}
 
 	@JsonProperty("succ_transfer")
-	public void setSuccTransfer(String succTransfer) {
-		this.succTransfer = TimeSpan.parse(succTransfer);
+	public void setSuccTransfer(TimeSpan succTransfer) {
+		this.succTransfer = succTransfer;
 	}
 
 	public List<MonthEntryJson> getEntries() {
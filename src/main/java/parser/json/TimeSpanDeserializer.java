@@ -0,0 +1,48 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import data.TimeSpan;
+import data.TimeSpanFormat;
+import i18n.ResourceHandler;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Reads a {@link TimeSpan} from a json string with the {@link TimeSpanFormat}
+ * of the currently used locale.
+ */
+class TimeSpanDeserializer extends StdScalarDeserializer<TimeSpan> {
+
+	@Serial
+	private static final long serialVersionUID = 4650542861403584117L;
+
+	TimeSpanDeserializer() {
+		super(TimeSpan.class);
+	}
+
+	@Override
+	public TimeSpan deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+			return (TimeSpan) context.handleUnexpectedToken(TimeSpan.class, parser);
+		}
+		String text = parser.getText();
+		try {
+			return TimeSpanFormat.getInstance().parse(text);
+		} catch (IllegalArgumentException e) {
+			return (TimeSpan) context.handleWeirdStringValue(TimeSpan.class, text, e.getMessage());
+		}
+	}
+
+	@Override
+	public TimeSpan getNullValue(DeserializationContext context) throws JsonMappingException {
+		// A time span may be omitted, but not be null
+		return context.reportInputMismatch(this, ResourceHandler.getMessage("error.timespan.invalidParseInput"));
+	}
+
+}
@@ -0,0 +1,31 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import data.TimeSpan;
+import data.TimeSpanFormat;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Writes a {@link TimeSpan} as a json string with the {@link TimeSpanFormat} of
+ * the currently used locale.
+ */
+class TimeSpanSerializer extends StdSerializer<TimeSpan> {
+
+	@Serial
+	private static final long serialVersionUID = -2187018164503367740L;
+
+	TimeSpanSerializer() {
+		super(TimeSpan.class);
+	}
+
+	@Override
+	public void serialize(TimeSpan value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		generator.writeString(TimeSpanFormat.getInstance().format(value));
+	}
+
+}
@@ -0,0 +1,34 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Recorded for every rule a checker applies to a time sheet.
+ */
+@Registered(false)
+@Name("timesheetgenerator.CheckRule")
+@Label("Check Rule")
+@Category({ "Time Sheet Generator", "Pipeline" })
+@Description("Applying a single rule of a checker to a time sheet")
+public final class CheckRuleEvent extends Event {
+
+	@Label("Sheet Id")
+	public String sheetId;
+
+	@Label("Rule")
+	public String rule;
+
+	@Label("Entry Count")
+	public int entryCount;
+
+	@Label("Error Count")
+	@Description("Number of errors the rule found")
+	public int errorCount;
+
+}
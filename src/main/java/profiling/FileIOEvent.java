@@ -0,0 +1,42 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Recorded when the file controller reads or writes a file or url.
+ */
+@Registered(false)
+@Name("timesheetgenerator.FileIO")
+@Label("File I/O")
+@Category({ "Time Sheet Generator", "I/O" })
+@Description("Reading or writing a whole file or url")
+public final class FileIOEvent extends Event {
+
+	/**
+	 * Operation of reading a file or url.
+	 */
+	public static final String READ = "read";
+	/**
+	 * Operation of writing a file.
+	 */
+	public static final String WRITE = "write";
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Location")
+	@Description("Path of the file or the url")
+	public String location;
+
+	@Label("Size")
+	@DataAmount
+	public long bytes;
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Recorded when a document is generated for a time sheet.
+ */
+@Registered(false)
+@Name("timesheetgenerator.Generate")
+@Label("Generate Document")
+@Category({ "Time Sheet Generator", "Pipeline" })
+@Description("Generating the LaTeX or PDF document of a time sheet")
+public final class GenerateEvent extends Event {
+
+	@Label("Sheet Id")
+	public String sheetId;
+
+	@Label("Format")
+	public String format;
+
+	@Label("Entry Count")
+	public int entryCount;
+
+	@Label("Template Size")
+	@DataAmount
+	public long templateBytes;
+
+	@Label("Document Size")
+	@DataAmount
+	public long bytes;
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Recorded when the holidays of a year and state are fetched.
+ */
+@Registered(false)
+@Name("timesheetgenerator.HolidayFetch")
+@Label("Fetch Holidays")
+@Category({ "Time Sheet Generator", "Pipeline" })
+@Description("Fetching the holidays of a year and state, from the cache or the holiday service")
+public final class HolidayFetchEvent extends Event {
+
+	@Label("Year")
+	public int year;
+
+	@Label("State")
+	public String state;
+
+	@Label("Cached")
+	@Description("Whether the holidays were taken from the cache")
+	public boolean cached;
+
+	@Label("Holiday Count")
+	public int holidayCount;
+
+	@Label("Response Size")
+	@DataAmount
+	public long bytes;
+
+}
@@ -0,0 +1,37 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+
+/**
+ * Recorded when a time sheet is parsed from its global and month json.
+ */
+@Registered(false)
+@Name("timesheetgenerator.Parse")
+@Label("Parse Time Sheet")
+@Category({ "Time Sheet Generator", "Pipeline" })
+@Description("Parsing a time sheet from its global and month json")
+public final class ParseEvent extends Event {
+
+	@Label("Sheet Id")
+	@Description("Staff id and month of the time sheet, empty if parsing failed")
+	public String sheetId;
+
+	@Label("Entry Count")
+	public int entryCount;
+
+	@Label("Global Size")
+	@DataAmount
+	public long globalBytes;
+
+	@Label("Month Size")
+	@DataAmount
+	public long monthBytes;
+
+}
@@ -0,0 +1,62 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Starts flight recordings containing the events of the time sheet pipeline
+ * together with the JDK events of the <code>profile</code> configuration. The
+ * recordings can be opened with JDK Mission Control or the <code>jfr</code>
+ * tool. <br/>
+ * The events are only registered when a recording is started, so runs without
+ * a recording do not initialize the flight recorder.
+ */
+public final class Profiler {
+
+	private static final String CONFIGURATION_NAME = "profile";
+	private static final List<Class<? extends Event>> EVENTS = List.of(ParseEvent.class, CheckRuleEvent.class, HolidayFetchEvent.class,
+			GenerateEvent.class, FileIOEvent.class);
+
+	private Profiler() {
+	}
+
+	/**
+	 * Starts a recording, which is written to the destination when it is stopped
+	 * or the JVM exits.
+	 *
+	 * @param destination - the file to write the recording to.
+	 * @return The started recording.
+	 * @throws IOException if the destination can not be written or the
+	 *                     configuration could not be read.
+	 */
+	public static Recording start(Path destination) throws IOException {
+		Configuration configuration;
+		try {
+			configuration = Configuration.getConfiguration(CONFIGURATION_NAME);
+		} catch (ParseException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+
+		for (Class<? extends Event> event : EVENTS) { // Not registered on load, which would start up the flight recorder on every run
+			FlightRecorder.register(event);
+		}
+		Recording recording = new Recording(configuration);
+		recording.setName("TimeSheetGenerator");
+		for (Class<? extends Event> event : EVENTS) {
+			recording.enable(event).withoutThreshold();
+		}
+		recording.setDestination(destination);
+		recording.setDumpOnExit(true);
+		recording.start();
+		return recording;
+	}
+
+}
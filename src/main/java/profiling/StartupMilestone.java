@@ -0,0 +1,56 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+/**
+ * Milestones of the application startup. If the system property
+ * {@value #PROPERTY} is set to <code>true</code>, reaching a milestone is
+ * reported on stderr, so that a benchmark running the application can measure
+ * the time until the milestone from the outside, including the startup of the
+ * JVM.
+ */
+public enum StartupMilestone {
+
+	/**
+	 * The output file of a command line generation was written.
+	 */
+	OUTPUT("output"),
+	/**
+	 * The frame of the user interface was shown for the first time.
+	 */
+	FIRST_FRAME("first-frame");
+
+	/**
+	 * System property enabling the reports.
+	 */
+	public static final String PROPERTY = "timesheetgenerator.startupMilestones";
+	/**
+	 * Prefix of the line reporting a milestone.
+	 */
+	public static final String REPORT_PREFIX = "startup-milestone ";
+
+	private final String name;
+
+	StartupMilestone(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the name the milestone is reported with.
+	 *
+	 * @return The name of the milestone.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Reports that the milestone was reached, if reports are enabled.
+	 */
+	public void reached() {
+		if (Boolean.getBoolean(PROPERTY)) {
+			System.err.println(REPORT_PREFIX + name);
+			System.err.flush();
+		}
+	}
+
+}
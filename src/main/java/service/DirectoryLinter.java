@@ -0,0 +1,234 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import checker.MiLoGChecker;
+import data.TimeSheet;
+import i18n.ResourceHandler;
+import io.FileController;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Checks all time sheets in a directory tree at once, e.g. in continuous
+ * integration. Every month file is paired with the <code>global.json</code> in
+ * its directory, laid out like the directories of the {@link WatchDaemon}. <br/>
+ * The month files are parsed and checked in parallel on a work-stealing pool,
+ * while the tree is still being walked. The holidays of a year are loaded once,
+ * by the first check that needs them, while the other checks of the year wait
+ * for them, so they do not fetch the same holidays concurrently. The results
+ * are handed to the caller in the order they complete, on the thread that
+ * called {@link #lint(Path, Consumer)}, so they can be written without further
+ * synchronization as soon as they are available. This class is thread safe.
+ */
+public class DirectoryLinter {
+
+	private static final String GLOBAL_FILE_NAME = "global.json";
+	private static final String INPUT_EXTENSION = ".json";
+
+	private final TimeSheetService service;
+	private final int parallelism;
+
+	/**
+	 * The result of checking a month file.
+	 *
+	 * @param file    - The month file.
+	 * @param sheetId - The id of the time sheet, null if it could not be parsed.
+	 * @param errors  - The errors found in the time sheet.
+	 * @param failure - The reason the month file could not be checked, null if it
+	 *                was checked.
+	 */
+	public record Result(Path file, String sheetId, List<CheckerError> errors, String failure) {
+
+		/**
+		 * Checks whether the month file was checked and is valid.
+		 *
+		 * @return {@code True} if the time sheet is valid, {@code False} otherwise.
+		 */
+		public boolean isValid() {
+			return failure == null && errors.isEmpty();
+		}
+	}
+
+	/**
+	 * The summary of a run.
+	 *
+	 * @param sheets              - The number of month files.
+	 * @param invalidSheets       - The number of invalid time sheets.
+	 * @param failedSheets        - The number of month files that could not be
+	 *                            checked.
+	 * @param invalidSheetsByCode - The number of invalid time sheets by the code of
+	 *                            the rule they violate.
+	 */
+	public record Summary(int sheets, int invalidSheets, int failedSheets, Map<String, Integer> invalidSheetsByCode) {
+
+		/**
+		 * Checks whether all month files were checked and are valid.
+		 *
+		 * @return {@code True} if all time sheets are valid, {@code False} otherwise.
+		 */
+		public boolean isValid() {
+			return invalidSheets == 0 && failedSheets == 0;
+		}
+	}
+
+	/**
+	 * Creates a new linter using all available processors.
+	 *
+	 * @param service - the service checking the time sheets.
+	 */
+	public DirectoryLinter(TimeSheetService service) {
+		this(service, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new linter.
+	 *
+	 * @param service     - the service checking the time sheets.
+	 * @param parallelism - the number of time sheets checked at the same time.
+	 */
+	public DirectoryLinter(TimeSheetService service, int parallelism) {
+		this.service = service;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Checks all month files below a directory.
+	 *
+	 * @param root    - the root of the directory tree.
+	 * @param results - receives the result of every month file as soon as it is
+	 *                available, on the calling thread.
+	 * @return The summary of all results.
+	 * @throws IOException if the tree could not be walked.
+	 */
+	public Summary lint(Path root, Consumer<Result> results) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			CompletionService<Result> checking = new ExecutorCompletionService<>(pool);
+			ConcurrentMap<Integer, CompletableFuture<Void>> holidays = new ConcurrentHashMap<>();
+			SummaryBuilder summary = new SummaryBuilder();
+			int pending = 0;
+			try (Stream<Path> files = Files.walk(root)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					if (isMonthFile(file)) {
+						checking.submit(() -> check(file, holidays));
+						pending++;
+					}
+					for (Future<Result> done = checking.poll(); done != null; done = checking.poll()) {
+						summary.add(get(done), results);
+						pending--;
+					}
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			for (; pending > 0; pending--) {
+				summary.add(get(checking.take()), results);
+			}
+			return summary.build();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private Result check(Path month, ConcurrentMap<Integer, CompletableFuture<Void>> holidays) {
+		Path global = month.resolveSibling(GLOBAL_FILE_NAME);
+		if (!Files.isRegularFile(global)) {
+			return new Result(month, null, List.of(), ResourceHandler.getMessage("command.output.lint.missingGlobal"));
+		}
+		TimeSheet timeSheet;
+		try {
+			timeSheet = service.parse(FileController.readFileToBytes(global.toFile()), FileController.readFileToBytes(month.toFile()));
+		} catch (IOException | ParseException e) {
+			return new Result(month, null, List.of(), e.getMessage());
+		}
+		if (MiLoGChecker.dependsOnHolidays(timeSheet)) {
+			awaitHolidays(timeSheet, holidays);
+		}
+		try {
+			return new Result(month, timeSheet.getSheetId(), List.copyOf(service.check(timeSheet)), null);
+		} catch (CheckerException e) {
+			return new Result(month, timeSheet.getSheetId(), List.of(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Loads the holidays of the year of a time sheet, if no other check of the run
+	 * did, and waits for them otherwise.
+	 */
+	private void awaitHolidays(TimeSheet timeSheet, ConcurrentMap<Integer, CompletableFuture<Void>> holidays) {
+		CompletableFuture<Void> loaded = new CompletableFuture<>();
+		CompletableFuture<Void> loading = holidays.putIfAbsent(timeSheet.getYear(), loaded);
+		if (loading != null) {
+			loading.join();
+			return;
+		}
+		try {
+			service.loadHolidays(List.of(timeSheet));
+		} finally {
+			loaded.complete(null); // If loading failed, the checks report it
+		}
+	}
+
+	private static Result get(Future<Result> done) throws InterruptedException {
+		try {
+			return done.get();
+		} catch (ExecutionException e) { // parse and check only fail on bugs
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static boolean isMonthFile(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(INPUT_EXTENSION) && !name.equals(GLOBAL_FILE_NAME) && !name.startsWith(".") && Files.isRegularFile(file);
+	}
+
+	private static final class SummaryBuilder {
+		private int sheets;
+		private int invalidSheets;
+		private int failedSheets;
+		private final Map<String, Integer> invalidSheetsByCode = new TreeMap<>();
+
+		void add(Result result, Consumer<Result> results) {
+			sheets++;
+			if (result.failure() != null) {
+				failedSheets++;
+			} else if (!result.errors().isEmpty()) {
+				invalidSheets++;
+				Set<String> codes = new HashSet<>();
+				result.errors().forEach(error -> codes.add(error.getCode()));
+				codes.forEach(code -> invalidSheetsByCode.merge(code, 1, Integer::sum));
+			}
+			results.accept(result);
+		}
+
+		Summary build() {
+			return new Summary(sheets, invalidSheets, failedSheets, Collections.unmodifiableMap(invalidSheetsByCode));
+		}
+	}
+
+}
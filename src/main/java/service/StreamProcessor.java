@@ -0,0 +1,210 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import data.TimeSheet;
+import i18n.MessageSource;
+import parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Processes a stream of newline delimited json records, so the application can
+ * be used as a filter in pipelines without a display and without files. Every
+ * input line is a record of the form
+ * <code>{"id": ..., "global": {...}, "month": {...}}</code>, the id is
+ * optional. For every record one result line is written:
+ * <code>{"id": ..., "valid": ..., "errors": [...], "tex": ...}</code>, with the
+ * base64 encoded document in <code>pdf</code> instead of <code>tex</code> when
+ * PDF documents are generated, or with <code>error</code> if the record could
+ * not be processed. Without an id in the record, the line number is used. <br/>
+ * Records are processed one after another and every result is flushed
+ * immediately. Only a single record is held in memory at a time, and records
+ * longer than the limit are skipped without being read into memory, so the
+ * memory use does not depend on the size of the input.
+ */
+public class StreamProcessor {
+
+	/**
+	 * Default maximum length of a record in characters.
+	 */
+	public static final int DEFAULT_MAX_RECORD_CHARS = 1024 * 1024;
+
+	private static final ObjectWriter RESULT_WRITER = TimeSheetRecords.MAPPER.writerFor(Result.class)
+			.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // The output stays open for the next result
+
+	private final TimeSheetService service;
+	private final Format format;
+	private final MessageSource messageSource;
+	private final int maxRecordChars;
+
+	/**
+	 * The format of the generated documents.
+	 */
+	public enum Format {
+		/**
+		 * LaTeX documents, written as string.
+		 */
+		TEX,
+		/**
+		 * PDF documents, written base64 encoded.
+		 */
+		PDF
+	}
+
+	/**
+	 * Result of a record as it is written to the output.
+	 *
+	 * @param id     - The id of the record.
+	 * @param valid  - Whether the time sheet is valid, null if it could not be
+	 *               checked.
+	 * @param errors - The error messages of the invalid time sheet.
+	 * @param tex    - The LaTeX document of the valid time sheet.
+	 * @param pdf    - The base64 encoded PDF document of the valid time sheet.
+	 * @param error  - The reason the record could not be processed.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private record Result(JsonNode id, Boolean valid, List<String> errors, String tex, String pdf, String error) {
+
+		static Result failed(JsonNode id, String error) {
+			return new Result(id, null, null, null, null, error);
+		}
+	}
+
+	/**
+	 * Creates a new stream processor with the default record length limit.
+	 *
+	 * @param service       - the service processing the records.
+	 * @param format        - the format of the generated documents.
+	 * @param messageSource - to get the error messages and localized texts from.
+	 */
+	public StreamProcessor(TimeSheetService service, Format format, MessageSource messageSource) {
+		this(service, format, messageSource, DEFAULT_MAX_RECORD_CHARS);
+	}
+
+	/**
+	 * Creates a new stream processor.
+	 *
+	 * @param service        - the service processing the records.
+	 * @param format         - the format of the generated documents.
+	 * @param messageSource  - to get the error messages and localized texts from.
+	 * @param maxRecordChars - the maximum length of a record in characters.
+	 */
+	public StreamProcessor(TimeSheetService service, Format format, MessageSource messageSource, int maxRecordChars) {
+		this.service = service;
+		this.format = format;
+		this.messageSource = messageSource;
+		this.maxRecordChars = maxRecordChars;
+	}
+
+	/**
+	 * Processes all records of the input until its end. The streams are not
+	 * closed.
+	 *
+	 * @param input  - to read the records from, encoded in UTF-8.
+	 * @param output - to write the results to, encoded in UTF-8.
+	 * @return The number of processed records.
+	 * @throws IOException if the input could not be read or the output could not
+	 *                     be written.
+	 */
+	public long process(InputStream input, OutputStream output) throws IOException {
+		Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		StringBuilder line = new StringBuilder();
+		long lineNumber = 0;
+		long records = 0;
+		while (true) {
+			line.setLength(0);
+			int read = readLine(reader, line);
+			if (read < 0) {
+				break;
+			}
+			lineNumber++;
+			Result result;
+			if (read > maxRecordChars) {
+				result = Result.failed(lineId(lineNumber), "The record exceeds %d characters.".formatted(maxRecordChars));
+			} else if (line.toString().isBlank()) {
+				continue;
+			} else {
+				result = process(line.toString(), lineNumber);
+			}
+			RESULT_WRITER.writeValue(writer, result);
+			writer.write('\n');
+			writer.flush(); // Results are consumed while the input is still written
+			records++;
+		}
+		return records;
+	}
+
+	/**
+	 * Reads a line into the builder. Characters beyond the record length limit are
+	 * counted, but not stored.
+	 *
+	 * @return The length of the line, or -1 if the input ended before the line.
+	 */
+	private int readLine(Reader reader, StringBuilder line) throws IOException {
+		int length = 0;
+		int c;
+		while ((c = reader.read()) >= 0 && c != '\n') {
+			if (length < maxRecordChars + 1) {
+				length++;
+				if (length <= maxRecordChars) {
+					line.append((char) c);
+				}
+			}
+		}
+		if (c < 0 && length == 0) {
+			return -1;
+		}
+		return length;
+	}
+
+	private static JsonNode lineId(long lineNumber) {
+		return TimeSheetRecords.MAPPER.getNodeFactory().numberNode(lineNumber);
+	}
+
+	private Result process(String line, long lineNumber) {
+		JsonNode record;
+		try {
+			record = TimeSheetRecords.MAPPER.readTree(line);
+		} catch (IOException e) {
+			return Result.failed(lineId(lineNumber), e.getMessage());
+		}
+		JsonNode id = record != null && record.hasNonNull("id") ? record.get("id") : lineId(lineNumber);
+
+		try {
+			TimeSheet timeSheet = TimeSheetRecords.parse(service, record);
+			service.loadHolidays(List.of(timeSheet)); // Skipped once the year is cached
+			Collection<CheckerError> errors = service.check(timeSheet);
+			List<String> messages = errors.stream().map(error -> error.getErrorMessage(messageSource)).toList();
+			if (!errors.isEmpty()) {
+				return new Result(id, false, messages, null, null, null);
+			}
+			if (format == Format.PDF) {
+				String pdf = Base64.getEncoder().encodeToString(service.generatePdf(timeSheet, false, messageSource));
+				return new Result(id, true, messages, null, pdf, null);
+			}
+			return new Result(id, true, messages, service.generateTex(timeSheet, messageSource), null, null);
+		} catch (ParseException | CheckerException | IOException e) {
+			return Result.failed(id, e.getMessage());
+		}
+	}
+
+}
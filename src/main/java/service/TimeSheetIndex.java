@@ -0,0 +1,313 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import data.TimeSheet;
+import data.TimeSpan;
+import data.WorkingArea;
+import i18n.ResourceHandler;
+import io.FileController;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Persistent index of the time sheets in a tree of directories, each
+ * containing a <code>global.json</code> and month files as watched by the
+ * {@link WatchDaemon}. For every month file the index holds the employee, the
+ * month, the department and working area and the summed up times, so time
+ * sheets can be found by these without parsing any file. <br/>
+ * The index is stored as a json file in the root directory and loaded when the
+ * index is created. {@link #refresh()} walks the tree and only parses month
+ * files whose modification time or size differ from the indexed ones, and all
+ * months of a directory whose global file changed. Month files that could not
+ * be parsed are not parsed again until they or their global file change. This
+ * class is thread safe.
+ */
+public class TimeSheetIndex {
+
+	/**
+	 * Name of the index file in the root directory.
+	 */
+	public static final String INDEX_FILE_NAME = ".timesheet-index.json";
+
+	private static final int INDEX_VERSION = 2;
+	private static final String GLOBAL_FILE_NAME = "global.json";
+	private static final String INPUT_EXTENSION = ".json";
+
+	private static final Comparator<Sheet> BY_MONTH = Comparator.comparing(Sheet::yearMonth).thenComparing(Sheet::file);
+
+	private final TimeSheetService service;
+	private final Path root;
+	private final Path indexFile;
+	private final Consumer<String> log;
+
+	private final Map<Path, Stamp> globalStamps = new HashMap<>();
+	private final Map<Path, Sheet> sheets = new TreeMap<>();
+	private final Map<Path, Stamp> failedStamps = new HashMap<>(); // of month files that could not be parsed
+	private Map<Integer, List<Sheet>> byStaffId; // Built when needed
+
+	/**
+	 * An indexed time sheet.
+	 *
+	 * @param file           - The month file.
+	 * @param modified       - The modification time of the file in milliseconds.
+	 * @param size           - The size of the file in bytes.
+	 * @param staffId        - The staff id of the employee.
+	 * @param employeeName   - The name of the employee.
+	 * @param yearMonth      - The month of the time sheet.
+	 * @param department     - The department of the employee.
+	 * @param workingArea    - The working area of the employee.
+	 * @param maxWorkingTime - The maximum working time of the month.
+	 * @param workTime       - The summed up working time of the entries.
+	 * @param vacationTime   - The summed up vacation time of the entries.
+	 * @param predTransfer   - The time taken over from the previous month.
+	 * @param succTransfer   - The time carried over to the next month.
+	 */
+	public record Sheet(Path file, long modified, long size, int staffId, String employeeName, YearMonth yearMonth, String department,
+			WorkingArea workingArea, TimeSpan maxWorkingTime, TimeSpan workTime, TimeSpan vacationTime, TimeSpan predTransfer, TimeSpan succTransfer) {
+	}
+
+	/**
+	 * A query of the index. Criteria that are null match every time sheet.
+	 *
+	 * @param staffId     - The staff id of the employee.
+	 * @param from        - The first month, inclusive.
+	 * @param to          - The last month, inclusive.
+	 * @param department  - The department of the employee.
+	 * @param workingArea - The working area of the employee.
+	 */
+	public record Query(Integer staffId, YearMonth from, YearMonth to, String department, WorkingArea workingArea) {
+
+		/**
+		 * A query matching every time sheet.
+		 */
+		public static final Query ALL = new Query(null, null, null, null, null);
+
+		private boolean matches(Sheet sheet) {
+			return (staffId == null || staffId == sheet.staffId()) && (from == null || !sheet.yearMonth().isBefore(from))
+					&& (to == null || !sheet.yearMonth().isAfter(to)) && (department == null || department.equals(sheet.department()))
+					&& (workingArea == null || workingArea == sheet.workingArea());
+		}
+	}
+
+	private record Stamp(long modified, long size) {
+	}
+
+	/**
+	 * The stored form of the index, with times in minutes and paths relative to the
+	 * root directory.
+	 */
+	private record StoredIndex(int version, List<StoredStamp> globals, List<StoredStamp> failed, List<StoredSheet> sheets) {
+	}
+
+	private record StoredStamp(String file, long modified, long size) {
+	}
+
+	private record StoredSheet(String file, long modified, long size, int staffId, String employeeName, String yearMonth, String department,
+			String workingArea, long maxWorkingTime, long workTime, long vacationTime, long predTransfer, long succTransfer) {
+	}
+
+	/**
+	 * Creates a new index of a directory tree and loads the stored index, if
+	 * there is one. A stored index that can not be read is ignored and rebuilt by
+	 * the next refresh.
+	 *
+	 * @param service - the service parsing the month files.
+	 * @param root    - the root of the directory tree.
+	 * @param log     - receives a message for every month file that could not be
+	 *                read.
+	 */
+	public TimeSheetIndex(TimeSheetService service, Path root, Consumer<String> log) {
+		this.service = service;
+		this.root = root.toAbsolutePath();
+		this.indexFile = this.root.resolve(INDEX_FILE_NAME);
+		this.log = log;
+		load();
+	}
+
+	/**
+	 * Updates the index with the files changed since it was last refreshed, and
+	 * stores it if anything changed.
+	 *
+	 * @return The number of month files that were parsed.
+	 * @throws IOException if the tree could not be walked or the index could not
+	 *                     be stored.
+	 */
+	public synchronized int refresh() throws IOException {
+		Map<Path, Stamp> globals = new HashMap<>();
+		Set<Path> months = new HashSet<>();
+		try (Stream<Path> files = Files.walk(root)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (name.equals(GLOBAL_FILE_NAME)) {
+					globals.put(file, stamp(file));
+				} else if (name.endsWith(INPUT_EXTENSION) && !name.startsWith(".") && Files.isRegularFile(file)) {
+					months.add(file); // Only stamped if its directory has a global file
+				}
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		boolean changed = globalStamps.keySet().retainAll(globals.keySet());
+		changed |= sheets.keySet().removeIf(file -> !globals.containsKey(file.resolveSibling(GLOBAL_FILE_NAME)) || !months.contains(file));
+		changed |= failedStamps.keySet().removeIf(file -> !globals.containsKey(file.resolveSibling(GLOBAL_FILE_NAME)) || !months.contains(file));
+		Set<Path> changedGlobals = new HashSet<>();
+		for (Map.Entry<Path, Stamp> global : globals.entrySet()) {
+			if (!global.getValue().equals(globalStamps.put(global.getKey(), global.getValue()))) {
+				changedGlobals.add(global.getKey());
+			}
+		}
+		changed |= !changedGlobals.isEmpty();
+
+		Map<Path, byte[]> globalJson = new HashMap<>();
+		int parsed = 0;
+		for (Path file : months) {
+			Path global = file.resolveSibling(GLOBAL_FILE_NAME);
+			if (!globals.containsKey(global)) {
+				continue;
+			}
+			Stamp stamp = stamp(file);
+			Sheet indexed = sheets.get(file);
+			Stamp indexedStamp = indexed != null ? new Stamp(indexed.modified(), indexed.size()) : failedStamps.get(file);
+			if (!changedGlobals.contains(global) && stamp.equals(indexedStamp)) {
+				continue;
+			}
+			sheets.remove(file);
+			failedStamps.remove(file);
+			changed = true;
+			parsed++;
+			try {
+				byte[] globalBytes = globalJson.get(global);
+				if (globalBytes == null) {
+					globalBytes = FileController.readFileToBytes(global.toFile());
+					globalJson.put(global, globalBytes);
+				}
+				sheets.put(file, summarize(file, stamp, service.parse(globalBytes, FileController.readFileToBytes(file.toFile()))));
+			} catch (IOException | ParseException e) {
+				failedStamps.put(file, stamp);
+				log.accept(ResourceHandler.getMessage("command.output.index.failed", file, e.getMessage()));
+			}
+		}
+
+		if (changed) {
+			byStaffId = null;
+			store();
+		}
+		return parsed;
+	}
+
+	/**
+	 * Finds the indexed time sheets matching a query.
+	 *
+	 * @param query - the criteria of the time sheets.
+	 * @return The matching time sheets, ordered by month.
+	 */
+	public synchronized List<Sheet> find(Query query) {
+		Stream<Sheet> candidates;
+		if (query.staffId() != null) {
+			if (byStaffId == null) {
+				byStaffId = new HashMap<>();
+				for (Sheet sheet : sheets.values()) {
+					byStaffId.computeIfAbsent(sheet.staffId(), id -> new ArrayList<>()).add(sheet);
+				}
+				byStaffId.values().forEach(list -> list.sort(BY_MONTH));
+			}
+			candidates = byStaffId.getOrDefault(query.staffId(), List.of()).stream();
+		} else {
+			candidates = sheets.values().stream().sorted(BY_MONTH);
+		}
+		return candidates.filter(query::matches).toList();
+	}
+
+	/**
+	 * Gets the number of indexed time sheets.
+	 *
+	 * @return The number of time sheets.
+	 */
+	public synchronized int size() {
+		return sheets.size();
+	}
+
+	private static Sheet summarize(Path file, Stamp stamp, TimeSheet timeSheet) {
+		return new Sheet(file, stamp.modified(), stamp.size(), timeSheet.getEmployee().getId(), timeSheet.getEmployee().getName(),
+				YearMonth.of(timeSheet.getYear(), timeSheet.getMonth()), timeSheet.getProfession().getDepartmentName(),
+				timeSheet.getProfession().getWorkingArea(), timeSheet.getProfession().getMaxWorkingTime(), timeSheet.getTotalWorkTime(),
+				timeSheet.getTotalVacationTime(), timeSheet.getPredTransfer(), timeSheet.getSuccTransfer());
+	}
+
+	private static Stamp stamp(Path file) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		return new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+	}
+
+	private void load() {
+		if (!Files.exists(indexFile)) {
+			return;
+		}
+		try {
+			StoredIndex stored = TimeSheetRecords.MAPPER.readValue(FileController.readFileToBytes(indexFile.toFile()), StoredIndex.class);
+			if (stored.version() != INDEX_VERSION) {
+				return;
+			}
+			for (StoredStamp global : stored.globals()) {
+				globalStamps.put(root.resolve(global.file()), new Stamp(global.modified(), global.size()));
+			}
+			for (StoredStamp failed : stored.failed()) {
+				failedStamps.put(root.resolve(failed.file()), new Stamp(failed.modified(), failed.size()));
+			}
+			for (StoredSheet sheet : stored.sheets()) {
+				Path file = root.resolve(sheet.file());
+				sheets.put(file,
+						new Sheet(file, sheet.modified(), sheet.size(), sheet.staffId(), sheet.employeeName(), YearMonth.parse(sheet.yearMonth()),
+								sheet.department(), WorkingArea.valueOf(sheet.workingArea()), TimeSpan.ofMinutes(sheet.maxWorkingTime()),
+								TimeSpan.ofMinutes(sheet.workTime()), TimeSpan.ofMinutes(sheet.vacationTime()),
+								TimeSpan.ofMinutes(sheet.predTransfer()), TimeSpan.ofMinutes(sheet.succTransfer())));
+			}
+		} catch (IOException | RuntimeException e) { // Rebuilt by the next refresh
+			globalStamps.clear();
+			failedStamps.clear();
+			sheets.clear();
+		}
+	}
+
+	private void store() throws IOException {
+		List<StoredStamp> globals = new ArrayList<>();
+		globalStamps.forEach((file, stamp) -> globals.add(new StoredStamp(relativize(file), stamp.modified(), stamp.size())));
+		List<StoredStamp> failed = new ArrayList<>();
+		failedStamps.forEach((file, stamp) -> failed.add(new StoredStamp(relativize(file), stamp.modified(), stamp.size())));
+		List<StoredSheet> stored = new ArrayList<>();
+		for (Sheet sheet : sheets.values()) {
+			stored.add(new StoredSheet(relativize(sheet.file()), sheet.modified(), sheet.size(), sheet.staffId(), sheet.employeeName(),
+					sheet.yearMonth().toString(), sheet.department(), sheet.workingArea().name(), sheet.maxWorkingTime().toMinutes(),
+					sheet.workTime().toMinutes(), sheet.vacationTime().toMinutes(), sheet.predTransfer().toMinutes(), sheet.succTransfer().toMinutes()));
+		}
+		try {
+			byte[] index = TimeSheetRecords.MAPPER.writeValueAsBytes(new StoredIndex(INDEX_VERSION, globals, failed, stored));
+			FileController.saveBytesToFile(index, indexFile.toFile());
+		} catch (JsonProcessingException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private String relativize(Path file) {
+		return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+	}
+
+}
@@ -0,0 +1,54 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.TimeSheet;
+import parser.ParseException;
+
+/**
+ * Reads time sheets from json records of the form
+ * <code>{"global": {...}, "month": {...}}</code>, as they are sent to the
+ * {@link TimeSheetServer} and the {@link StreamProcessor}. Global and month may
+ * also be embedded as json strings.
+ */
+final class TimeSheetRecords {
+
+	static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private TimeSheetRecords() {
+	}
+
+	/**
+	 * Parses the time sheet of a record.
+	 *
+	 * @param service - the service parsing the time sheet.
+	 * @param record  - the record.
+	 * @return The parsed time sheet.
+	 * @throws ParseException if the record is not an object containing global and
+	 *                        month, or they are not a valid time sheet.
+	 */
+	static TimeSheet parse(TimeSheetService service, JsonNode record) throws ParseException {
+		if (record == null || !record.isObject()) {
+			throw new ParseException("The record must be a json object containing global and month.");
+		}
+		return service.parse(toJson(record, "global"), toJson(record, "month"));
+	}
+
+	private static String toJson(JsonNode record, String field) throws ParseException {
+		JsonNode node = record.get(field);
+		if (node == null || node.isNull()) {
+			throw new ParseException("The record does not contain %s.".formatted(field));
+		}
+		if (node.isTextual()) { // Embedded as a json string
+			return node.asText();
+		}
+		try {
+			return MAPPER.writeValueAsString(node);
+		} catch (JsonProcessingException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+}
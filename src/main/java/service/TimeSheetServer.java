@@ -0,0 +1,318 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.TimeSheet;
+import i18n.MessageSource;
+import i18n.ResourceHandler;
+import metrics.MetricsRegistry;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Local HTTP service exposing the {@link TimeSheetService} to other
+ * applications, so they do not have to start the application once per time
+ * sheet. All endpoints accept a POST request with a json body of the form
+ * <code>{"global": {...}, "month": {...}}</code>:
+ * <ul>
+ * <li><code>/validate</code> responds with the validation result as json.</li>
+ * <li><code>/tex</code> responds with the LaTeX document.</li>
+ * <li><code>/pdf</code> responds with the PDF document.</li>
+ * </ul>
+ * Additionally <code>/metrics</code> responds to GET requests with the
+ * {@link MetricsRegistry metrics} of the application in the Prometheus text
+ * format.
+ * Invalid time sheets are answered with status 422 and the validation result
+ * by the generating endpoints. The language of the messages and documents is
+ * taken from the <code>Accept-Language</code> header. <br/>
+ * Every request is handled in its own virtual thread. The request body size
+ * and the number of concurrently handled requests are limited, requests
+ * exceeding the limits are rejected with status 413 and 503 respectively.
+ */
+public class TimeSheetServer implements AutoCloseable {
+
+	/**
+	 * Default maximum size of a request body in bytes.
+	 */
+	public static final int DEFAULT_MAX_REQUEST_BYTES = 1024 * 1024;
+	/**
+	 * Default maximum number of concurrently handled requests.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+	/**
+	 * Default time in seconds running requests are given to finish on shutdown.
+	 */
+	public static final int DEFAULT_SHUTDOWN_GRACE_SECONDS = 10;
+
+	private static final int HTTP_UNPROCESSABLE_ENTITY = 422;
+	private static final int RETRY_AFTER_SECONDS = 1;
+	private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+	private static final String CONTENT_TYPE_TEX = "application/x-tex; charset=utf-8";
+	private static final String CONTENT_TYPE_PDF = "application/pdf";
+
+	private static final ObjectMapper MAPPER = TimeSheetRecords.MAPPER;
+
+	private final TimeSheetService service;
+	private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+	private final int maxRequestBytes;
+	private final Semaphore permits;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * Result of a validation as it is sent to the client.
+	 *
+	 * @param valid  - Whether the time sheet is valid.
+	 * @param errors - The error messages of the invalid time sheet.
+	 */
+	private record ValidationResponse(boolean valid, List<String> errors) {
+	}
+
+	/**
+	 * Error response sent to the client if the request could not be processed.
+	 *
+	 * @param error - The error message.
+	 */
+	private record ErrorResponse(String error) {
+	}
+
+	/**
+	 * Creates a new server with the default limits. The server is bound to the
+	 * address immediately, but only handles requests after {@link #start()} was
+	 * called.
+	 *
+	 * @param service - the service handling the requests.
+	 * @param address - the address to listen on. Port 0 chooses a free port.
+	 * @throws IOException if the server could not be bound to the address.
+	 */
+	public TimeSheetServer(TimeSheetService service, InetSocketAddress address) throws IOException {
+		this(service, address, DEFAULT_MAX_REQUEST_BYTES, DEFAULT_MAX_CONCURRENT_REQUESTS);
+	}
+
+	/**
+	 * Creates a new server. The server is bound to the address immediately, but
+	 * only handles requests after {@link #start()} was called.
+	 *
+	 * @param service               - the service handling the requests.
+	 * @param address               - the address to listen on. Port 0 chooses a
+	 *                              free port.
+	 * @param maxRequestBytes       - the maximum size of a request body in bytes.
+	 * @param maxConcurrentRequests - the maximum number of concurrently handled
+	 *                              requests.
+	 * @throws IOException if the server could not be bound to the address.
+	 */
+	public TimeSheetServer(TimeSheetService service, InetSocketAddress address, int maxRequestBytes, int maxConcurrentRequests) throws IOException {
+		this.service = service;
+		this.maxRequestBytes = maxRequestBytes;
+		this.permits = new Semaphore(maxConcurrentRequests);
+
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.server = HttpServer.create(address, 0);
+		this.server.setExecutor(executor);
+		for (Endpoint endpoint : Endpoint.values()) {
+			server.createContext(endpoint.path, exchange -> handle(exchange, endpoint));
+		}
+	}
+
+	/**
+	 * Starts handling requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Gets the address the server is listening on.
+	 *
+	 * @return The address the server is listening on.
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Stops the server. No new requests are accepted, while running requests are
+	 * given the grace period to finish.
+	 *
+	 * @param graceSeconds - the time in seconds running requests are given to
+	 *                     finish.
+	 */
+	public void stop(int graceSeconds) {
+		server.stop(graceSeconds);
+		executor.close(); // Waits for the remaining handlers
+	}
+
+	/**
+	 * Stops the server with the default grace period.
+	 */
+	@Override
+	public void close() {
+		stop(DEFAULT_SHUTDOWN_GRACE_SECONDS);
+	}
+
+	private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+		try (exchange) {
+			if (!exchange.getRequestURI().getPath().equals(endpoint.path)) {
+				sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "Not found.");
+				return;
+			}
+			if (!endpoint.method.equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", endpoint.method);
+				sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Only %s is supported.".formatted(endpoint.method));
+				return;
+			}
+			if (endpoint == Endpoint.METRICS) { // Cheap, so not limited by the permits
+				send(exchange, HttpURLConnection.HTTP_OK, MetricsRegistry.CONTENT_TYPE, metrics.toPrometheus().getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			if (!permits.tryAcquire()) {
+				exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+				sendError(exchange, HttpURLConnection.HTTP_UNAVAILABLE, "Too many concurrent requests.");
+				return;
+			}
+			try {
+				process(exchange, endpoint);
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+	private void process(HttpExchange exchange, Endpoint endpoint) throws IOException {
+		byte[] body = readBody(exchange);
+		if (body == null) {
+			sendError(exchange, HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "The request body exceeds %d bytes.".formatted(maxRequestBytes));
+			return;
+		}
+
+		TimeSheet timeSheet;
+		try {
+			timeSheet = parse(service, body);
+		} catch (ParseException e) {
+			sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+			return;
+		}
+
+		MessageSource messageSource = getMessageSource(exchange);
+		Collection<CheckerError> errors;
+		try {
+			errors = service.check(timeSheet);
+		} catch (CheckerException e) {
+			sendError(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage());
+			return;
+		}
+		ValidationResponse validation = new ValidationResponse(errors.isEmpty(),
+				errors.stream().map(error -> error.getErrorMessage(messageSource)).toList());
+
+		if (endpoint == Endpoint.VALIDATE || !validation.valid()) {
+			int status = endpoint == Endpoint.VALIDATE ? HttpURLConnection.HTTP_OK : HTTP_UNPROCESSABLE_ENTITY;
+			send(exchange, status, CONTENT_TYPE_JSON, MAPPER.writeValueAsBytes(validation));
+			return;
+		}
+
+		try {
+			if (endpoint == Endpoint.TEX) {
+				send(exchange, HttpURLConnection.HTTP_OK, CONTENT_TYPE_TEX, service.generateTex(timeSheet, messageSource).getBytes(StandardCharsets.UTF_8));
+			} else {
+				send(exchange, HttpURLConnection.HTTP_OK, CONTENT_TYPE_PDF, service.generatePdf(timeSheet, false, messageSource));
+			}
+		} catch (IOException e) {
+			sendError(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the request body.
+	 *
+	 * @return The request body or null if it exceeds the size limit.
+	 */
+	private byte[] readBody(HttpExchange exchange) throws IOException {
+		String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+		if (contentLength != null) {
+			try {
+				if (Long.parseLong(contentLength) > maxRequestBytes) {
+					return null;
+				}
+			} catch (NumberFormatException e) {
+				// The actual length is checked while reading
+			}
+		}
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] body = in.readNBytes(maxRequestBytes + 1);
+			return body.length > maxRequestBytes ? null : body;
+		}
+	}
+
+	private static TimeSheet parse(TimeSheetService service, byte[] body) throws ParseException {
+		JsonNode root;
+		try {
+			root = MAPPER.readTree(body);
+		} catch (IOException e) {
+			throw new ParseException(e.getMessage());
+		}
+		return TimeSheetRecords.parse(service, root);
+	}
+
+	private static MessageSource getMessageSource(HttpExchange exchange) {
+		String acceptLanguage = exchange.getRequestHeaders().getFirst("Accept-Language");
+		if (acceptLanguage != null) {
+			try {
+				// Resolved to a bundle, clients cannot create a message source per header
+				Optional<MessageSource> messageSource = MessageSource.forLanguageRanges(Locale.LanguageRange.parse(acceptLanguage));
+				if (messageSource.isPresent()) {
+					return messageSource.get();
+				}
+			} catch (IllegalArgumentException e) {
+				// Malformed header, use the application locale
+			}
+		}
+		return ResourceHandler.getMessageSource();
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		send(exchange, status, CONTENT_TYPE_JSON, MAPPER.writeValueAsBytes(new ErrorResponse(message)));
+	}
+
+	private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * The endpoints of the server.
+	 */
+	private enum Endpoint {
+		VALIDATE("/validate", "POST"), TEX("/tex", "POST"), PDF("/pdf", "POST"), METRICS("/metrics", "GET");
+
+		private final String path;
+		private final String method;
+
+		Endpoint(String path, String method) {
+			this.path = path;
+			this.method = method;
+		}
+	}
+
+}
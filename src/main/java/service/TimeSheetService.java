@@ -0,0 +1,379 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import checker.IChecker;
+import checker.MiLoGChecker;
+import checker.holiday.Holiday;
+import checker.holiday.HolidayBulkLoader;
+import checker.holiday.HolidayFetchException;
+import data.TimeSheet;
+import i18n.MessageSource;
+import i18n.ResourceHandler;
+import io.FileController;
+import io.IGenerator;
+import io.LatexGenerator;
+import io.OutputCache;
+import io.PdfGenerator;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import parser.IGlobalParser;
+import parser.IMonthParser;
+import parser.ParseException;
+import parser.Parser;
+import parser.json.JsonCanonicalizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The TimeSheetService is the library level entry point to the time sheet
+ * pipeline of parsing, checking and generating. It is used by the command line
+ * application as well as the user interface. <br/>
+ * Expensive resources are kept warm across calls: the LaTeX and PDF templates
+ * are only read once per service, the json parsers share one object mapper and fetched
+ * holidays are cached by the holiday checker. Therefore a single instance
+ * should be reused, e.g. the one returned by {@link #getDefault()}. This class
+ * is thread safe. <br/>
+ * Localized output is created in the locale used by the application, unless a
+ * {@link MessageSource} is passed explicitly. This allows to process time
+ * sheets in different locales concurrently.
+ */
+public class TimeSheetService {
+
+	private static final String LATEX_TEMPLATE_PATH = "MiLoG_Template.tex";
+	private static final String PDF_TEMPLATE_PATH = "pdf/template.pdf";
+	private static final String CACHE_KEY_ALGORITHM = "SHA-256";
+
+	private static final TimeSheetService DEFAULT = new TimeSheetService();
+
+	private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+	private static final Counter SHEETS_PARSED = METRICS.counter("timesheet_sheets_parsed_total", "Time sheets parsed successfully.");
+	private static final Counter PARSE_FAILURES = METRICS.counter("timesheet_parse_failures_total", "Time sheets that could not be parsed.");
+	private static final Histogram PARSE_DURATION = METRICS.histogram("timesheet_parse_duration_seconds", "Time taken to parse a time sheet.");
+	private static final Counter SHEETS_VALIDATED = METRICS.counter("timesheet_sheets_validated_total", "Time sheets checked.");
+	private static final Counter SHEETS_INVALID = METRICS.counter("timesheet_sheets_invalid_total", "Time sheets found to be invalid.");
+	private static final Histogram CHECK_DURATION = METRICS.histogram("timesheet_check_duration_seconds", "Time taken to check a time sheet.");
+	private static final Counter TEX_GENERATED = METRICS.counter("timesheet_documents_generated_total", "Documents generated.", "format", "tex");
+	private static final Counter PDF_GENERATED = METRICS.counter("timesheet_documents_generated_total", "Documents generated.", "format", "pdf");
+	private static final Histogram TEX_GENERATE_DURATION = METRICS.histogram("timesheet_generate_duration_seconds", "Time taken to generate a document.",
+			"format", "tex");
+	private static final Histogram PDF_GENERATE_DURATION = METRICS.histogram("timesheet_generate_duration_seconds", "Time taken to generate a document.",
+			"format", "pdf");
+	private static final Map<String, Counter> CHECKER_ERRORS = MiLoGChecker.getErrorCodes().stream().collect(Collectors.toUnmodifiableMap(code -> code,
+			code -> METRICS.counter("timesheet_checker_errors_total", "Errors found by the checker per rule.", "code", code)));
+
+	private volatile String latexTemplate; // caching
+	private volatile byte[] latexTemplateHash; // caching
+	private volatile byte[] pdfTemplate; // caching
+
+	/**
+	 * Gets the service instance shared by the application.
+	 * 
+	 * @return The shared service instance.
+	 */
+	public static TimeSheetService getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Parses a {@link TimeSheet} from a global and a month json string.
+	 * 
+	 * @param globalJson - json to get global data from.
+	 * @param monthJson  - json to get month data from.
+	 * @return The parsed time sheet.
+	 * @throws ParseException if an error occurs while parsing the json strings.
+	 */
+	public TimeSheet parse(String globalJson, String monthJson) throws ParseException {
+		return measureParse(() -> Parser.parseTimeSheetJson(globalJson, monthJson));
+	}
+
+	/**
+	 * Parses a {@link TimeSheet} from a global and a month json document encoded
+	 * in UTF-8, e.g. as read from files.
+	 * 
+	 * @param globalJson - json to get global data from.
+	 * @param monthJson  - json to get month data from.
+	 * @return The parsed time sheet.
+	 * @throws ParseException if an error occurs while parsing the json documents.
+	 */
+	public TimeSheet parse(byte[] globalJson, byte[] monthJson) throws ParseException {
+		return measureParse(() -> Parser.parseTimeSheetJson(globalJson, monthJson));
+	}
+
+	/**
+	 * Parses a {@link TimeSheet} from the data provided by a global and a month
+	 * parser.
+	 * 
+	 * @param globalParser - parser to get global data from.
+	 * @param monthParser  - parser to get month data from.
+	 * @return The parsed time sheet.
+	 * @throws ParseException if an error occurs while parsing the data or the data
+	 *                        does not form a valid time sheet.
+	 */
+	public TimeSheet parse(IGlobalParser globalParser, IMonthParser monthParser) throws ParseException {
+		return measureParse(() -> Parser.parseTimeSheet(globalParser, monthParser));
+	}
+
+	private static TimeSheet measureParse(TimeSheetParse parse) throws ParseException {
+		long start = System.nanoTime();
+		try {
+			TimeSheet timeSheet = parse.parse();
+			SHEETS_PARSED.increment();
+			return timeSheet;
+		} catch (IllegalArgumentException e) { // thrown by the TimeSheet constructor
+			PARSE_FAILURES.increment();
+			throw new ParseException(e.getMessage());
+		} catch (ParseException e) {
+			PARSE_FAILURES.increment();
+			throw e;
+		} finally {
+			PARSE_DURATION.recordSince(start);
+		}
+	}
+
+	/**
+	 * Checks a {@link TimeSheet} with the {@link MiLoGChecker}.
+	 * 
+	 * @param timeSheet - to be checked.
+	 * @return The errors found in the time sheet, empty if the time sheet is valid.
+	 * @throws CheckerException if an error occurs while checking the time sheet.
+	 */
+	public Collection<CheckerError> check(TimeSheet timeSheet) throws CheckerException {
+		long start = System.nanoTime();
+		IChecker checker = new MiLoGChecker(timeSheet);
+		try {
+			checker.check();
+		} finally {
+			CHECK_DURATION.recordSince(start);
+		}
+		Collection<CheckerError> errors = checker.getErrors();
+		SHEETS_VALIDATED.increment();
+		if (!errors.isEmpty()) {
+			SHEETS_INVALID.increment();
+			for (CheckerError error : errors) {
+				CHECKER_ERRORS.get(error.getCode()).increment();
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * Loads the holidays the checks of time sheets depend on in advance, with a
+	 * single request per year for all states, see {@link HolidayBulkLoader}. Years
+	 * that are already cached are skipped. If loading a year fails, the failure is
+	 * remembered for a short time and reported by the checks of the year, which do
+	 * not fetch the holidays again.
+	 * 
+	 * @param timeSheets - to be checked next.
+	 */
+	public void loadHolidays(Collection<TimeSheet> timeSheets) {
+		int[] years = timeSheets.stream().filter(MiLoGChecker::dependsOnHolidays).mapToInt(TimeSheet::getYear).distinct().sorted().toArray();
+		for (int year : years) {
+			try {
+				HolidayBulkLoader.load(year, year);
+			} catch (HolidayFetchException e) {
+				// Reported by the checks of the time sheets of the failed year
+			}
+		}
+	}
+
+	/**
+	 * Checks a {@link TimeSheet} and returns all problems as a single message. If
+	 * the time sheet is not valid, or the check itself failed, this method returns
+	 * an optional containing the error message. If it is valid, this method will
+	 * return an empty optional.
+	 * 
+	 * @param timeSheet - to be validated.
+	 * @return An optional of the error message.
+	 */
+	public Optional<String> validate(TimeSheet timeSheet) {
+		return validate(timeSheet, ResourceHandler.getMessageSource());
+	}
+
+	/**
+	 * Checks a {@link TimeSheet} and returns all problems as a single message in
+	 * the locale of the given message source.
+	 * 
+	 * @param timeSheet     - to be validated.
+	 * @param messageSource - to get the error messages from.
+	 * @return An optional of the error message, empty if the time sheet is valid.
+	 * @see #validate(TimeSheet)
+	 */
+	public Optional<String> validate(TimeSheet timeSheet, MessageSource messageSource) {
+		Collection<CheckerError> errors;
+		try {
+			errors = check(timeSheet);
+		} catch (CheckerException e) {
+			return Optional.of(e.getMessage());
+		}
+
+		if (errors.isEmpty()) {
+			return Optional.empty();
+		}
+
+		StringBuilder errorList = new StringBuilder();
+		for (CheckerError error : errors) {
+			errorList.append(error.getErrorMessage(messageSource)).append(System.lineSeparator());
+		}
+		return Optional.of(errorList.toString());
+	}
+
+	/**
+	 * Generates the LaTeX document of a {@link TimeSheet}. The time sheet is not
+	 * checked by this method.
+	 * 
+	 * @param timeSheet - to generate the document for.
+	 * @return The generated LaTeX document.
+	 * @throws IOException if the LaTeX template could not be read.
+	 */
+	public String generateTex(TimeSheet timeSheet) throws IOException {
+		return generateTex(timeSheet, ResourceHandler.getMessageSource());
+	}
+
+	/**
+	 * Generates the LaTeX document of a {@link TimeSheet} in the locale of the
+	 * given message source. The time sheet is not checked by this method.
+	 * 
+	 * @param timeSheet     - to generate the document for.
+	 * @param messageSource - to get the localized texts from.
+	 * @return The generated LaTeX document.
+	 * @throws IOException if the LaTeX template could not be read.
+	 */
+	public String generateTex(TimeSheet timeSheet, MessageSource messageSource) throws IOException {
+		IGenerator generator = new LatexGenerator(timeSheet, getLatexTemplate(), messageSource);
+		long start = System.nanoTime();
+		String tex = generator.generate();
+		TEX_GENERATE_DURATION.recordSince(start);
+		TEX_GENERATED.increment();
+		return tex;
+	}
+
+	/**
+	 * Generates the PDF document of a {@link TimeSheet}. The time sheet is not
+	 * checked by this method.
+	 * 
+	 * @param timeSheet     - to generate the document for.
+	 * @param addSignature  - whether the name of the employee is added to the
+	 *                      signature field.
+	 * @param messageSource - to get the localized formats from.
+	 * @return The generated PDF document.
+	 * @throws IOException if the PDF template could not be read or filled.
+	 */
+	public byte[] generatePdf(TimeSheet timeSheet, boolean addSignature, MessageSource messageSource) throws IOException {
+		PdfGenerator generator = new PdfGenerator(timeSheet, getPdfTemplate(), addSignature, messageSource);
+		long start = System.nanoTime();
+		byte[] pdf = generator.generate();
+		PDF_GENERATE_DURATION.recordSince(start);
+		PDF_GENERATED.increment();
+		return pdf;
+	}
+
+	/**
+	 * Gets the key a LaTeX document is stored under in an {@link OutputCache}. The
+	 * key is a hash of the canonical form of the json strings, the holidays the
+	 * check of the time sheet depends on, the template, the
+	 * {@link LatexGenerator#VERSION generator version} and the locale. Json strings
+	 * that only differ in formatting or the order of fields have the same key.
+	 * As only documents of valid time sheets are cached, a changed set of holidays
+	 * results in another key, so the time sheet is checked again.
+	 * 
+	 * @param globalJson    - json the global data of the document is read from.
+	 * @param monthJson     - json the month data of the document is read from.
+	 * @param timeSheet     - the time sheet parsed from the json strings.
+	 * @param messageSource - to get the localized texts from.
+	 * @return The key of the LaTeX document as hexadecimal string.
+	 * @throws ParseException   if a json string is not valid json.
+	 * @throws IOException      if the LaTeX template could not be read.
+	 * @throws CheckerException if the holidays could not be fetched.
+	 */
+	public String getTexCacheKey(String globalJson, String monthJson, TimeSheet timeSheet, MessageSource messageSource)
+			throws ParseException, IOException, CheckerException {
+		MessageDigest digest = newDigest();
+		digest.update("tex\0%d\0%s\0".formatted(LatexGenerator.VERSION, messageSource.getLocale().toLanguageTag()).getBytes(StandardCharsets.UTF_8));
+		digest.update(getLatexTemplateHash());
+		digest.update((byte) 0);
+		digest.update(JsonCanonicalizer.canonicalize(globalJson));
+		digest.update((byte) 0); // Canonical json never contains a raw null character
+		digest.update(JsonCanonicalizer.canonicalize(monthJson));
+		digest.update((byte) 0);
+		List<Holiday> holidays = new ArrayList<>(MiLoGChecker.getHolidays(timeSheet));
+		holidays.sort(Comparator.comparing(Holiday::getDate).thenComparing(Holiday::getDescription, Comparator.nullsFirst(Comparator.naturalOrder())));
+		for (Holiday holiday : holidays) {
+			digest.update("%s\0%s\0".formatted(holiday.getDate(), holiday.getDescription()).getBytes(StandardCharsets.UTF_8));
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private byte[] getLatexTemplateHash() throws IOException {
+		byte[] hash = latexTemplateHash;
+		if (hash == null) {
+			hash = newDigest().digest(getLatexTemplate().getBytes(StandardCharsets.UTF_8));
+			latexTemplateHash = hash;
+		}
+		return hash;
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(CACHE_KEY_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) { // Every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Gets the LaTeX template used to generate documents. The template is read from
+	 * the resources on the first call and cached afterwards.
+	 * 
+	 * @return The LaTeX template.
+	 * @throws IOException if the LaTeX template could not be read.
+	 */
+	public String getLatexTemplate() throws IOException {
+		String template = latexTemplate;
+		if (template == null) {
+			try (InputStream templateStream = TimeSheetService.class.getClassLoader().getResourceAsStream(LATEX_TEMPLATE_PATH)) {
+				if (templateStream == null) {
+					throw new IOException("LaTeX template %s not found in resources.".formatted(LATEX_TEMPLATE_PATH));
+				}
+				template = FileController.readInputStreamToString(templateStream);
+			}
+			latexTemplate = template;
+		}
+		return template;
+	}
+
+	private byte[] getPdfTemplate() throws IOException {
+		byte[] template = pdfTemplate;
+		if (template == null) {
+			try (InputStream templateStream = TimeSheetService.class.getClassLoader().getResourceAsStream(PDF_TEMPLATE_PATH)) {
+				if (templateStream == null) {
+					throw new IOException("PDF template %s not found in resources.".formatted(PDF_TEMPLATE_PATH));
+				}
+				template = templateStream.readAllBytes();
+			}
+			pdfTemplate = template;
+		}
+		// PDFBox does not modify the bytes it loads a document from
+		return template;
+	}
+
+	@FunctionalInterface
+	private interface TimeSheetParse {
+		TimeSheet parse() throws ParseException;
+	}
+
+}
@@ -0,0 +1,299 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import data.TimeSheet;
+import data.TimeSpan;
+import i18n.ResourceHandler;
+import io.FileController;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Ledger of the time carried over between the months of every employee. <br/>
+ * The ledger reads a directory that contains a directory per employee, laid out
+ * like the directories of the {@link WatchDaemon}: a <code>global.json</code>
+ * and any number of month json files. For every employee the months are chained
+ * in calendar order. The ledger keeps a running balance of the carried over
+ * time plus the worked and vacation time minus the maximum working time of
+ * every month. A break in the chain is flagged when the transfer a month takes
+ * over differs from the transfer of the previous month, or when the previous
+ * month is missing. <br/>
+ * The ledger is updated by {@link #refresh()}. It only parses month files whose
+ * modification time or size changed, and all months of an employee whose
+ * global file changed. Only the balances from the earliest changed month on are
+ * recomputed, as the balances before it do not depend on it. This class is
+ * thread safe.
+ */
+public class TransferLedger {
+
+	private static final String GLOBAL_FILE_NAME = "global.json";
+	private static final String INPUT_EXTENSION = ".json";
+
+	private final TimeSheetService service;
+	private final Path root;
+	private final Consumer<String> log;
+
+	private final Map<Path, EmployeeLedger> employees = new TreeMap<>();
+
+	/**
+	 * The reason a month breaks the chain of transfers.
+	 */
+	public enum ChainBreak {
+		/**
+		 * The transfer taken over from the previous month differs from the transfer
+		 * the previous month carries over.
+		 */
+		TRANSFER_MISMATCH,
+		/**
+		 * The previous calendar month is missing, so the transfer taken over can not
+		 * be verified.
+		 */
+		MISSING_MONTH
+	}
+
+	/**
+	 * A month of the ledger.
+	 *
+	 * @param file           - The month file.
+	 * @param yearMonth      - The year and month of the time sheet.
+	 * @param predTransfer   - The time taken over from the previous month.
+	 * @param succTransfer   - The time carried over to the next month.
+	 * @param workedMinutes  - The worked and vacation time in minutes.
+	 * @param maxMinutes     - The maximum working time in minutes.
+	 * @param balanceMinutes - The running balance after this month in minutes,
+	 *                       which may be negative.
+	 * @param chainBreak     - The reason this month breaks the chain, null if it
+	 *                       does not.
+	 */
+	public record Month(Path file, YearMonth yearMonth, TimeSpan predTransfer, TimeSpan succTransfer, long workedMinutes, long maxMinutes,
+			long balanceMinutes, ChainBreak chainBreak) {
+	}
+
+	/**
+	 * The summary of a parsed month file, which is kept until the file changes.
+	 */
+	private record Summary(YearMonth yearMonth, TimeSpan predTransfer, TimeSpan succTransfer, long workedMinutes, long maxMinutes) {
+	}
+
+	/**
+	 * The modification time and size of a file, to detect changes without reading
+	 * it.
+	 */
+	private record Stamp(FileTime modified, long size) {
+	}
+
+	private static final class EmployeeLedger {
+		private Stamp globalStamp;
+		private final Map<Path, Stamp> stamps = new HashMap<>();
+		private final Map<Path, Summary> summaries = new HashMap<>();
+		private final NavigableMap<YearMonth, Month> months = new TreeMap<>();
+	}
+
+	/**
+	 * Creates a new, empty ledger. Nothing is read before {@link #refresh()} is
+	 * called.
+	 *
+	 * @param service - the service parsing the month files.
+	 * @param root    - the directory containing a directory per employee.
+	 * @param log     - receives a message for every month file that could not be
+	 *                read.
+	 */
+	public TransferLedger(TimeSheetService service, Path root, Consumer<String> log) {
+		this.service = service;
+		this.root = root.toAbsolutePath();
+		this.log = log;
+	}
+
+	/**
+	 * Updates the ledger with the files changed since the last refresh.
+	 *
+	 * @return The number of months whose balance was recomputed.
+	 * @throws IOException if the directories could not be listed.
+	 */
+	public synchronized int refresh() throws IOException {
+		Set<Path> directories = new HashSet<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, Files::isDirectory)) {
+			for (Path directory : stream) {
+				if (Files.isRegularFile(directory.resolve(GLOBAL_FILE_NAME))) {
+					directories.add(directory);
+				}
+			}
+		}
+		employees.keySet().retainAll(directories);
+
+		int recomputed = 0;
+		for (Path directory : directories) {
+			recomputed += refresh(directory, employees.computeIfAbsent(directory, d -> new EmployeeLedger()));
+		}
+		return recomputed;
+	}
+
+	private int refresh(Path directory, EmployeeLedger employee) throws IOException {
+		Path global = directory.resolve(GLOBAL_FILE_NAME);
+		Stamp globalStamp = stamp(global);
+		boolean globalChanged = !globalStamp.equals(employee.globalStamp);
+		employee.globalStamp = globalStamp;
+
+		Map<Path, Stamp> files = new HashMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + INPUT_EXTENSION)) {
+			for (Path file : stream) {
+				if (isMonthFile(file)) {
+					files.put(file, stamp(file));
+				}
+			}
+		}
+
+		YearMonth earliestChange = null;
+		for (Path removed : new ArrayList<>(employee.stamps.keySet())) {
+			if (!files.containsKey(removed)) {
+				employee.stamps.remove(removed);
+				earliestChange = earliest(earliestChange, forget(employee, removed));
+			}
+		}
+
+		byte[] globalJson = null;
+		for (Map.Entry<Path, Stamp> file : files.entrySet()) {
+			if (!globalChanged && file.getValue().equals(employee.stamps.get(file.getKey()))) {
+				continue;
+			}
+			earliestChange = earliest(earliestChange, forget(employee, file.getKey()));
+			employee.stamps.put(file.getKey(), file.getValue());
+			if (globalJson == null) {
+				globalJson = FileController.readFileToBytes(global.toFile());
+			}
+			Summary summary = summarize(globalJson, file.getKey());
+			if (summary != null) {
+				employee.summaries.put(file.getKey(), summary);
+				earliestChange = earliest(earliestChange, summary.yearMonth());
+			}
+		}
+
+		return earliestChange == null ? 0 : recompute(employee, earliestChange);
+	}
+
+	/**
+	 * Removes the summary of a month file.
+	 *
+	 * @return The month of the removed summary, null if there was none.
+	 */
+	private static YearMonth forget(EmployeeLedger employee, Path file) {
+		Summary summary = employee.summaries.remove(file);
+		return summary == null ? null : summary.yearMonth();
+	}
+
+	private Summary summarize(byte[] globalJson, Path file) {
+		try {
+			TimeSheet timeSheet = service.parse(globalJson, FileController.readFileToBytes(file.toFile()));
+			return new Summary(YearMonth.of(timeSheet.getYear(), timeSheet.getMonth()), timeSheet.getPredTransfer(), timeSheet.getSuccTransfer(),
+					timeSheet.getTotalWorkTime().toMinutes() + timeSheet.getTotalVacationTime().toMinutes(),
+					timeSheet.getProfession().getMaxWorkingTime().toMinutes());
+		} catch (IOException | ParseException e) {
+			log.accept(ResourceHandler.getMessage("command.output.ledger.failed", file, e.getMessage()));
+			return null;
+		}
+	}
+
+	/**
+	 * Recomputes the months of an employee from a month on, starting with the
+	 * balance of the month before it.
+	 *
+	 * @return The number of recomputed months.
+	 */
+	private int recompute(EmployeeLedger employee, YearMonth from) {
+		List<Map.Entry<Path, Summary>> summaries = employee.summaries.entrySet().stream()
+				.filter(summary -> !summary.getValue().yearMonth().isBefore(from)).sorted(Map.Entry.comparingByKey()).toList();
+		Map<YearMonth, Map.Entry<Path, Summary>> byMonth = new TreeMap<>();
+		for (Map.Entry<Path, Summary> summary : summaries) {
+			Map.Entry<Path, Summary> other = byMonth.putIfAbsent(summary.getValue().yearMonth(), summary);
+			if (other != null) {
+				log.accept(ResourceHandler.getMessage("command.output.ledger.duplicate", summary.getKey(), other.getKey()));
+			}
+		}
+
+		employee.months.tailMap(from, true).clear();
+		Map.Entry<YearMonth, Month> previousEntry = employee.months.lastEntry();
+		Month previous = previousEntry == null ? null : previousEntry.getValue();
+		for (Map.Entry<Path, Summary> entry : byMonth.values()) {
+			Summary summary = entry.getValue();
+			ChainBreak chainBreak = null;
+			long balance;
+			if (previous == null) {
+				balance = summary.predTransfer().toMinutes();
+			} else {
+				balance = previous.balanceMinutes();
+				if (!previous.yearMonth().plusMonths(1).equals(summary.yearMonth())) {
+					chainBreak = ChainBreak.MISSING_MONTH;
+				} else if (!previous.succTransfer().equals(summary.predTransfer())) {
+					chainBreak = ChainBreak.TRANSFER_MISMATCH;
+				}
+			}
+			balance += summary.workedMinutes() - summary.maxMinutes();
+
+			Month month = new Month(entry.getKey(), summary.yearMonth(), summary.predTransfer(), summary.succTransfer(), summary.workedMinutes(),
+					summary.maxMinutes(), balance, chainBreak);
+			employee.months.put(month.yearMonth(), month);
+			previous = month;
+		}
+		return byMonth.size();
+	}
+
+	/**
+	 * Gets the months of every employee.
+	 *
+	 * @return The months in calendar order by the directory of their employee.
+	 */
+	public synchronized Map<Path, List<Month>> getMonths() {
+		Map<Path, List<Month>> months = new LinkedHashMap<>();
+		employees.forEach((directory, employee) -> months.put(directory, List.copyOf(employee.months.values())));
+		return Collections.unmodifiableMap(months);
+	}
+
+	/**
+	 * Gets the months breaking the chain of transfers of their employee.
+	 *
+	 * @return The breaking months, by employee and in calendar order.
+	 */
+	public synchronized List<Month> getBreaks() {
+		List<Month> breaks = new ArrayList<>();
+		for (EmployeeLedger employee : employees.values()) {
+			employee.months.values().stream().filter(month -> month.chainBreak() != null).forEach(breaks::add);
+		}
+		return breaks;
+	}
+
+	private static boolean isMonthFile(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(INPUT_EXTENSION) && !name.equals(GLOBAL_FILE_NAME) && !name.startsWith(".");
+	}
+
+	private static Stamp stamp(Path file) throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		return new Stamp(attributes.lastModifiedTime(), attributes.size());
+	}
+
+	private static YearMonth earliest(YearMonth a, YearMonth b) {
+		if (a == null || b != null && b.isBefore(a)) {
+			return b;
+		}
+		return a;
+	}
+
+}
@@ -0,0 +1,384 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import data.TimeSheet;
+import i18n.ResourceHandler;
+import io.FileController;
+import io.OutputCache;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches directories of month files and regenerates the LaTeX document of a
+ * month whenever its month file, or the global file of its directory, changes.
+ * <br/>
+ * Every watched directory contains a <code>global.json</code> and any number of
+ * month json files. The document of a month file is written next to it, with
+ * the extension <code>.tex</code>. Bursts of writes to the same file are
+ * debounced, so a month is only regenerated once it was not modified for the
+ * debounce period. Months waiting to be regenerated are held in a bounded
+ * queue, which is processed by a single worker. When the daemon starts, only
+ * months whose document is missing or older than their inputs are
+ * regenerated. <br/>
+ * If an {@link OutputCache} is given, documents are looked up by the hash of
+ * their inputs and holidays before a month is checked and generated. Only
+ * documents of valid months are cached, so a hit is written without checking
+ * the month again.
+ */
+public class WatchDaemon implements AutoCloseable {
+
+	/**
+	 * Default time a file must not be modified before it is processed.
+	 */
+	public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+	/**
+	 * Default maximum number of months waiting to be regenerated.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+	private static final String GLOBAL_FILE_NAME = "global.json";
+	private static final String INPUT_EXTENSION = ".json";
+	private static final String OUTPUT_EXTENSION = ".tex";
+
+	private final TimeSheetService service;
+	private final List<Path> directories;
+	private final long debounceNanos;
+	private final OutputCache cache;
+	private final Consumer<String> log;
+
+	private final WatchService watchService;
+	private final BlockingQueue<Path> queue;
+	/**
+	 * Months that changed, mapped to the time they may be queued. Only accessed by
+	 * the watcher thread.
+	 */
+	private final Map<Path, Long> pending = new LinkedHashMap<>();
+
+	private final Thread watcher;
+	private final Thread worker;
+
+	/**
+	 * Creates a new daemon with the default debounce period and queue capacity.
+	 *
+	 * @param service     - the service regenerating the documents.
+	 * @param directories - the directories to watch.
+	 * @param log         - receives a message for every processed month.
+	 * @throws IOException if a directory could not be watched.
+	 */
+	public WatchDaemon(TimeSheetService service, Collection<Path> directories, Consumer<String> log) throws IOException {
+		this(service, directories, DEFAULT_DEBOUNCE, DEFAULT_QUEUE_CAPACITY, log);
+	}
+
+	/**
+	 * Creates a new daemon without an output cache. The directories are registered
+	 * immediately, but nothing is processed before {@link #start()} is called.
+	 *
+	 * @param service       - the service regenerating the documents.
+	 * @param directories   - the directories to watch.
+	 * @param debounce      - the time a file must not be modified before it is
+	 *                      processed.
+	 * @param queueCapacity - the maximum number of months waiting to be
+	 *                      regenerated.
+	 * @param log           - receives a message for every processed month.
+	 * @throws IOException if a directory could not be watched.
+	 */
+	public WatchDaemon(TimeSheetService service, Collection<Path> directories, Duration debounce, int queueCapacity, Consumer<String> log)
+			throws IOException {
+		this(service, directories, debounce, queueCapacity, null, log);
+	}
+
+	/**
+	 * Creates a new daemon. The directories are registered immediately, but
+	 * nothing is processed before {@link #start()} is called.
+	 *
+	 * @param service       - the service regenerating the documents.
+	 * @param directories   - the directories to watch.
+	 * @param debounce      - the time a file must not be modified before it is
+	 *                      processed.
+	 * @param queueCapacity - the maximum number of months waiting to be
+	 *                      regenerated.
+	 * @param cache         - the cache of generated documents, null to always
+	 *                      generate them.
+	 * @param log           - receives a message for every processed month.
+	 * @throws IOException if a directory could not be watched.
+	 */
+	public WatchDaemon(TimeSheetService service, Collection<Path> directories, Duration debounce, int queueCapacity, OutputCache cache,
+			Consumer<String> log) throws IOException {
+		this.service = service;
+		this.cache = cache;
+		this.directories = directories.stream().map(Path::toAbsolutePath).toList();
+		this.debounceNanos = debounce.toNanos();
+		this.log = log;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+		this.watchService = this.directories.isEmpty() ? null : this.directories.getFirst().getFileSystem().newWatchService();
+		for (Path directory : this.directories) {
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+					StandardWatchEventKinds.OVERFLOW);
+		}
+
+		this.watcher = new Thread(this::watch, "watch-daemon-watcher");
+		this.worker = new Thread(this::work, "watch-daemon-worker");
+	}
+
+	/**
+	 * Starts watching the directories. Months that are out of date are
+	 * regenerated first.
+	 */
+	public void start() {
+		if (watchService == null) {
+			return;
+		}
+		worker.start();
+		watcher.start();
+	}
+
+	/**
+	 * Stops watching the directories. Months that are currently regenerated are
+	 * finished, waiting months are dropped.
+	 */
+	@Override
+	public void close() {
+		if (watchService == null) {
+			return;
+		}
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// The watcher is interrupted anyway
+		}
+		watcher.interrupt();
+		worker.interrupt();
+		try {
+			watcher.join();
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void watch() {
+		for (Path directory : directories) {
+			scan(directory);
+		}
+		long pollMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(debounceNanos) / 2);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+				if (key != null) {
+					handleEvents(key);
+				}
+				enqueueSettled();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// Closed by close()
+		}
+	}
+
+	private void handleEvents(WatchKey key) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				scan(directory);
+				continue;
+			}
+			Path file = directory.resolve((Path) event.context());
+			if (file.getFileName().toString().equals(GLOBAL_FILE_NAME)) {
+				// All months of the directory depend on the global file
+				forEachMonth(directory, this::markChanged);
+			} else if (isMonthFile(file)) {
+				markChanged(file);
+			}
+		}
+		key.reset();
+	}
+
+	/**
+	 * Marks a month as changed. Every further change postpones processing it.
+	 */
+	private void markChanged(Path month) {
+		pending.remove(month); // Keep the map ordered by deadline
+		pending.put(month, System.nanoTime() + debounceNanos);
+	}
+
+	/**
+	 * Queues all months whose debounce period elapsed. If the queue is full, the
+	 * months stay pending until the worker caught up.
+	 */
+	private void enqueueSettled() {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Path, Long> entry = iterator.next();
+			if (entry.getValue() - now > 0 || !queue.offer(entry.getKey())) {
+				return;
+			}
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Marks all months of a directory as changed whose document is out of date.
+	 */
+	private void scan(Path directory) {
+		forEachMonth(directory, month -> {
+			if (isOutdated(month)) {
+				markChanged(month);
+			}
+		});
+	}
+
+	private void forEachMonth(Path directory, Consumer<Path> action) {
+		List<Path> months = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + INPUT_EXTENSION)) {
+			for (Path file : stream) {
+				if (isMonthFile(file)) {
+					months.add(file);
+				}
+			}
+		} catch (IOException e) {
+			log.accept(ResourceHandler.getMessage("command.output.watch.failed", directory, e.getMessage()));
+			return;
+		}
+		months.forEach(action);
+	}
+
+	private static boolean isMonthFile(Path file) {
+		String name = file.getFileName().toString();
+		return name.endsWith(INPUT_EXTENSION) && !name.equals(GLOBAL_FILE_NAME) && !name.startsWith(".");
+	}
+
+	private static Path getOutputFile(Path month) {
+		String name = month.getFileName().toString();
+		return month.resolveSibling(name.substring(0, name.length() - INPUT_EXTENSION.length()) + OUTPUT_EXTENSION);
+	}
+
+	private static boolean isOutdated(Path month) {
+		Path output = getOutputFile(month);
+		Path global = month.resolveSibling(GLOBAL_FILE_NAME);
+		try {
+			if (!Files.exists(output)) {
+				return true;
+			}
+			FileTime generated = Files.getLastModifiedTime(output);
+			return Files.getLastModifiedTime(month).compareTo(generated) > 0
+					|| Files.exists(global) && Files.getLastModifiedTime(global).compareTo(generated) > 0;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	private void work() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				regenerate(queue.take());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Runs a month through parsing, checking and generating and writes the
+	 * document if the month is valid.
+	 */
+	private void regenerate(Path month) {
+		if (!Files.exists(month)) {
+			return; // Deleted in the meantime
+		}
+		Path output = getOutputFile(month);
+		try {
+			String global = FileController.readFileToString(month.resolveSibling(GLOBAL_FILE_NAME).toFile());
+			String monthJson = FileController.readFileToString(month.toFile());
+
+			TimeSheet timeSheet = service.parse(global, monthJson);
+			service.loadHolidays(List.of(timeSheet)); // Skipped once the year is cached
+			String key = getTexCacheKey(global, monthJson, timeSheet);
+			Optional<byte[]> cached = getCached(key);
+			if (cached.isPresent()) {
+				FileController.saveBytesToFile(cached.get(), output.toFile());
+				log.accept(ResourceHandler.getMessage("command.output.watch.generated", output));
+				return;
+			}
+
+			Collection<CheckerError> errors = service.check(timeSheet);
+			if (!errors.isEmpty()) {
+				log.accept(ResourceHandler.getMessage("command.output.watch.invalid", month));
+				errors.forEach(error -> log.accept(error.getErrorMessage()));
+				return;
+			}
+
+			byte[] tex = service.generateTex(timeSheet).getBytes(StandardCharsets.UTF_8);
+			FileController.saveBytesToFile(tex, output.toFile());
+			putCached(key, tex);
+			log.accept(ResourceHandler.getMessage("command.output.watch.generated", output));
+		} catch (IOException | ParseException | CheckerException e) {
+			log.accept(ResourceHandler.getMessage("command.output.watch.failed", month, e.getMessage()));
+		}
+	}
+
+	/**
+	 * Computes the cache key of the document of a month. Failing to compute it
+	 * only disables the cache for this run.
+	 */
+	private String getTexCacheKey(String global, String monthJson, TimeSheet timeSheet) {
+		if (cache == null) {
+			return null;
+		}
+		try {
+			return service.getTexCacheKey(global, monthJson, timeSheet, ResourceHandler.getMessageSource());
+		} catch (IOException | ParseException | CheckerException e) {
+			return null;
+		}
+	}
+
+	private Optional<byte[]> getCached(String key) {
+		if (key == null) {
+			return Optional.empty();
+		}
+		try {
+			return cache.get(key);
+		} catch (IOException e) {
+			return Optional.empty(); // The month is checked and generated instead
+		}
+	}
+
+	private void putCached(String key, byte[] tex) {
+		if (key == null) {
+			return;
+		}
+		try {
+			cache.put(key, tex);
+		} catch (IOException e) {
+			// The document is generated again next time
+		}
+	}
+
+}
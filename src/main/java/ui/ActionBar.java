@@ -69,7 +69,8 @@ public class ActionBar extends JPanel {
 		fontBold = fontNormal.deriveFont(Font.BOLD);
 		hoursWorkedLabel.setFont(fontNormal);
 		this.add(hoursWorkedLabel, BorderLayout.EAST);
-		updateHours(new Time());
+		// The total hours are shown once the global settings are loaded
+		JSONHandler.whenGlobalSettingsLoaded(this.parentUi::updateTotalTimeWorkedUI);
 	}
 
 	/**
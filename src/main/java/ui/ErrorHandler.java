@@ -21,6 +21,10 @@ public final class ErrorHandler {
 			System.err.printf("Error (%s): %s%n", title, error);
 			return;
 		}
+		if (!SwingUtilities.isEventDispatchThread()) { // e.g. while loading the settings in the background
+			SwingUtilities.invokeLater(() -> showError(title, error));
+			return;
+		}
 		JOptionPane.showMessageDialog(parentComponent, error, title, JOptionPane.ERROR_MESSAGE);
 	}
 
@@ -3,10 +3,9 @@ package ui;
 
 import ui.json.Month;
 
-import java.time.Duration;
 import java.time.LocalTime;
 
-public class TimesheetEntry {
+public class TimesheetEntry implements Comparable<TimesheetEntry> {
 
 	public static final String TIMESHEET_FORMAT_HEADER = "            %-55s %-15s %-20s %-20s %-20s %-20s %-20s";
 	public static final String TIMESHEET_FORMAT = " %-40s      %-10s %-25s %-25s %-25s %-25s %-25s";
@@ -26,6 +25,8 @@ public class TimesheetEntry {
 	private final int breakMinutes;
 	private final boolean isVacation;
 
+	private String htmlString; // caching, entries are immutable
+
 	public static TimesheetEntry generateTimesheetEntry(String activity, int day, String startText, String endText, String breakText, boolean isVacation) {
 		LocalTime parsedStartTime = DialogHelper.parseTime(startText);
 		LocalTime parsedEndTime = DialogHelper.parseTime(endText);
@@ -167,10 +168,13 @@ public class TimesheetEntry {
 		return String.format(TIME_FORMAT, hoursWorked, minutesWorked);
 	}
 
-	public Time getWorkedTime() {
-		Duration workDuration = Duration.between(LocalTime.of(fromHour, fromMinute), LocalTime.of(toHour, toMinute))
-				.minus(Duration.ofHours(breakHour).plusMinutes(breakMinutes));
-		return new Time((int) workDuration.toHours(), (int) workDuration.toMinutes() % 60);
+	/**
+	 * Gets the worked time in minutes, without the time spent on break.
+	 * 
+	 * @return The worked minutes.
+	 */
+	public int getWorkedMinutes() {
+		return (toHour * 60 + toMinute) - (fromHour * 60 + fromMinute) - (breakHour * 60 + breakMinutes);
 	}
 
 	public boolean isVacation() {
@@ -186,25 +190,24 @@ public class TimesheetEntry {
 	}
 
 	public boolean isLaterThan(TimesheetEntry other) {
-		if (this.day < other.day)
-			return false;
-		if (this.day > other.day)
-			return true;
-		if (this.fromHour < other.fromHour)
-			return false;
-		if (this.fromHour > other.fromHour)
-			return true;
-		if (this.fromMinute < other.fromMinute)
-			return false;
-		if (this.fromMinute > other.fromMinute)
-			return true;
-		// If none of those, select the one that ends later is later
-		if (this.toHour < other.toHour)
-			return false;
-		if (this.toHour > other.toHour)
-			return true;
-		// Return true if this.toMinute >= other.toMinute
-		return this.toMinute >= other.toMinute;
+		return compareTo(other) >= 0;
+	}
+
+	/**
+	 * Compares by day, start time and end time.
+	 */
+	@Override
+	public int compareTo(TimesheetEntry other) {
+		if (this.day != other.day)
+			return Integer.compare(this.day, other.day);
+		if (this.fromHour != other.fromHour)
+			return Integer.compare(this.fromHour, other.fromHour);
+		if (this.fromMinute != other.fromMinute)
+			return Integer.compare(this.fromMinute, other.fromMinute);
+		// If none of those, the one that ends later is later
+		if (this.toHour != other.toHour)
+			return Integer.compare(this.toHour, other.toHour);
+		return Integer.compare(this.toMinute, other.toMinute);
 	}
 
 	@Override
@@ -214,6 +217,12 @@ public class TimesheetEntry {
 	}
 
 	public String toHtmlString() {
+		if (htmlString == null)
+			htmlString = formatHtmlString();
+		return htmlString;
+	}
+
+	private String formatHtmlString() {
 		return String.format("<html>" + "<table width='100%%' cellpadding='0' cellspacing='0'>" + "<tr>"
 				+ "<td width='360' style='text-align:left; white-space:nowrap; overflow:hidden; text-overflow:ellipsis;'>%s</td>"
 				+ "<td width='105' style='text-align:left;'>%s</td>" + "<td width='133' style='text-align:left;'>%s</td>"
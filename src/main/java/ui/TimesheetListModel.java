@@ -0,0 +1,149 @@
+/* Licensed under MIT 2024. */
+package ui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * List model holding the entries of the time sheet, always sorted by
+ * {@link TimesheetEntry#compareTo(TimesheetEntry)}. New entries are inserted
+ * by binary search, and the total time worked as well as the number of
+ * non-vacation entries are kept up to date on every change, so neither
+ * requires a scan over all entries.
+ */
+public class TimesheetListModel extends AbstractListModel<TimesheetEntry> implements Iterable<TimesheetEntry> {
+
+	private final List<TimesheetEntry> entries = new ArrayList<>();
+
+	private int totalWorkedMinutes;
+	private int workEntryCount;
+
+	@Override
+	public int getSize() {
+		return entries.size();
+	}
+
+	@Override
+	public TimesheetEntry getElementAt(int index) {
+		return entries.get(index);
+	}
+
+	@Override
+	public Iterator<TimesheetEntry> iterator() {
+		return Collections.unmodifiableList(entries).iterator();
+	}
+
+	/**
+	 * Inserts an entry at its sorted position. Entries equal to already contained
+	 * entries are inserted before them.
+	 * 
+	 * @param entry The entry to insert.
+	 * @return The index the entry was inserted at.
+	 */
+	public int add(TimesheetEntry entry) {
+		int index = lowerBound(entry);
+		entries.add(index, entry);
+		count(entry, 1);
+		fireIntervalAdded(this, index, index);
+		return index;
+	}
+
+	/**
+	 * Removes the entry at the given index.
+	 * 
+	 * @param index The index of the entry to remove.
+	 * @return The removed entry.
+	 */
+	public TimesheetEntry remove(int index) {
+		TimesheetEntry entry = entries.remove(index);
+		count(entry, -1);
+		fireIntervalRemoved(this, index, index);
+		return entry;
+	}
+
+	/**
+	 * Removes the given entry instance, if it is contained in this model.
+	 * 
+	 * @param entry The entry to remove.
+	 * @return True if the entry was removed, false otherwise.
+	 */
+	public boolean remove(TimesheetEntry entry) {
+		int index = indexOf(entry);
+		if (index < 0)
+			return false;
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Gets the index of the given entry instance.
+	 * 
+	 * @param entry The entry to search.
+	 * @return The index of the entry, or -1 if it is not contained in this model.
+	 */
+	public int indexOf(TimesheetEntry entry) {
+		// Only equal entries have to be compared by identity
+		for (int i = lowerBound(entry); i < entries.size() && entries.get(i).compareTo(entry) == 0; i++) {
+			if (entries.get(i) == entry)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		int size = entries.size();
+		if (size == 0)
+			return;
+		entries.clear();
+		totalWorkedMinutes = 0;
+		workEntryCount = 0;
+		fireIntervalRemoved(this, 0, size - 1);
+	}
+
+	/**
+	 * Gets the sum of the worked time of all entries, including vacation entries.
+	 * 
+	 * @return The total time worked.
+	 */
+	public Time getTotalWorkedTime() {
+		return new Time(0, totalWorkedMinutes);
+	}
+
+	/**
+	 * Gets the number of entries that are not vacation entries.
+	 * 
+	 * @return The number of work entries.
+	 */
+	public int getWorkEntryCount() {
+		return workEntryCount;
+	}
+
+	private void count(TimesheetEntry entry, int sign) {
+		totalWorkedMinutes += sign * entry.getWorkedMinutes();
+		if (!entry.isVacation())
+			workEntryCount += sign;
+	}
+
+	/**
+	 * Finds the first index whose entry is not less than the given entry.
+	 */
+	private int lowerBound(TimesheetEntry entry) {
+		int low = 0;
+		int high = entries.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (entries.get(mid).compareTo(entry) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+}
@@ -1,16 +1,26 @@
 /* Licensed under MIT 2024. */
 package ui;
 
+import profiling.StartupMilestone;
 import ui.fileexplorer.FileChooser;
 import ui.fileexplorer.FileChooserType;
 import ui.json.JSONHandler;
 import ui.json.Month;
+import ui.json.MonthJournal;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class UserInterface {
 
@@ -23,13 +33,46 @@ public class UserInterface {
 	private static final String APP_NAME = "Timesheet Generator";
 	private static final String TITLE = "%s: %s";
 
+	/**
+	 * Delay after the last edit until the editor is written to the journal, so a
+	 * burst of edits results in a single record.
+	 */
+	private static final int JOURNAL_DELAY_MS = 500;
+	/**
+	 * Interval in which unsaved changes to an already saved month file are saved
+	 * automatically.
+	 */
+	private static final int AUTO_SAVE_INTERVAL_MS = 60_000;
+
 	private File currentOpenFile;
 	private boolean hasUnsavedChanges = false;
+	/**
+	 * Incremented on every edit, so a save that completes after further edits
+	 * does not mark them as saved.
+	 */
+	private int editCount;
+	private PendingSave pendingSave;
+
+	private MonthJournal journal;
+	private final Timer journalTimer = new Timer(JOURNAL_DELAY_MS, e -> journalCurrentMonth());
+	private final Timer autoSaveTimer = new Timer(AUTO_SAVE_INTERVAL_MS, e -> autoSave());
+
+	/**
+	 * A save that was started but whose result was not yet applied to the editor.
+	 *
+	 * @param future    Completed once the month file is written.
+	 * @param file      The month file that is written.
+	 * @param editCount The edit count when the save was started.
+	 * @param checkFile If the file has to be checked before it is opened in the
+	 *                  editor.
+	 */
+	private record PendingSave(CompletableFuture<Void> future, File file, int editCount, boolean checkFile) {
+	}
 
 	private JFrame frame;
 	private JPanel listPanel;
 	private JList<TimesheetEntry> itemList;
-	private DefaultListModel<TimesheetEntry> listModel;
+	private TimesheetListModel listModel;
 
 	private MonthlySettingsBar monthSettingsBar;
 	private ActionBar buttonActionBar;
@@ -49,8 +92,17 @@ public class UserInterface {
 		frame.setResizable(false);
 		ErrorHandler.setParentComponent(frame);
 
-		// Initialize JSONHandler. It needs the frame to exist to display error messages
+		// Initialize JSONHandler. It needs the frame to exist to display error messages,
+		// the settings are loaded in the background while the frame is shown
 		JSONHandler.initialize();
+		try {
+			journal = MonthJournal.open(JSONHandler.getJournalDirectory().toPath());
+		} catch (IOException e) { // Journal of this process only, which is never recovered
+			ErrorHandler.showError("Error opening journal",
+					"The unsaved changes of this session cannot be recovered after a crash:%s%s".formatted(System.lineSeparator(), e.getMessage()));
+			journal = new MonthJournal(Path.of(System.getProperty("java.io.tmpdir"), "TimeSheetGenerator-journal-%d.ndjson".formatted(ProcessHandle.current().pid())));
+		}
+		journalTimer.setRepeats(false);
 
 		// Menu Bar
 		JMenuBar menuBar = new JMenuBar();
@@ -81,8 +133,27 @@ public class UserInterface {
 		frame.add(buttonActionBar, BorderLayout.WEST);
 
 		// Main Content Area with Vertical List
-		listModel = new DefaultListModel<>();
+		listModel = new TimesheetListModel();
+		listModel.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				updateTotalTimeWorkedUI();
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				updateTotalTimeWorkedUI();
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				updateTotalTimeWorkedUI();
+			}
+		});
 		itemList = new JList<>(listModel);
+		// All rows have the same height, so the list does not need to measure every
+		// row to lay itself out
+		itemList.setPrototypeCellValue(new TimesheetEntry("Prototype", 1, new Time(10, 0), new Time(12, 0), new Time(0, 0), false));
 		itemList.setCellRenderer(new DefaultListCellRenderer() {
 			@Override
 			public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
@@ -147,14 +218,23 @@ public class UserInterface {
 		frame.setVisible(true);
 
 		frame.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowOpened(WindowEvent e) {
+				StartupMilestone.FIRST_FRAME.reached();
+			}
+
 			@Override
 			public void windowClosing(WindowEvent e) {
 				if (closeCurrentOpenFile()) {
+					autoSaveTimer.stop();
+					journalTimer.stop();
+					journal.close(); // Waits until pending saves are written
 					frame.dispose();
 					System.exit(0);
 				}
 			}
 		});
+		autoSaveTimer.start();
 	}
 
 	public void setBackgroundColor(Color color) {
@@ -188,10 +268,6 @@ public class UserInterface {
 		return hasUnsavedChanges;
 	}
 
-	public File generateTempMonthFile() {
-		return JSONHandler.generateTemporaryJSONFile(monthSettingsBar, listModel);
-	}
-
 	public Time getPredTime() {
 		return monthSettingsBar.getPredTime();
 	}
@@ -200,6 +276,10 @@ public class UserInterface {
 		return frame.getWidth();
 	}
 
+	public JFrame getFrame() {
+		return frame;
+	}
+
 	/**
 	 * Clears the workspace. Will prompt to save changes if there are any. Returns
 	 * if to proceed (true) or not (false). If false is returned, there are unsaved
@@ -212,6 +292,7 @@ public class UserInterface {
 			return false;
 		// Delete all content
 		currentOpenFile = null;
+		pendingSave = null; // A save still running no longer belongs to the editor
 		listModel.clear();
 		monthSettingsBar.reset();
 		setHasUnsavedChanges(false);
@@ -229,7 +310,17 @@ public class UserInterface {
 		if (!hasUnsavedChanges)
 			return true;
 		// Prompt to save
-		return SaveOnClosePrompt.showDialog(this);
+		PendingSave previousSave = pendingSave;
+		boolean proceed = SaveOnClosePrompt.showDialog(this);
+		if (proceed && pendingSave != previousSave && !awaitPendingSave()) {
+			// The save failed, the changes are kept
+			return false;
+		}
+		if (proceed && hasUnsavedChanges) {
+			// The changes were discarded, so they must not be recovered either
+			journal.discard();
+		}
+		return proceed;
 	}
 
 	public void saveFile(File newSaveFile) {
@@ -246,15 +337,70 @@ public class UserInterface {
 		File newSaveFile = FileChooser.chooseCreateJSONFile(this, "Save as...");
 		if (newSaveFile == null)
 			return;
-		saveFileCommon(newSaveFile);
-		setEditorFile(newSaveFile);
+		save(newSaveFile, true);
 	}
 
+	/**
+	 * Saves the editor to the given file. The file is written in the background by
+	 * the journal, so this returns immediately. Only once the file is written, it
+	 * becomes the open file and the changes are marked as saved. If it could not
+	 * be written, an error is shown and the changes stay unsaved.
+	 *
+	 * @param newSaveFile The file to save to.
+	 */
 	public void saveFileCommon(File newSaveFile) {
-		JSONHandler.saveMonth(newSaveFile, monthSettingsBar, listModel);
+		save(newSaveFile, false);
+	}
 
-		currentOpenFile = newSaveFile;
-		setHasUnsavedChanges(false);
+	private void save(File newSaveFile, boolean checkFile) {
+		PendingSave save = new PendingSave(journal.save(newSaveFile, getCurrentMonth()), newSaveFile, editCount, checkFile);
+		pendingSave = save;
+		save.future().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+			if (error != null) {
+				showSaveError(newSaveFile, error);
+			} else {
+				saveCompleted(save);
+			}
+		}));
+	}
+
+	/**
+	 * Applies a successful save to the editor, unless it was already applied or a
+	 * later save or another file superseded it.
+	 */
+	private void saveCompleted(PendingSave save) {
+		if (pendingSave != save)
+			return;
+		pendingSave = null;
+		currentOpenFile = save.file();
+		if (save.checkFile())
+			setEditorFile(save.file());
+		setHasUnsavedChanges(editCount != save.editCount());
+	}
+
+	/**
+	 * Waits until the pending save is written and applies it. The error of a failed
+	 * save is shown once it is handed to the event dispatch thread.
+	 *
+	 * @return If the pending save succeeded.
+	 */
+	private boolean awaitPendingSave() {
+		PendingSave save = pendingSave;
+		if (save == null)
+			return true;
+		try {
+			save.future().join();
+		} catch (CompletionException | CancellationException e) {
+			return false;
+		}
+		saveCompleted(save);
+		return true;
+	}
+
+	private void showSaveError(File file, Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		ErrorHandler.showError("Error saving month file", "%s could not be saved, the changes are kept:%s%s".formatted(file.getName(),
+				System.lineSeparator(), cause.getMessage()));
 	}
 
 	public void openFile() {
@@ -282,9 +428,72 @@ public class UserInterface {
 
 	public void setHasUnsavedChanges(boolean hasUnsavedChanges) {
 		this.hasUnsavedChanges = hasUnsavedChanges;
+		if (hasUnsavedChanges) {
+			editCount++;
+			journalTimer.restart();
+		} else {
+			journalTimer.stop();
+		}
 		updateTitle();
 	}
 
+	/**
+	 * Writes the editor to the journal, so the unsaved changes can be recovered
+	 * after a crash.
+	 */
+	private void journalCurrentMonth() {
+		if (!hasUnsavedChanges)
+			return;
+		Month month;
+		try {
+			month = getCurrentMonth();
+		} catch (NumberFormatException e) {
+			// The year is currently being edited, the next edit is journaled again
+			return;
+		}
+		journal.append(currentOpenFile, month);
+	}
+
+	private void autoSave() {
+		if (!hasUnsavedChanges || currentOpenFile == null)
+			return;
+		try {
+			saveFileCommon(currentOpenFile);
+		} catch (NumberFormatException e) {
+			// The year is currently being edited, try again next time
+		}
+	}
+
+	/**
+	 * Offers to restore the unsaved changes of a previous session that did not end
+	 * properly and is not running anymore. Must be called before anything is
+	 * edited.
+	 *
+	 * @return If the unsaved changes were restored.
+	 */
+	public boolean recoverUnsavedChanges() {
+		Optional<MonthJournal.Snapshot> snapshot;
+		try {
+			snapshot = journal.recover();
+		} catch (IOException e) {
+			ErrorHandler.showError("Error reading journal", "The unsaved changes of the last session could not be recovered:%s%s"
+					.formatted(System.lineSeparator(), e.getMessage()));
+			return false;
+		}
+		if (snapshot.isEmpty())
+			return false;
+		if (!showOKCancelDialog("Recover Unsaved Changes?", "The last session was not closed properly. Recover its unsaved changes?")) {
+			journal.discard();
+			return false;
+		}
+
+		File file = snapshot.get().file();
+		currentOpenFile = file != null && file.exists() ? file : null;
+		JSONHandler.importMonth(this, snapshot.get().month());
+		setHasUnsavedChanges(true);
+		return true;
+	}
+
 	public boolean setEditorFile(File file) {
 		if (!file.exists())
 			return false;
@@ -316,28 +525,14 @@ public class UserInterface {
 	}
 
 	public boolean isSpaceForNewEntry() {
-		// Loop and exclude holiday entries. Keeping track live invite bugs, and for <=
-		// 22 entries + reasonable holidays, this works. If you really want to just
-		// break the program, there are easier ways of doing it
-		int entries = listModel.size();
-		for (int i = 0; i < itemList.getModel().getSize(); i++) {
-			if (listModel.getElementAt(i).isVacation())
-				entries--;
-		}
-		return entries < MAX_ENTRIES;
+		// Vacation entries are excluded, the model keeps track of the count
+		return listModel.getWorkEntryCount() < MAX_ENTRIES;
 	}
 
 	public void addEntry(TimesheetEntry entry) {
-		for (int i = 0; i < listModel.getSize(); i++) {
-			if (listModel.getElementAt(i).isLaterThan(entry)) {
-				listModel.insertElementAt(entry, i);
-				updateTotalTimeWorkedUI();
-				return;
-			}
-		}
-		// Add to end of list
-		listModel.addElement(entry);
-		updateTotalTimeWorkedUI();
+		// The model inserts the entry at its sorted position and notifies the total
+		// time label
+		listModel.add(entry);
 	}
 
 	public void duplicateSelectedListEntry() {
@@ -357,9 +552,8 @@ public class UserInterface {
 			return;
 		TimesheetEntry entry = listModel.getElementAt(selectedItemIndex);
 		DialogHelper.showEntryDialog(this, "Edit Entry", entry);
-		listModel.removeElement(entry);
+		listModel.remove(entry);
 		itemList.setSelectedIndex(-1);
-		updateTotalTimeWorkedUI();
 	}
 
 	public void removeSelectedListEntry() {
@@ -371,25 +565,18 @@ public class UserInterface {
 			return;
 
 		setHasUnsavedChanges(true);
-		listModel.removeElementAt(selectedItemIndex);
+		listModel.remove(selectedItemIndex);
 		itemList.setSelectedIndex(-1);
 	}
 
 	public void updateTotalTimeWorkedUI() {
-		Time worked = calculateTotalTimeWorked();
+		if (!JSONHandler.isGlobalSettingsLoaded()) // Updated once they are loaded
+			return;
+		Time worked = listModel.getTotalWorkedTime();
 		Time succTime = buttonActionBar.updateHours(worked);
 		monthSettingsBar.setSuccTime(succTime.toString());
 	}
 
-	private Time calculateTotalTimeWorked() {
-		Time workedTime = new Time();
-		for (int i = 0; i < listModel.getSize(); i++) {
-			TimesheetEntry entry = listModel.getElementAt(i);
-			workedTime.addTime(entry.getWorkedTime());
-		}
-		return workedTime;
-	}
-
 	private boolean showOKCancelDialog(String title, String message) {
 		int result = JOptionPane.showConfirmDialog(frame, message, title, JOptionPane.OK_CANCEL_OPTION);
 		return JOptionPane.OK_OPTION == result;
@@ -405,7 +592,7 @@ public class UserInterface {
 				UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
 				UserInterface ui = new UserInterface();
 				ui.setHasUnsavedChanges(false);
-				if (file != null && file.exists())
+				if (!ui.recoverUnsavedChanges() && file != null && file.exists())
 					ui.openFile(file);
 			} catch (Exception e) {
 				JFrame frame = new JFrame();
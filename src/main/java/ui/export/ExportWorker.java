@@ -0,0 +1,120 @@
+/* Licensed under MIT 2024. */
+package ui.export;
+
+import ui.ErrorHandler;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs a single step of an export in the background, so the event dispatch
+ * thread stays responsive. While the step is running, a modal dialog shows the
+ * current progress and allows cancelling the export. The result of the step is
+ * handed back to the event dispatch thread. Cancelling does not stop a step
+ * that is already running, so steps check for cancellation before they write
+ * any file.
+ */
+final class ExportWorker extends SwingWorker<Optional<String>, String> {
+
+	private static final String ERROR = "An unexpected error occurred:%s%s".formatted(System.lineSeparator(), "%s");
+
+	/**
+	 * A step of an export that is executed off the event dispatch thread.
+	 */
+	@FunctionalInterface
+	interface ExportStep {
+
+		/**
+		 * Runs the export step.
+		 *
+		 * @param progress  Consumer for progress messages shown to the user.
+		 * @param cancelled Tells whether the export was cancelled, in which case no
+		 *                  file must be written anymore.
+		 * @return An optional of the error message, empty if success.
+		 * @throws Exception if an unexpected error occurs.
+		 */
+		Optional<String> run(Consumer<String> progress, BooleanSupplier cancelled) throws Exception;
+
+	}
+
+	private final String title;
+	private final ExportStep step;
+	private final Consumer<Optional<String>> onResult;
+
+	private final JDialog dialog;
+	private final JLabel statusLabel;
+
+	private ExportWorker(Component parent, String title, ExportStep step, Consumer<Optional<String>> onResult) {
+		this.title = title;
+		this.step = step;
+		this.onResult = onResult;
+
+		dialog = new JDialog(parent == null ? null : SwingUtilities.getWindowAncestor(parent), title, Dialog.ModalityType.APPLICATION_MODAL);
+		dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		dialog.setLayout(new BorderLayout(10, 10));
+		dialog.setSize(350, 130);
+		dialog.setLocationRelativeTo(parent);
+
+		statusLabel = new JLabel("Preparing...", SwingConstants.CENTER);
+		dialog.add(statusLabel, BorderLayout.NORTH);
+
+		JProgressBar progressBar = new JProgressBar();
+		progressBar.setIndeterminate(true);
+		dialog.add(progressBar, BorderLayout.CENTER);
+
+		JButton cancelButton = new JButton("Cancel");
+		cancelButton.addActionListener(e -> cancel(true));
+		JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+		buttonPanel.add(cancelButton);
+		dialog.add(buttonPanel, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Executes an export step in the background and blocks user input with a
+	 * progress dialog until the step is finished or cancelled. Must be called on
+	 * the event dispatch thread.
+	 *
+	 * @param parent   The component the progress dialog is shown relative to.
+	 * @param title    The title of the progress dialog.
+	 * @param step     The export step to execute in the background.
+	 * @param onResult Called on the event dispatch thread with the result of the
+	 *                 step, unless the step was cancelled or failed unexpectedly.
+	 */
+	static void execute(Component parent, String title, ExportStep step, Consumer<Optional<String>> onResult) {
+		ExportWorker worker = new ExportWorker(parent, title, step, onResult);
+		worker.execute();
+		// Blocks until the dialog is disposed in done(), but keeps processing events
+		worker.dialog.setVisible(true);
+	}
+
+	@Override
+	protected Optional<String> doInBackground() throws Exception {
+		return step.run(this::publish, this::isCancelled);
+	}
+
+	@Override
+	protected void process(List<String> chunks) {
+		statusLabel.setText(chunks.getLast());
+	}
+
+	@Override
+	protected void done() {
+		dialog.dispose();
+		try {
+			if (!isCancelled()) {
+				onResult.accept(get());
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			ErrorHandler.showError(title, ERROR.formatted(cause.getMessage()));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -1,14 +1,27 @@
 /* Licensed under MIT 2024. */
 package ui.export;
 
+import data.TimeSheet;
+import parser.ParseException;
 import ui.ErrorHandler;
 import ui.UserInterface;
 import ui.fileexplorer.FileChooser;
+import ui.json.Global;
 import ui.json.JSONHandler;
+import ui.json.Month;
 
 import java.io.File;
 import java.util.Optional;
-
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Exports the time sheet currently open in the {@link UserInterface}. Reading
+ * the editor state and choosing the target file happens on the event dispatch
+ * thread, while validation and file generation are run in the background by an
+ * {@link ExportWorker}. The editor state is converted to a {@link TimeSheet} in
+ * memory, so no temporary files are needed.
+ */
 public final class FileExporter {
 
 	private FileExporter() {
@@ -16,57 +29,76 @@ public final class FileExporter {
 	}
 
 	public static void printTex(UserInterface parentUi) {
-		try (TempFiles tempFiles = TempFiles.generateNewTemp(parentUi)) {
-			if (tempFiles == null) {
-				ErrorHandler.showError("Failed to create temporary file", "Could not create month.json file. If you have unsaved changes, try saving.");
-				return;
-			}
-
-			Optional<String> error = TexCompiler.validateContents(tempFiles);
-			if (error.isPresent()) {
-				error("Validation error", error.get());
-				return;
-			}
+		Global global = JSONHandler.getGlobalSettings();
+		Month month = parentUi.getCurrentMonth();
 
+		validate(parentUi, "Compile to Tex", global, month, timeSheet -> {
 			File texFile = FileChooser.chooseCreateTexFile(parentUi, "Compile to Tex");
 			if (texFile == null)
 				return; // Cancelled
 
-			TexCompiler.compileToTex(tempFiles.getMonthFile(), texFile);
-
-			if (!texFile.exists()) {
-				error("Latex compiler error", "Tex file creation failed!");
-			}
-		}
+			ExportWorker.execute(parentUi.getFrame(), "Compile to Tex", (progress, cancelled) -> {
+				progress.accept("Generating tex file...");
+				TexCompiler.compileToTex(timeSheet, texFile, cancelled);
+				return Optional.empty();
+			}, result -> {
+				if (!texFile.exists()) {
+					error("Latex compiler error", "Tex file creation failed!");
+				}
+			});
+		});
 	}
 
 	public static void printPDF(UserInterface parentUi) {
-		try (TempFiles tempFiles = TempFiles.generateNewTemp(parentUi)) {
-			if (tempFiles == null)
-				return;
-
-			Optional<String> error = TexCompiler.validateContents(tempFiles);
-			if (error.isPresent()) {
-				error("Validation error", error.get());
-				return;
-			}
+		Global global = JSONHandler.getGlobalSettings();
+		Month month = parentUi.getCurrentMonth();
 
+		validate(parentUi, "Print to PDF", global, month, timeSheet -> {
 			File pdfFile = FileChooser.chooseCreatePDFFile(parentUi, "Print to PDF");
 			if (pdfFile == null) {
 				return; // Cancelled
 			}
 
-			error = PDFCompiler.compileToPDF(JSONHandler.getGlobalSettings(), parentUi.getCurrentMonth(), pdfFile);
+			ExportWorker.execute(parentUi.getFrame(), "Print to PDF", (progress, cancelled) -> {
+				progress.accept("Writing PDF file...");
+				return PDFCompiler.compileToPDF(timeSheet, pdfFile, cancelled);
+			}, error -> {
+				if (error.isPresent()) {
+					error("PDF compiler error", error.get());
+				} else if (!pdfFile.exists()) {
+					error("Failed to create PDF", "PDF file creation failed! Perhaps try to compile to tex?");
+				}
+			});
+		});
+	}
 
+	/**
+	 * Converts and validates the time sheet in the background and continues with
+	 * the given action on the event dispatch thread if it is valid.
+	 *
+	 * @param parentUi The parent UserInterface.
+	 * @param title    The title of the export.
+	 * @param global   The global settings to export.
+	 * @param month    The month to export.
+	 * @param onValid  The continuation of the export if the time sheet is valid.
+	 */
+	private static void validate(UserInterface parentUi, String title, Global global, Month month, Consumer<TimeSheet> onValid) {
+		AtomicReference<TimeSheet> timeSheet = new AtomicReference<>();
+		ExportWorker.execute(parentUi.getFrame(), title, (progress, cancelled) -> {
+			progress.accept("Validating time sheet...");
+			try {
+				timeSheet.set(TexCompiler.toTimeSheet(global, month));
+			} catch (ParseException e) {
+				return Optional.of(e.getMessage());
+			}
+			return TexCompiler.validateContents(timeSheet.get());
+		}, error -> {
 			if (error.isPresent()) {
-				error("PDF compiler error", error.get());
+				error("Validation error", error.get());
 				return;
 			}
-
-			if (!pdfFile.exists()) {
-				error("Failed to create PDF", "PDF file creation failed! Perhaps try to compile to tex?");
-			}
-		}
+			onValid.accept(timeSheet.get());
+		});
 	}
 
 	private static void error(String title, String error) {
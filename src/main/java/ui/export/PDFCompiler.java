@@ -1,22 +1,16 @@
 /* Licensed under MIT 2024. */
 package ui.export;
 
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
-import ui.Time;
-import ui.json.Global;
+import data.TimeSheet;
+import i18n.ResourceHandler;
+import io.FileController;
+import service.TimeSheetService;
 import ui.json.JSONHandler;
-import ui.json.Month;
 
-import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.function.BooleanSupplier;
 
 public class PDFCompiler {
 
@@ -24,90 +18,26 @@ public class PDFCompiler {
 		throw new IllegalAccessError();
 	}
 
-	public static Optional<String> compileToPDF(Global global, Month month, File targetFile) {
-		try (InputStream templateStream = PDFCompiler.class.getResourceAsStream("/pdf/template.pdf")) {
-			if (templateStream == null) {
-				return Optional.of("Template PDF not found in resources.");
+	/**
+	 * Generates the PDF document of a time sheet and saves it, unless the export
+	 * was cancelled in the meantime. The file is replaced atomically, so it is
+	 * either left untouched or completely written.
+	 * 
+	 * @param timeSheet  The time sheet.
+	 * @param targetFile The file to save the document to.
+	 * @param cancelled  Tells whether the export was cancelled.
+	 * @return An optional of the error message, empty if success.
+	 */
+	public static Optional<String> compileToPDF(TimeSheet timeSheet, File targetFile, BooleanSupplier cancelled) {
+		try {
+			byte[] pdf = TimeSheetService.getDefault().generatePdf(timeSheet, JSONHandler.getUISettings().getAddSignature(),
+					ResourceHandler.getMessageSource());
+			if (!cancelled.getAsBoolean()) {
+				FileController.saveBytesToFile(pdf, targetFile);
 			}
-
-			PDDocument document = Loader.loadPDF(templateStream.readAllBytes());
-			return writeToPDF(document, global, month, targetFile);
-
 		} catch (IOException e) {
 			return Optional.of(e.getMessage());
 		}
-	}
-
-	private static Optional<String> writeToPDF(PDDocument document, Global global, Month month, File targetFile) throws IOException {
-		PDAcroForm form = document.getDocumentCatalog().getAcroForm();
-		if (form == null) {
-			return Optional.of("No form found in the document. Nothing we can do, sorry.");
-		}
-
-		form.getField("GF").setValue(global.getNameFormalFormat()); // Name
-		form.getField("abc").setValue(String.valueOf(month.getMonth())); // Month
-		form.getField("abdd").setValue(String.valueOf(month.getYear())); // Year
-		form.getField("Personalnummer").setValue(String.valueOf(global.getStaffId())); // Personalnummer
-		if (global.getWorkingArea().equals("gf")) {
-			form.getField("GFB").setValue("On");
-			form.getField("UB").setValue("Off");
-		} else if (global.getWorkingArea().equals("ub")) {
-			form.getField("GFB").setValue("Off");
-			form.getField("UB").setValue("On");
-		}
-		form.getField("OE").setValue(global.getDepartment()); // Probably department
-		form.getField("Std").setValue(global.getWorkingTime()); // Total hours
-		form.getField("Stundensatz").setValue(String.valueOf(global.getWage()));// Wage
-
-		form.getField("Übertrag vom Vormonat").setValue(month.getPredTransfer()); // Pred Übertrag
-		form.getField("Übertrag in den Folgemonat").setValue(month.getSuccTransfer()); // Succ Übertrag
-
-		Time timeSum = Time.parseTime(month.getPredTransfer());
-		Time timeVacation = new Time();
-		form.getField("monatliche SollArbeitszeit").setValue(global.getWorkingTime()); // Again hours probably
-
-		try {
-			form.getField("Ich bestätige die Richtigkeit der Angaben")
-					.setValue("%s, %s".formatted(DateTimeFormatter.ofPattern("dd.MM.yyyy").format(LocalDateTime.now()),
-							JSONHandler.getUISettings().getAddSignature() ? global.getName() : ""));
-		} catch (EOFException ignored) {
-			Logger.getGlobal().warning("Could not load font for signature field when exporting to PDF. Proceeding with default.");
-		}
-
-		final DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("dd.MM.yy");
-
-		int fieldIndex = 1;
-		for (int i = 0; i < month.getEntries().size(); i++) {
-			Month.Entry entry = month.getEntries().get(i);
-			Time time = Time.parseTime(entry.getEnd());
-			time.subtractTime(Time.parseTime(entry.getStart()));
-			time.subtractTime(Time.parseTime(entry.getPause()));
-			timeSum.addTime(time);
-
-			if (entry.isVacation()) {
-				timeVacation.addTime(time);
-				continue;
-			}
-
-			form.getField("Tätigkeit Stichwort ProjektRow%d".formatted(fieldIndex)).setValue(entry.getAction());
-			form.getField("ttmmjjRow%d".formatted(fieldIndex))
-					.setValue(dayFormatter.format(LocalDateTime.of(month.getYear(), month.getMonth(), entry.getDay(), 0, 0)));
-			form.getField("hhmmRow%d".formatted(fieldIndex)).setValue(entry.getStart());
-			form.getField("hhmmRow%d_2".formatted(fieldIndex)).setValue(entry.getEnd());
-			form.getField("hhmmRow%d_3".formatted(fieldIndex)).setValue(entry.getPause());
-
-			String timeFieldValue = time.toString();
-			form.getField("hhmmRow%d_4".formatted(fieldIndex)).setValue(timeFieldValue);
-			fieldIndex++;
-		}
-
-		form.getField("Summe").setValue(timeSum.toString()); // Total time worked
-		form.getField("Urlaub anteilig").setValue(timeVacation.toString()); // Total time of Vacation
-
-		// Save the filled document
-		document.save(targetFile);
-		document.close();
-
 		return Optional.empty();
 	}
 
@@ -1,10 +1,19 @@
 /* Licensed under MIT 2024. */
 package ui.export;
 
-import ui.json.JSONHandler;
+import data.TimeSheet;
+import io.FileController;
+import parser.ParseException;
+import service.TimeSheetService;
+import ui.json.Global;
+import ui.json.Month;
+import ui.json.UIGlobalParser;
+import ui.json.UIMonthParser;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 public final class TexCompiler {
 
@@ -12,19 +21,44 @@ public final class TexCompiler {
 		throw new IllegalAccessError();
 	}
 
-	public static void compileToTex(File monthFile, File texFile) {
-		File globalFile = JSONHandler.getConfigFile();
-		main.Main.main(new String[] { "-f", globalFile.getAbsolutePath(), monthFile.getAbsolutePath(), texFile.getAbsolutePath() });
+	/**
+	 * Generates the LaTeX document of a time sheet and saves it, unless the export
+	 * was cancelled in the meantime. The file is replaced atomically, so it is
+	 * either left untouched or completely written.
+	 * 
+	 * @param timeSheet The time sheet.
+	 * @param texFile   The file to save the document to.
+	 * @param cancelled Tells whether the export was cancelled.
+	 * @throws IOException if the document could not be generated or saved.
+	 */
+	public static void compileToTex(TimeSheet timeSheet, File texFile, BooleanSupplier cancelled) throws IOException {
+		String tex = TimeSheetService.getDefault().generateTex(timeSheet);
+		if (!cancelled.getAsBoolean()) {
+			FileController.saveStringToFile(tex, texFile);
+		}
+	}
+
+	/**
+	 * Converts the global settings and the month of the user interface to a
+	 * {@link TimeSheet}, without writing them to disk.
+	 * 
+	 * @param global The global settings.
+	 * @param month  The month.
+	 * @return The time sheet.
+	 * @throws ParseException if the global settings or the month are invalid.
+	 */
+	static TimeSheet toTimeSheet(Global global, Month month) throws ParseException {
+		return TimeSheetService.getDefault().parse(new UIGlobalParser(global), new UIMonthParser(month));
 	}
 
 	/**
-	 * Wrapper method for the timesheet generator module timesheet compiler.
+	 * Wrapper method for the timesheet service validation.
 	 * 
-	 * @param tempFiles The temporary files.
+	 * @param timeSheet The time sheet.
 	 * @return An optional of the error message, empty if success.
 	 */
-	static Optional<String> validateContents(TempFiles tempFiles) {
-		return main.Main.validateTimesheet(tempFiles.getGlobalFile(), tempFiles.getMonthFile());
+	static Optional<String> validateContents(TimeSheet timeSheet) {
+		return TimeSheetService.getDefault().validate(timeSheet);
 	}
 
 }
@@ -2,20 +2,22 @@
 package ui.json;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 import ui.ErrorHandler;
 import ui.UserInterface;
 import ui.MonthlySettingsBar;
 import ui.TimesheetEntry;
+import ui.TimesheetListModel;
 
-import javax.swing.*;
+import javax.swing.SwingUtilities;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public final class JSONHandler {
 
@@ -23,15 +25,27 @@ public final class JSONHandler {
 		// Don't allow instances of this class
 	}
 
-	private static Global globalSettings;
-	private static UISettings uiSettings;
+	private static volatile Global globalSettings;
+	private static volatile UISettings uiSettings;
+	private static volatile CompletableFuture<Void> globalSettingsLoaded = CompletableFuture.completedFuture(null);
+	private static volatile CompletableFuture<Void> uiSettingsLoaded = CompletableFuture.completedFuture(null);
 
 	private static String configDir;
 	private static final String CONFIG_FILE_NAME = "global.json";
 	private static final String UI_SETTINGS_FILE_NAME = "settings.json";
+	private static final String JOURNAL_DIRECTORY_NAME = "journals";
 
 	private static final String ERROR = "An unexpected error occurred:%s%s".formatted(System.lineSeparator(), "%s");
 
+	/**
+	 * Determines the config directory and starts loading the settings. The global
+	 * and ui settings are loaded, and created if they don't exist, concurrently in
+	 * the background, while old temporary files are deleted. Therefore, the frame
+	 * can be shown before the settings are available. Getting the settings waits
+	 * until they are loaded, widgets depending on them should bind using
+	 * {@link #whenGlobalSettingsLoaded(Runnable)}. Settings that could not be
+	 * loaded are replaced by the default settings.
+	 */
 	public static void initialize() {
 		final String homePropertyName = "user.home";
 		String os = System.getProperty("os.name").toLowerCase(Locale.ENGLISH);
@@ -48,32 +62,78 @@ public final class JSONHandler {
 		}
 
 		// Create a subdirectory for your application
-		configDir += "/TimeSheetGenerator";
+		initialize(configDir + "/TimeSheetGenerator");
+	}
 
-		createDefaultGlobalSettings();
-		createDefaultOtherGlobalSettings();
-		loadGlobal();
-		loadOtherSettings();
+	/**
+	 * Starts loading the settings from the given config directory, see
+	 * {@link #initialize()}.
+	 * 
+	 * @param configDirectory Directory of the settings files
+	 */
+	static void initialize(String configDirectory) {
+		configDir = configDirectory;
+		globalSettings = null; // Settings of an earlier load must not replace the defaults
+		uiSettings = null;
+		globalSettingsLoaded = CompletableFuture.runAsync(() -> {
+			createDefaultGlobalSettings();
+			loadGlobal();
+		}).exceptionally(e -> loadFailed("Error loading global settings file", e));
+		uiSettingsLoaded = CompletableFuture.runAsync(() -> {
+			createDefaultOtherGlobalSettings();
+			loadOtherSettings();
+		}).exceptionally(e -> loadFailed("Error loading UI settings file", e));
+		CompletableFuture.runAsync(JSONHandler::cleanUp);
+	}
 
-		cleanUp();
+	private static Void loadFailed(String title, Throwable e) {
+		ErrorHandler.showError(title, ERROR.formatted(e.getMessage()));
+		return null;
 	}
 
 	/**
-	 * Gets a copy of the current global settings.
+	 * Gets a copy of the current global settings. Waits until the global settings
+	 * are loaded. If they could not be loaded, the default settings are returned.
 	 * 
 	 * @return Copy of global settings
 	 */
 	public static Global getGlobalSettings() {
-		return new Global(globalSettings);
+		globalSettingsLoaded.join(); // Never completes exceptionally
+		Global settings = globalSettings;
+		return settings == null ? createDefaultGlobal() : new Global(settings);
 	}
 
 	/**
-	 * Gets a copy of the current additional ui settings.
+	 * Gets a copy of the current additional ui settings. Waits until the ui
+	 * settings are loaded. If they could not be loaded, the default settings are
+	 * returned.
 	 * 
 	 * @return Copy of ui settings
 	 */
 	public static UISettings getUISettings() {
-		return new UISettings(uiSettings);
+		uiSettingsLoaded.join(); // Never completes exceptionally
+		UISettings settings = uiSettings;
+		return settings == null ? createDefaultUISettings() : new UISettings(settings);
+	}
+
+	/**
+	 * Checks whether the global settings are loaded, so that getting them does not
+	 * wait.
+	 * 
+	 * @return Whether the global settings are loaded
+	 */
+	public static boolean isGlobalSettingsLoaded() {
+		return globalSettingsLoaded.isDone();
+	}
+
+	/**
+	 * Runs an action on the event dispatch thread once the global settings are
+	 * loaded.
+	 * 
+	 * @param action Action depending on the global settings
+	 */
+	public static void whenGlobalSettingsLoaded(Runnable action) {
+		globalSettingsLoaded.whenComplete((ignored, e) -> SwingUtilities.invokeLater(action));
 	}
 
 	private static void setGlobalSettings(Global globalSettings) {
@@ -85,19 +145,16 @@ public final class JSONHandler {
 	}
 
 	public static void loadGlobal() {
-		ObjectMapper objectMapper = new ObjectMapper();
 		try {
-			globalSettings = objectMapper.readValue(getConfigFile(), Global.class);
+			globalSettings = Json.MAPPER.readValue(getConfigFile(), Global.class);
 		} catch (IOException e) {
 			ErrorHandler.showError("Error loading global settings file", ERROR.formatted(e.getMessage()));
 		}
 	}
 
 	public static void saveGlobal(Global globalSettings) {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 		try {
-			objectMapper.writeValue(getConfigFile(), globalSettings);
+			Json.WRITER.writeValue(getConfigFile(), globalSettings);
 			setGlobalSettings(globalSettings);
 		} catch (IOException e) {
 			ErrorHandler.showError("Error saving global settings file", ERROR.formatted(e.getMessage()));
@@ -105,19 +162,16 @@ public final class JSONHandler {
 	}
 
 	private static void loadOtherSettings() {
-		ObjectMapper objectMapper = new ObjectMapper();
 		try {
-			uiSettings = objectMapper.readValue(getOtherSettingsFile(), UISettings.class);
+			uiSettings = Json.MAPPER.readValue(getOtherSettingsFile(), UISettings.class);
 		} catch (IOException e) {
 			ErrorHandler.showError("Error loading UI settings file", ERROR.formatted(e.getMessage()));
 		}
 	}
 
 	public static void saveUISettings(UISettings uiSettings) {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 		try {
-			objectMapper.writeValue(getOtherSettingsFile(), uiSettings);
+			Json.WRITER.writeValue(getOtherSettingsFile(), uiSettings);
 			setUISettings(uiSettings);
 		} catch (IOException e) {
 			ErrorHandler.showError("Error saving UI settings file", ERROR.formatted(e.getMessage()));
@@ -125,74 +179,48 @@ public final class JSONHandler {
 	}
 
 	public static void loadMonth(UserInterface parentUi, File monthFile) {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 		try {
-			Month month = objectMapper.readValue(monthFile, Month.class);
-
-			parentUi.importMonthBarSettings(month);
-
-			for (Month.Entry entry : month.getEntries()) {
-				parentUi.addEntry(new TimesheetEntry(entry));
-			}
+			Month month = Json.MAPPER.readValue(monthFile, Month.class);
+			importMonth(parentUi, month);
 		} catch (IOException e) {
 			ErrorHandler.showError("Error loading month file", ERROR.formatted(e.getMessage()));
 		}
 	}
 
+	public static void importMonth(UserInterface parentUi, Month month) {
+		parentUi.importMonthBarSettings(month);
+
+		for (Month.Entry entry : month.getEntries()) {
+			parentUi.addEntry(new TimesheetEntry(entry));
+		}
+	}
+
 	public static boolean isFileValidMonth(File monthFile) {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 		try {
-			objectMapper.readValue(monthFile, Month.class);
+			Json.MAPPER.readValue(monthFile, Month.class);
 			return true;
 		} catch (IOException e) {
 			return false;
 		}
 	}
 
-	public static Month getMonth(MonthlySettingsBar settingsBar, DefaultListModel<TimesheetEntry> entries) {
+	public static Month getMonth(MonthlySettingsBar settingsBar, TimesheetListModel entries) {
 		Month month = new Month();
 		List<Month.Entry> monthEntries = new ArrayList<>();
 		settingsBar.fillMonth(month);
-		entries.elements().asIterator().forEachRemaining(entry -> monthEntries.add(entry.toMonthEntry()));
+		entries.forEach(entry -> monthEntries.add(entry.toMonthEntry()));
 		month.setEntries(monthEntries);
 		return month;
 	}
 
-	public static void saveMonth(File saveFile, MonthlySettingsBar settingsBar, DefaultListModel<TimesheetEntry> entries) {
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-		try {
-			Month month = getMonth(settingsBar, entries);
-			objectMapper.writeValue(saveFile, month);
-		} catch (IOException e) {
-			ErrorHandler.showError("Error saving month file", ERROR.formatted(e.getMessage()));
-		}
-	}
-
-	public static File generateTemporaryJSONFile(MonthlySettingsBar settingsBar, DefaultListModel<TimesheetEntry> entries) {
-		File f;
-		do {
-			f = new File(configDir, "/temp-%s.json".formatted(UUID.randomUUID()));
-		} while (f.exists());
-		try {
-			if (!f.createNewFile()) {
-				// Show error in main and return using catch block
-				throw new IOException("Failed to create temporary json file %s.".formatted(f.getAbsolutePath()));
-			}
-		} catch (IOException e) {
-			ErrorHandler.showError("Error generating temp json file", ERROR.formatted(e.getMessage()));
-			return null;
-		}
-		saveMonth(f, settingsBar, entries);
-		return f;
-	}
-
 	public static File getConfigFile() {
 		return new File(configDir, CONFIG_FILE_NAME);
 	}
 
+	public static File getJournalDirectory() {
+		return new File(configDir, JOURNAL_DIRECTORY_NAME);
+	}
+
 	private static boolean globalConfigExists() {
 		return getConfigFile().exists();
 	}
@@ -202,7 +230,7 @@ public final class JSONHandler {
 			return;
 		try {
 			File folder = new File(configDir);
-			if (!folder.exists() && !folder.mkdirs()) {
+			if (!folder.mkdirs() && !folder.isDirectory()) { // May be created concurrently
 				// Show error in main and return using catch block
 				throw new IOException("Failed to create folder %s for the global configuration file.".formatted(configDir));
 			}
@@ -216,6 +244,10 @@ public final class JSONHandler {
 			return;
 		}
 
+		saveGlobal(createDefaultGlobal());
+	}
+
+	private static Global createDefaultGlobal() {
 		Global global = new Global();
 		global.setName("Max Mustermann");
 		global.setStaffId(1234567);
@@ -223,7 +255,7 @@ public final class JSONHandler {
 		global.setWorkingTime("40:00");
 		global.setWage(13.25);
 		global.setWorkingArea("ub");
-		saveGlobal(global);
+		return global;
 	}
 
 	public static File getOtherSettingsFile() {
@@ -240,7 +272,7 @@ public final class JSONHandler {
 		try {
 			File f = getOtherSettingsFile();
 			File folder = new File(configDir);
-			if (!folder.exists() && !folder.mkdirs()) {
+			if (!folder.mkdirs() && !folder.isDirectory()) { // May be created concurrently
 				// Show error in main and return using catch block
 				throw new IOException("Failed to access folder %s for the global settings file.".formatted(configDir));
 			}
@@ -253,9 +285,13 @@ public final class JSONHandler {
 			return;
 		}
 
+		saveUISettings(createDefaultUISettings());
+	}
+
+	private static UISettings createDefaultUISettings() {
 		UISettings settings = new UISettings();
 		settings.setAddSignature(false);
-		saveUISettings(settings);
+		return settings;
 	}
 
 	private static void cleanUp() {
@@ -269,4 +305,13 @@ public final class JSONHandler {
 		}
 	}
 
+	/**
+	 * Holds the object mapper, so that it is created by the first background load
+	 * instead of delaying the frame.
+	 */
+	private static final class Json {
+		private static final ObjectMapper MAPPER = new ObjectMapper();
+		private static final ObjectWriter WRITER = MAPPER.writer(SerializationFeature.INDENT_OUTPUT);
+	}
+
 }
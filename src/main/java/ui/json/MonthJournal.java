@@ -0,0 +1,299 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.FileController;
+import ui.ErrorHandler;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Write-behind journal of the month open in the editor. Every snapshot of the
+ * editor is appended as a single compact line to an append-only journal file,
+ * so unsaved work survives a crash. Saving compacts the journal into the month
+ * file by writing a temporary file next to it and atomically renaming it over
+ * the month file. All file access happens on a single background thread in the
+ * order the calls were made, so neither appending nor saving blocks the event
+ * dispatch thread. <br/>
+ * Every running instance of the application uses its own journal, see
+ * {@link #open(Path)}. A journal is owned by holding a lock on a file next to
+ * it, which the operating system releases when the owner exits, however it
+ * exits.
+ */
+public final class MonthJournal implements AutoCloseable {
+
+	/**
+	 * Number of records after which the journal is rewritten to only contain the
+	 * latest snapshot.
+	 */
+	private static final int COMPACTION_THRESHOLD = 64;
+
+	private static final String JOURNAL_FILE_FORMAT = "journal-%d.ndjson";
+	private static final String LOCK_FILE_FORMAT = "journal-%d.lock";
+
+	private static final String ERROR = "An unexpected error occurred:%s%s".formatted(System.lineSeparator(), "%s");
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final ObjectWriter SNAPSHOT_WRITER = MAPPER.writerFor(Snapshot.class);
+	private static final ObjectReader SNAPSHOT_READER = MAPPER.readerFor(Snapshot.class);
+	private static final ObjectWriter MONTH_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+	private final Path journalFile;
+	private final FileLock lock;
+	private final ExecutorService executor;
+
+	// Only accessed by the executor thread
+	private int recordCount;
+
+	/**
+	 * Snapshot of the editor as it is stored in the journal.
+	 *
+	 * @param file  The month file open in the editor, null if it was not saved
+	 *              yet.
+	 * @param month The month shown in the editor.
+	 */
+	public record Snapshot(File file, Month month) {
+	}
+
+	/**
+	 * Creates a journal that is stored in the given file, without taking ownership
+	 * of it.
+	 *
+	 * @param journalFile The file of the journal.
+	 */
+	public MonthJournal(Path journalFile) {
+		this(journalFile, null);
+	}
+
+	private MonthJournal(Path journalFile, FileLock lock) {
+		this.journalFile = journalFile;
+		this.lock = lock;
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "month-journal");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Opens a journal in the given directory that is not owned by another running
+	 * instance of the application, and takes ownership of it until it is closed. A
+	 * journal left behind by an instance that did not close properly is preferred,
+	 * so {@link #recover()} offers its unsaved changes. The journals of running
+	 * instances are never recovered.
+	 *
+	 * @param directory The directory of the journals.
+	 * @return The journal owned by this instance.
+	 * @throws IOException if no journal could be locked.
+	 */
+	public static MonthJournal open(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		FileLock unused = null;
+		int unusedSlot = -1;
+		for (int slot = 0;; slot++) {
+			Path journalFile = directory.resolve(JOURNAL_FILE_FORMAT.formatted(slot));
+			Path lockFile = directory.resolve(LOCK_FILE_FORMAT.formatted(slot));
+			boolean hasJournal = Files.exists(journalFile);
+			if (!hasJournal && !Files.exists(lockFile) && unused != null) {
+				break; // Slots after the first one never used are not used either
+			}
+			FileLock slotLock = tryLock(lockFile);
+			if (slotLock == null) {
+				continue; // Owned by a running instance
+			}
+			if (hasJournal) { // Left behind
+				if (unused != null) {
+					unused.channel().close();
+				}
+				return new MonthJournal(journalFile, slotLock);
+			}
+			if (unused == null) {
+				unused = slotLock;
+				unusedSlot = slot;
+			} else {
+				slotLock.channel().close();
+			}
+		}
+		return new MonthJournal(directory.resolve(JOURNAL_FILE_FORMAT.formatted(unusedSlot)), unused);
+	}
+
+	private static FileLock tryLock(Path lockFile) throws IOException {
+		FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		try {
+			FileLock lock = channel.tryLock();
+			if (lock != null) {
+				return lock;
+			}
+		} catch (OverlappingFileLockException e) {
+			// Owned by another journal of this process
+		}
+		channel.close();
+		return null;
+	}
+
+	/**
+	 * Appends a snapshot of the editor to the journal in the background.
+	 *
+	 * @param file  The month file open in the editor, null if it was not saved
+	 *              yet.
+	 * @param month The month shown in the editor. Must not be modified afterwards.
+	 */
+	public void append(File file, Month month) {
+		Snapshot snapshot = new Snapshot(file, month);
+		executor.execute(() -> {
+			try {
+				appendSnapshot(snapshot);
+			} catch (IOException e) {
+				showError("Error writing journal", e);
+			}
+		});
+	}
+
+	/**
+	 * Saves the month to the given file in the background. The file is replaced
+	 * atomically, so it either contains the previous or the new month, even if the
+	 * application crashes while saving. Afterwards, the journal is cleared. If the
+	 * month could not be saved, the journal is kept, so the changes can still be
+	 * recovered.
+	 *
+	 * @param file  The month file to save to.
+	 * @param month The month to save. Must not be modified afterwards.
+	 * @return A future completed once the month is saved, or completed
+	 *         exceptionally with the {@link IOException} if it could not be saved.
+	 */
+	public CompletableFuture<Void> save(File file, Month month) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				FileController.writeAtomically(file.toPath(), MONTH_WRITER.writeValueAsBytes(month), true);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+			try {
+				clear();
+			} catch (IOException e) {
+				// The month is saved, the outdated journal is only offered for recovery
+				showError("Error clearing journal", e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Clears the journal in the background, after the changes in the editor were
+	 * discarded.
+	 */
+	public void discard() {
+		executor.execute(() -> {
+			try {
+				clear();
+			} catch (IOException e) {
+				showError("Error clearing journal", e);
+			}
+		});
+	}
+
+	/**
+	 * Reads the latest snapshot from the journal. A record that was only partially
+	 * written, because the application crashed while appending it, is skipped.
+	 * Should only be called before anything is appended.
+	 *
+	 * @return The latest snapshot, empty if there are no unsaved changes.
+	 * @throws IOException if the journal exists but could not be read.
+	 */
+	public Optional<Snapshot> recover() throws IOException {
+		if (!Files.exists(journalFile))
+			return Optional.empty();
+		List<String> lines = Files.readAllLines(journalFile);
+		for (int i = lines.size() - 1; i >= 0; i--) {
+			String line = lines.get(i);
+			if (line.isBlank())
+				continue;
+			try {
+				return Optional.of(SNAPSHOT_READER.readValue(line));
+			} catch (IOException e) {
+				// Torn record, fall back to the one before
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Blocks until all appends and saves issued so far are written.
+	 */
+	public void flush() {
+		try {
+			executor.submit(() -> {
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// Cannot happen, the task is empty
+		}
+	}
+
+	/**
+	 * Writes all pending appends and saves, stops the background thread and gives
+	 * up the ownership of the journal.
+	 */
+	@Override
+	public void close() {
+		flush();
+		executor.shutdown();
+		if (lock != null) {
+			try {
+				lock.channel().close();
+			} catch (IOException e) {
+				// Released by the operating system when the application exits
+			}
+		}
+	}
+
+	private void appendSnapshot(Snapshot snapshot) throws IOException {
+		byte[] record = toRecord(snapshot);
+		if (recordCount + 1 >= COMPACTION_THRESHOLD) {
+			// Older snapshots are superseded by this one
+			Files.createDirectories(journalFile.toAbsolutePath().getParent());
+			FileController.writeAtomically(journalFile, record, true);
+			recordCount = 1;
+			return;
+		}
+		Files.createDirectories(journalFile.toAbsolutePath().getParent());
+		Files.write(journalFile, record, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		recordCount++;
+	}
+
+	private void clear() throws IOException {
+		Files.deleteIfExists(journalFile);
+		recordCount = 0;
+	}
+
+	private static byte[] toRecord(Snapshot snapshot) throws IOException {
+		byte[] json = SNAPSHOT_WRITER.writeValueAsBytes(snapshot);
+		byte[] record = new byte[json.length + 1];
+		System.arraycopy(json, 0, record, 0, json.length);
+		record[json.length] = '\n';
+		return record;
+	}
+
+	private static void showError(String title, IOException e) {
+		SwingUtilities.invokeLater(() -> ErrorHandler.showError(title, ERROR.formatted(e.getMessage())));
+	}
+
+}
@@ -0,0 +1,50 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import data.Employee;
+import data.Profession;
+import data.TimeSpan;
+import data.WorkingArea;
+import parser.IGlobalParser;
+import parser.ParseException;
+
+/**
+ * An UIGlobalParser provides the elements specified by {@link IGlobalParser}
+ * directly from the {@link Global} settings of the user interface, without
+ * serializing them to json first.
+ */
+public class UIGlobalParser implements IGlobalParser {
+
+	private final Global global;
+
+	/**
+	 * Constructs a new {@link UIGlobalParser} instance.
+	 * 
+	 * @param global - to get the data from.
+	 */
+	public UIGlobalParser(Global global) {
+		this.global = global;
+	}
+
+	@Override
+	public Employee getEmployee() throws ParseException {
+		if (global.getName() == null) {
+			throw new ParseException("Missing name in global settings.");
+		}
+		return new Employee(global.getName(), global.getStaffId());
+	}
+
+	@Override
+	public Profession getProfession() throws ParseException {
+		if (global.getDepartment() == null || global.getWorkingTime() == null || global.getWorkingArea() == null) {
+			throw new ParseException("Missing department, working time or working area in global settings.");
+		}
+		try {
+			return new Profession(global.getDepartment(), WorkingArea.parse(global.getWorkingArea()), TimeSpan.parse(global.getWorkingTime()),
+					global.getWage());
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import data.Entry;
+import data.TimeSpan;
+import parser.IMonthParser;
+import parser.ParseException;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * An UIMonthParser provides the elements specified by {@link IMonthParser}
+ * directly from the {@link Month} of the user interface, without writing it to
+ * a temporary json file first. Missing values are handled like the
+ * {@link parser.json.JsonMonthParser} handles missing json properties.
+ */
+public class UIMonthParser implements IMonthParser {
+
+	private final Month month;
+
+	/**
+	 * Constructs a new {@link UIMonthParser} instance.
+	 * 
+	 * @param month - to get the data from.
+	 */
+	public UIMonthParser(Month month) {
+		this.month = month;
+	}
+
+	@Override
+	public YearMonth getYearMonth() throws ParseException {
+		try {
+			return YearMonth.of(month.getYear(), month.getMonth());
+		} catch (DateTimeException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+	@Override
+	public Entry[] getEntries() throws ParseException {
+		YearMonth yearMonth = getYearMonth();
+		List<Month.Entry> monthEntries = month.getEntries() == null ? List.of() : month.getEntries();
+
+		Entry[] entries = new Entry[monthEntries.size()];
+		for (int i = 0; i < entries.length; i++) {
+			Month.Entry entry = monthEntries.get(i);
+			try {
+				LocalDate date = yearMonth.atDay(entry.getDay());
+				// Like the EntrySerializer, only one of pause and vacation is used
+				TimeSpan pause = entry.isVacation() ? new TimeSpan(0, 0) : parseOrDefault(entry.getPause());
+				entries[i] = new Entry(entry.getAction(), date, parse(entry.getStart()), parse(entry.getEnd()), pause, entry.isVacation());
+			} catch (DateTimeException | IllegalArgumentException e) {
+				throw new ParseException(e.getMessage());
+			}
+		}
+		return entries;
+	}
+
+	@Override
+	public TimeSpan getSuccTransfer() throws ParseException {
+		try {
+			return parseOrDefault(month.getSuccTransfer());
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+	@Override
+	public TimeSpan getPredTransfer() throws ParseException {
+		try {
+			return parseOrDefault(month.getPredTransfer());
+		} catch (IllegalArgumentException e) {
+			throw new ParseException(e.getMessage());
+		}
+	}
+
+	private static TimeSpan parse(String time) throws ParseException {
+		if (time == null) {
+			throw new ParseException("Missing start or end time.");
+		}
+		return TimeSpan.parse(time);
+	}
+
+	private static TimeSpan parseOrDefault(String time) {
+		return time == null ? new TimeSpan(0, 0) : TimeSpan.parse(time);
+	}
+
+}
@@ -0,0 +1,91 @@
+/* Licensed under MIT 2024. */
+package checker;
+
+import data.Entry;
+import data.TimeSpan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryIntervalsTest {
+
+	private static final LocalDate DAY = LocalDate.of(2019, 11, 22);
+	private static final LocalDate NEXT_DAY = DAY.plusDays(3);
+	private static final TimeSpan zeroTs = new TimeSpan(0, 0);
+
+	private static Entry entry(LocalDate date, int startHour, int endHour) {
+		return new Entry("Test", date, new TimeSpan(startHour, 0), new TimeSpan(endHour, 0), zeroTs, false);
+	}
+
+	private static EntryIntervals.Interval interval(LocalDate date, int startHour, int endHour) {
+		return new EntryIntervals.Interval(date, new TimeSpan(startHour, 0), new TimeSpan(endHour, 0));
+	}
+
+	@Test
+	public void testNoEntries() {
+		// execute
+		EntryIntervals intervals = new EntryIntervals(List.of());
+
+		// assert
+		assertTrue(intervals.getOverlapWindows().isEmpty());
+	}
+
+	@Test
+	public void testEntryContainingLaterEntries() {
+		// data
+		Entry outer = entry(DAY, 8, 14);
+		Entry first = entry(DAY, 9, 10);
+		Entry second = entry(DAY, 11, 12);
+
+		// execute
+		EntryIntervals intervals = new EntryIntervals(List.of(second, outer, first));
+
+		// assert
+		assertEquals(List.of(interval(DAY, 9, 10), interval(DAY, 11, 12)), intervals.getOverlapWindows());
+	}
+
+	@Test
+	public void testOverlapWindowsMerged() {
+		// data
+		Entry first = entry(DAY, 8, 12);
+		Entry second = entry(DAY, 10, 13);
+		Entry third = entry(DAY, 11, 15);
+
+		// execute
+		EntryIntervals intervals = new EntryIntervals(List.of(first, second, third));
+
+		// assert
+		assertEquals(List.of(interval(DAY, 10, 13)), intervals.getOverlapWindows());
+	}
+
+	@Test
+	public void testTouchingEntries() {
+		// data
+		Entry first = entry(DAY, 8, 12);
+		Entry second = entry(DAY, 12, 14);
+		Entry third = entry(DAY, 15, 17);
+
+		// execute
+		EntryIntervals intervals = new EntryIntervals(List.of(first, second, third));
+
+		// assert
+		assertTrue(intervals.getOverlapWindows().isEmpty());
+	}
+
+	@Test
+	public void testDaysSeparated() {
+		// data
+		Entry first = entry(DAY, 8, 12);
+		Entry second = entry(NEXT_DAY, 10, 14);
+
+		// execute
+		EntryIntervals intervals = new EntryIntervals(List.of(second, first));
+
+		// assert
+		assertTrue(intervals.getOverlapWindows().isEmpty()); // Same time, but on different days
+	}
+
+}
@@ -9,6 +9,7 @@ import java.time.Month;
 import java.time.YearMonth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MiLoGCheckerCheckTest {
@@ -103,4 +104,21 @@ public class MiLoGCheckerCheckTest {
 		assertEquals(CheckerReturn.INVALID, checker.check());
 		assertTrue(checker.getErrors().stream().anyMatch(item -> item.getErrorMessage().equals(error)));
 	}
+
+	@Test
+	public void testDependsOnHolidays() {
+		//// Test values
+		Entry sunday = new Entry("Test", LocalDate.of(2024, 11, 24), new TimeSpan(8, 0), new TimeSpan(12, 0), zeroTs, false);
+		Entry friday = new Entry("Test", LocalDate.of(2024, 11, 22), new TimeSpan(8, 0), new TimeSpan(12, 0), zeroTs, false);
+
+		//// Time sheet initialization
+		TimeSheet empty = new TimeSheet(EMPLOYEE, PROFESSION, YEAR_MONTH, new Entry[0], zeroTs, zeroTs);
+		TimeSheet onlySunday = new TimeSheet(EMPLOYEE, PROFESSION, YEAR_MONTH, new Entry[] { sunday }, zeroTs, zeroTs);
+		TimeSheet withWorkingDay = new TimeSheet(EMPLOYEE, PROFESSION, YEAR_MONTH, new Entry[] { sunday, friday }, zeroTs, zeroTs);
+
+		//// Assertions
+		assertFalse(MiLoGChecker.dependsOnHolidays(empty));
+		assertFalse(MiLoGChecker.dependsOnHolidays(onlySunday));
+		assertTrue(MiLoGChecker.dependsOnHolidays(withWorkingDay));
+	}
 }
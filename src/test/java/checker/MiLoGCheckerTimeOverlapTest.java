@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.YearMonth;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -361,4 +362,28 @@ public class MiLoGCheckerTimeOverlapTest {
 		assertTrue(checker.getErrors().stream().anyMatch(item -> item.getErrorMessage().equals(error0)));
 		assertTrue(checker.getErrors().stream().anyMatch(item -> item.getErrorMessage().equals(error2)));
 	}
+
+	@Test
+	public void testEntryContainingTwoLaterEntries() {
+		//// Test values
+		LocalDate date = LocalDate.of(2019, 11, 22);
+		Entry entry0 = new Entry("Test 0", date, new TimeSpan(8, 0), new TimeSpan(14, 0), zeroTs, false);
+		Entry entry1 = new Entry("Test 1", date, new TimeSpan(9, 0), new TimeSpan(10, 0), zeroTs, false);
+		Entry entry2 = new Entry("Test 2", date, new TimeSpan(9, 30), new TimeSpan(12, 0), zeroTs, false);
+
+		Entry[] entries = { entry0, entry1, entry2 };
+		TimeSheet timeSheet = new TimeSheet(EMPLOYEE, PROFESSION, YEAR_MONTH, entries, zeroTs, zeroTs);
+
+		//// Checker initialization
+		MiLoGChecker checker = new MiLoGChecker(timeSheet);
+
+		//// Execution
+		checker.checkTimeOverlap();
+
+		//// Assertions
+		assertEquals(CheckerReturn.INVALID, checker.getResult());
+		assertEquals(1, checker.getErrors().size()); // One merged window instead of an error per pair
+		assertEquals(List.of(new EntryIntervals.Interval(date, new TimeSpan(9, 0), new TimeSpan(12, 0))), checker.getEntryIntervals().getOverlapWindows());
+	}
+
 }
@@ -0,0 +1,140 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayBulkLoaderTest {
+
+	private HttpServer server;
+	private final Queue<String> queries = new ConcurrentLinkedQueue<>();
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		HolidayCache.clear();
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/api/", exchange -> {
+			String query = exchange.getRequestURI().getQuery();
+			queries.add(query);
+			int year = Integer.parseInt(query.substring("jahr=".length()));
+			byte[] body = allStates(year).getBytes(StandardCharsets.UTF_8);
+			try (exchange; OutputStream output = exchange.getResponseBody()) {
+				exchange.sendResponseHeaders(200, body.length);
+				output.write(body);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		server.stop(0);
+		HolidayCache.clear();
+	}
+
+	private static String allStates(int year) {
+		return Arrays.stream(GermanState.values()).map(state -> {
+			String holidays = "\"Neujahrstag\": {\"datum\": \"%d-01-01\", \"hinweis\": \"\"}".formatted(year);
+			if (state == GermanState.BW) {
+				holidays += ", \"Heilige Drei Könige\": {\"datum\": \"%d-01-06\", \"hinweis\": \"\"}".formatted(year);
+			}
+			return "\"%s\": {%s}".formatted(state.name(), holidays);
+		}).collect(Collectors.joining(", ", "{", "}"));
+	}
+
+	private HolidayClient client() {
+		URI uri = URI.create("http://localhost:%d/api/".formatted(server.getAddress().getPort()));
+		return new HolidayClient(uri, Duration.ofSeconds(1), Duration.ofSeconds(1), 1, Duration.ofMillis(5), 1, Duration.ofMinutes(1));
+	}
+
+	@Test
+	public void testLoadYearRange() throws HolidayFetchException {
+		// data
+		HolidayClient client = client();
+
+		// execute
+		int fetched = HolidayBulkLoader.load(2024, 2025, client);
+
+		// assert
+		assertEquals(2, fetched);
+		assertEquals(List.of("jahr=2024", "jahr=2025"), List.copyOf(queries));
+		assertTrue(HolidayCache.containsAllStates(Year.of(2024)));
+		assertTrue(HolidayCache.containsAllStates(Year.of(2025)));
+	}
+
+	@Test
+	public void testLoadSkipsCachedYears() throws HolidayFetchException {
+		// data
+		HolidayClient client = client();
+		HolidayBulkLoader.load(2024, 2024, client);
+
+		// execute
+		int fetched = HolidayBulkLoader.load(2024, 2025, client);
+
+		// assert
+		assertEquals(1, fetched);
+		assertEquals(List.of("jahr=2024", "jahr=2025"), List.copyOf(queries));
+	}
+
+	@Test
+	public void testCheckersUseLoadedHolidays() throws HolidayFetchException {
+		// data
+		HolidayClient client = client();
+		HolidayBulkLoader.load(2024, 2025, client);
+
+		// execute & assert
+		assertTrue(new GermanyHolidayChecker(2024, GermanState.BW, client).isHoliday(LocalDate.of(2024, 1, 6)));
+		assertFalse(new GermanyHolidayChecker(2024, GermanState.BE, client).isHoliday(LocalDate.of(2024, 1, 6)));
+		assertTrue(new GermanyHolidayChecker(2025, GermanState.HH, client).isHoliday(LocalDate.of(2025, 1, 1)));
+		assertEquals(2, queries.size()); // No checker fetched its state on its own
+	}
+
+	@Test
+	public void testRememberFailedYear() {
+		// data
+		server.removeContext("/api/");
+		server.createContext("/api/", exchange -> {
+			queries.add(exchange.getRequestURI().getQuery());
+			try (exchange) {
+				exchange.sendResponseHeaders(500, -1);
+			}
+		});
+		URI uri = URI.create("http://localhost:%d/api/".formatted(server.getAddress().getPort()));
+		// The circuit breaker stays closed, so only the remembered failure prevents requests
+		HolidayClient client = new HolidayClient(uri, Duration.ofSeconds(1), Duration.ofSeconds(1), 1, Duration.ofMillis(5), 10, Duration.ofMinutes(1));
+
+		// execute
+		assertThrows(HolidayFetchException.class, () -> HolidayBulkLoader.load(2024, 2024, client));
+
+		// assert
+		assertThrows(HolidayFetchException.class, () -> HolidayBulkLoader.load(2024, 2024, client));
+		assertThrows(HolidayFetchException.class, () -> new GermanyHolidayChecker(2024, GermanState.BW, client).getHolidays());
+		assertEquals(List.of("jahr=2024"), List.copyOf(queries));
+	}
+
+	@Test
+	public void testLoadInvalidRange() {
+		// execute & assert
+		assertThrows(IllegalArgumentException.class, () -> HolidayBulkLoader.load(2025, 2024, client()));
+	}
+
+}
@@ -0,0 +1,207 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayClientTest {
+
+	private static final String HOLIDAYS_2024 = "{\"Neujahrstag\": {\"datum\": \"2024-01-01\", \"hinweis\": \"\"},"
+			+ " \"1. Weihnachtstag\": {\"datum\": \"2024-12-25\", \"hinweis\": \"\"}}";
+	private static final String ETAG = "\"holidays-2024\"";
+
+	private HttpServer server;
+	private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+	private final Queue<HttpExchange> requests = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	private record Response(int status, String body, String etag, long delayMillis) {
+	}
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/api/", exchange -> {
+			requestCount.incrementAndGet();
+			requests.add(exchange);
+			Response response = responses.isEmpty() ? new Response(500, "", null, 0) : responses.poll();
+			try (exchange) {
+				if (response.delayMillis() > 0) {
+					Thread.sleep(response.delayMillis());
+				}
+				if (response.etag() != null) {
+					exchange.getResponseHeaders().set("ETag", response.etag());
+				}
+				byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+				if (body.length > 0) {
+					try (OutputStream output = exchange.getResponseBody()) {
+						output.write(body);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException e) {
+				// The client gave up waiting
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool()); // A delayed response must not block the retry
+		server.start();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		server.stop(0);
+		HolidayCache.clear();
+	}
+
+	private HolidayClient client(int maxAttempts, int failureThreshold, Duration openDuration) {
+		URI uri = URI.create("http://localhost:%d/api/".formatted(server.getAddress().getPort()));
+		return new HolidayClient(uri, Duration.ofSeconds(1), Duration.ofMillis(500), maxAttempts, Duration.ofMillis(5), failureThreshold, openDuration);
+	}
+
+	@Test
+	public void testFetch() throws IOException {
+		// data
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+
+		// execute
+		String body = client(1, 1, Duration.ofMinutes(1)).fetch("jahr=2024&nur_land=BW");
+
+		// assert
+		assertEquals(HOLIDAYS_2024, body);
+		assertEquals("jahr=2024&nur_land=BW", requests.peek().getRequestURI().getQuery());
+	}
+
+	@Test
+	public void testRetryServerError() throws IOException {
+		// data
+		responses.add(new Response(503, "", null, 0));
+		responses.add(new Response(500, "", null, 0));
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+
+		// execute
+		String body = client(3, 1, Duration.ofMinutes(1)).fetch("jahr=2024&nur_land=BW");
+
+		// assert
+		assertEquals(HOLIDAYS_2024, body);
+		assertEquals(3, requestCount.get());
+	}
+
+	@Test
+	public void testRetryTimeout() throws IOException {
+		// data
+		responses.add(new Response(200, HOLIDAYS_2024, null, 2000));
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+
+		// execute
+		String body = client(2, 1, Duration.ofMinutes(1)).fetch("jahr=2024&nur_land=BW");
+
+		// assert
+		assertEquals(HOLIDAYS_2024, body);
+		assertEquals(2, requestCount.get());
+	}
+
+	@Test
+	public void testNoRetryClientError() {
+		// data
+		responses.add(new Response(404, "", null, 0));
+		HolidayClient client = client(3, 5, Duration.ofMinutes(1));
+
+		// execute & assert
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=XX"));
+		assertEquals(1, requestCount.get());
+	}
+
+	@Test
+	public void testAttemptsBounded() {
+		// data
+		HolidayClient client = client(3, 5, Duration.ofMinutes(1));
+
+		// execute & assert
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=BW"));
+		assertEquals(3, requestCount.get());
+	}
+
+	@Test
+	public void testConditionalRequest() throws IOException {
+		// data
+		responses.add(new Response(200, HOLIDAYS_2024, ETAG, 0));
+		responses.add(new Response(304, "", ETAG, 0));
+		HolidayClient client = client(1, 1, Duration.ofMinutes(1));
+		client.fetch("jahr=2024&nur_land=BW");
+
+		// execute
+		String body = client.fetch("jahr=2024&nur_land=BW");
+
+		// assert
+		assertEquals(HOLIDAYS_2024, body);
+		List<HttpExchange> sent = List.copyOf(requests);
+		assertNull(sent.get(0).getRequestHeaders().getFirst("If-None-Match"));
+		assertEquals(ETAG, sent.get(1).getRequestHeaders().getFirst("If-None-Match"));
+	}
+
+	@Test
+	public void testCircuitOpens() {
+		// data
+		HolidayClient client = client(1, 2, Duration.ofMinutes(1));
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=BW"));
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=BW"));
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+
+		// execute & assert
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=BW"));
+		assertEquals(2, requestCount.get()); // The open circuit did not send a request
+	}
+
+	@Test
+	public void testCircuitClosesAfterTrial() throws IOException, InterruptedException {
+		// data
+		HolidayClient client = client(1, 1, Duration.ofMillis(50));
+		assertThrows(IOException.class, () -> client.fetch("jahr=2024&nur_land=BW"));
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+		Thread.sleep(100);
+
+		// execute
+		String trial = client.fetch("jahr=2024&nur_land=BW");
+		String closed = client.fetch("jahr=2024&nur_land=BW");
+
+		// assert
+		assertEquals(HOLIDAYS_2024, trial);
+		assertEquals(HOLIDAYS_2024, closed);
+		assertEquals(3, requestCount.get());
+	}
+
+	@Test
+	public void testHolidayChecker() throws HolidayFetchException {
+		// data
+		responses.add(new Response(200, HOLIDAYS_2024, null, 0));
+		HolidayCache.clear();
+		IHolidayChecker holidayChecker = new GermanyHolidayChecker(2024, GermanState.BW, client(1, 1, Duration.ofMinutes(1)));
+
+		// execute & assert
+		assertTrue(holidayChecker.isHoliday(LocalDate.of(2024, 12, 25)));
+		assertFalse(holidayChecker.isHoliday(LocalDate.of(2024, 12, 27)));
+	}
+
+}
@@ -0,0 +1,78 @@
+/* Licensed under MIT 2024. */
+package checker.holiday;
+
+import checker.CheckerException;
+import data.TimeSheet;
+import i18n.MessageSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import service.TimeSheetService;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+/**
+ * Tests that the cache key of a LaTeX document changes with the holidays its
+ * check depends on. The holidays are put into the {@link HolidayCache}, so
+ * nothing is fetched.
+ */
+public class TexCacheKeyHolidaysTest {
+
+	// 2019-11-04 is a Monday
+	private static final String JSON_MONTH_MONDAY = "{\"year\": 2019, \"month\": 11, \"entries\": ["
+			+ "{\"action\": \"Korrektur\", \"day\": 4, \"start\": \"10:00\", \"end\": \"11:00\"}]}";
+
+	private final TimeSheetService service = new TimeSheetService();
+	private final MessageSource messageSource = MessageSource.forLocale(Locale.ENGLISH);
+
+	@BeforeEach
+	@AfterEach
+	public void clearCache() {
+		HolidayCache.clear();
+	}
+
+	private String key(String monthJson) throws ParseException, IOException, CheckerException {
+		TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, monthJson);
+		return service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, monthJson, timeSheet, messageSource);
+	}
+
+	@Test
+	public void testKeyDependsOnHolidays() throws ParseException, IOException, CheckerException {
+		// data
+		HolidayCache.put(Year.of(2019), GermanState.BW, List.of(new Holiday(LocalDate.of(2019, 11, 1), "Allerheiligen")));
+		String key = key(JSON_MONTH_MONDAY);
+		HolidayCache.clear();
+		HolidayCache.put(Year.of(2019), GermanState.BW,
+				List.of(new Holiday(LocalDate.of(2019, 11, 1), "Allerheiligen"), new Holiday(LocalDate.of(2019, 11, 4), "Feiertag")));
+
+		// execute
+		String keyOtherHolidays = key(JSON_MONTH_MONDAY);
+
+		// assert
+		assertNotEquals(key, keyOtherHolidays);
+	}
+
+	@Test
+	public void testKeyWithoutWorkingDays() throws ParseException, IOException, CheckerException {
+		// execute
+		String keyEmpty = key(JSON_MONTH_EMPTY);
+		String keySunday = key(JSON_MONTH_SUNDAY);
+
+		// assert
+		// Nothing was fetched, as the check does not depend on the holidays
+		assertNull(HolidayCache.get(Year.of(2019), GermanState.BW));
+		assertEquals(keyEmpty, key(JSON_MONTH_EMPTY));
+		assertEquals(keySunday, key(JSON_MONTH_SUNDAY));
+	}
+
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.YearMonth;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 public class TimeSheetCommonTest {
@@ -44,4 +45,15 @@ public class TimeSheetCommonTest {
 		assertNotNull(timeSheet);
 	}
 
+	@Test
+	public void testSheetId() {
+		//// TimeSheet initialization
+		Employee employee = new Employee("Max Mustermann", 1234567);
+		Profession profession = new Profession("IPD", WorkingArea.UB, new TimeSpan(40, 0), 10.31);
+		TimeSheet timeSheet = new TimeSheet(employee, profession, YearMonth.of(2019, 11), new Entry[0], new TimeSpan(0, 0), new TimeSpan(0, 0));
+
+		//// Assertions
+		assertEquals("1234567/2019-11", timeSheet.getSheetId());
+	}
+
 }
@@ -163,4 +163,26 @@ public class TimeSpanArithmeticTest {
 
 		Assertions.assertThrows(IllegalArgumentException.class, () -> ts1.subtract(ts2));
 	}
+
+	@Test
+	public void testToMinutes() {
+		assertEquals(0, new TimeSpan(0, 0).toMinutes());
+		assertEquals(59, new TimeSpan(0, 59).toMinutes());
+		assertEquals(2458, new TimeSpan(40, 58).toMinutes());
+	}
+
+	@Test
+	public void testOfMinutes() {
+		TimeSpan ts = TimeSpan.ofMinutes(2458);
+
+		assertEquals(ts.getHour(), 40);
+		assertEquals(ts.getMinute(), 58);
+		assertEquals(TimeSpan.ofMinutes(60), new TimeSpan(1, 0));
+		assertEquals(TimeSpan.ofMinutes(0), new TimeSpan(0, 0));
+	}
+
+	@Test
+	public void testOfMinutesIllegalArgument() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> TimeSpan.ofMinutes(-1));
+	}
 }
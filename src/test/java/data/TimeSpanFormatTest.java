@@ -0,0 +1,58 @@
+/* Licensed under MIT 2024. */
+package data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimeSpanFormatTest {
+
+	private final TimeSpanFormat format = TimeSpanFormat.getInstance();
+
+	@Test
+	public void testFormatPadding() {
+		// execute & assert
+		assertEquals("00:00", format.format(new TimeSpan(0, 0)));
+		assertEquals("07:05", format.format(new TimeSpan(7, 5)));
+		assertEquals("40:59", format.format(new TimeSpan(40, 59)));
+		assertEquals("1234:10", format.format(new TimeSpan(1234, 10)));
+	}
+
+	@Test
+	public void testFormatTo() {
+		// data
+		StringBuilder builder = new StringBuilder("Time: ");
+
+		// execute
+		format.formatTo(new TimeSpan(9, 30), builder);
+
+		// assert
+		assertEquals("Time: 09:30", builder.toString());
+	}
+
+	@Test
+	public void testParseRoundTrip() {
+		for (int hour = 0; hour < 100; hour += 7) {
+			for (int minute = 0; minute <= TimeSpan.MAX_MINUTE; minute++) {
+				// data
+				TimeSpan timeSpan = new TimeSpan(hour, minute);
+
+				// execute & assert
+				assertEquals(timeSpan, format.parse(format.format(timeSpan)));
+			}
+		}
+	}
+
+	@Test
+	public void testParseInvalid() {
+		// data
+		String[] invalid = { "", ":", "1:", ":30", "1:300", "1:60", "1;30", " 1:30", "1:30 ", "+1:30", "1:-3", "99999999999:00", "1:3a" };
+
+		// execute & assert
+		for (String text : invalid) {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> format.parse(text), text);
+		}
+	}
+
+}
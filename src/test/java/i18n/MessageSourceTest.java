@@ -0,0 +1,89 @@
+/* Licensed under MIT 2024. */
+package i18n;
+
+import data.TimeSpan;
+import data.TimeSpanFormat;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MessageSourceTest {
+
+	private static final String TEST_MESSAGE_BUNDLE_PATH = "i18n_test/MessageBundle";
+
+	@Test
+	public void testSharedPerLocale() {
+		// execute & assert
+		assertSame(MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN), MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN));
+		assertEquals(Locale.ENGLISH, MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.ENGLISH).getLocale());
+	}
+
+	@Test
+	public void testResolveLanguageRangesToBundle() {
+		// data
+		MessageSource german = MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN);
+
+		// execute & assert
+		assertSame(german, MessageSource.forLanguageRanges(TEST_MESSAGE_BUNDLE_PATH, Locale.LanguageRange.parse("de-CH,en;q=0.8")).orElseThrow());
+		assertSame(german, MessageSource.forLanguageRanges(TEST_MESSAGE_BUNDLE_PATH, Locale.LanguageRange.parse("fr,de-AT;q=0.5")).orElseThrow());
+		assertTrue(MessageSource.forLanguageRanges(TEST_MESSAGE_BUNDLE_PATH, Locale.LanguageRange.parse("fr")).isEmpty());
+		assertTrue(MessageSource.forLanguageRanges(TEST_MESSAGE_BUNDLE_PATH, Locale.LanguageRange.parse("*")).isEmpty());
+	}
+
+	@Test
+	public void testTimeSpanFormatPerMessageSource() {
+		// data
+		MessageSource application = MessageSource.forLocale(Locale.GERMAN);
+		MessageSource test = MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN);
+
+		// execute
+		String applicationResult = TimeSpanFormat.getInstance(application).format(new TimeSpan(7, 5));
+		String testResult = TimeSpanFormat.getInstance(test).format(new TimeSpan(7, 5));
+
+		// assert
+		assertEquals("07:05", applicationResult);
+		assertEquals("7h05", testResult);
+	}
+
+	@Test
+	public void testIndependentOfResourceHandlerLocale() {
+		// data
+		Locale previous = ResourceHandler.getLocale();
+		MessageSource german = MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN);
+		try {
+			// execute
+			ResourceHandler.setLocale(Locale.ENGLISH);
+			String result = german.getMessage("test");
+
+			// assert
+			assertEquals("Hallo Welt!", result);
+		} finally {
+			ResourceHandler.setLocale(previous);
+		}
+	}
+
+	@Test
+	public void testDifferentLocalesConcurrently() {
+		// data
+		MessageSource german = MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.GERMAN);
+		MessageSource english = MessageSource.forLocale(TEST_MESSAGE_BUNDLE_PATH, Locale.ENGLISH);
+		LocalDate date = LocalDate.of(2019, 7, 21);
+
+		// execute
+		List<String> results = IntStream.range(0, 1000).parallel()
+				.mapToObj(i -> (i % 2 == 0 ? german : english).getMessage("dateWithLongFormat", date)).toList();
+
+		// assert
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i % 2 == 0 ? "Am 21. Juli 2019" : "On July 21, 2019", results.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/* Licensed under MIT 2024. */
+package i18n;
+
+import data.TimeSpan;
+import data.TimeSpanFormat;
+import i18n.ResourceHandler.ResourceHandlerInstance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares formatting with the cached message formats and the time span
+ * format to compiling the format on every call. Only run on demand with
+ * <code>-Dbenchmark=true</code>, as timings depend on the machine.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ResourceHandlerBenchmarkTest {
+
+	private static final String KEY = "error.checker.totalTimeExceedance";
+	/**
+	 * The pattern time spans were formatted with before {@link TimeSpanFormat}
+	 * replaced the bundle key <code>locale.timespan.stringFormat</code>.
+	 */
+	private static final String TIME_SPAN_PATTERN = "{0,number,00}:{1,number,00}";
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 1_000_000;
+
+	@Test
+	public void benchmarkTimeSpanFormat() {
+		// data
+		ResourceHandlerInstance resourceHandler = new ResourceHandlerInstance("i18n/MessageBundle");
+		resourceHandler.setLocale(Locale.GERMAN);
+		TimeSpanFormat timeSpanFormat = TimeSpanFormat.getInstance(resourceHandler.getMessageSource());
+
+		// execute
+		long uncached = measure(i -> {
+			MessageFormat format = new MessageFormat("");
+			format.setLocale(Locale.GERMAN);
+			format.applyPattern(TIME_SPAN_PATTERN);
+			return format.format(new Object[] { i % 100, i % 60 });
+		});
+		long cached = measure(i -> timeSpanFormat.format(new TimeSpan(i % 100, i % 60)));
+
+		// assert
+		System.out.printf("time span: uncached %d ns/op, time span format %d ns/op%n", uncached, cached);
+		assertTrue(cached < uncached);
+	}
+
+	@Test
+	public void benchmarkCheckerErrorFormat() {
+		// data
+		ResourceHandlerInstance resourceHandler = new ResourceHandlerInstance("i18n/MessageBundle");
+		resourceHandler.setLocale(Locale.GERMAN);
+		ResourceBundle bundle = ResourceBundle.getBundle("i18n/MessageBundle", Locale.GERMAN);
+
+		// execute
+		long uncached = measure(i -> {
+			MessageFormat format = new MessageFormat("");
+			format.setLocale(Locale.GERMAN);
+			format.applyPattern(bundle.getString(KEY));
+			return format.format(new Object[] { i % 100, i % 60 });
+		});
+		long cached = measure(i -> resourceHandler.getMessage(KEY, i % 100, i % 60));
+
+		// assert
+		System.out.printf("%s: uncached %d ns/op, cached %d ns/op%n", KEY, uncached, cached);
+		assertTrue(cached < uncached);
+	}
+
+	private static long measure(Formatter formatter) {
+		long checksum = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			checksum += formatter.format(i).length();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			checksum += formatter.format(i).length();
+		}
+		long elapsed = System.nanoTime() - start;
+		assertTrue(checksum > 0); // Keeps the results alive
+		return elapsed / ITERATIONS;
+	}
+
+	@FunctionalInterface
+	private interface Formatter {
+		String format(int i);
+	}
+
+}
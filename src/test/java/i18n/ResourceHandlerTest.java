@@ -6,7 +6,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Locale;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -167,4 +169,32 @@ public class ResourceHandlerTest {
 		assertEquals("Fallback to 21. Juli 2019", result);
 	}
 
+	@Test
+	public void testCachedFormatInvalidatedOnLocaleChange() {
+		// data
+		resourceHandler.setLocale(Locale.ENGLISH);
+		LocalDate date = LocalDate.of(2019, 7, 21);
+		resourceHandler.getMessage("dateWithFormat", date);
+		// execute
+		resourceHandler.setLocale(Locale.GERMAN);
+		String result = resourceHandler.getMessage("dateWithFormat", date);
+		// assert
+		assertEquals("Am 21.07.2019", result);
+	}
+
+	@Test
+	public void testGetMessageConcurrently() {
+		// data
+		resourceHandler.setLocale(Locale.GERMAN);
+		// execute
+		List<String> results = IntStream.rangeClosed(1, 1000).parallel()
+				.mapToObj(i -> resourceHandler.getMessage("dateWithLongFormat", LocalDate.of(2019, 1 + i % 12, 1 + i % 28))).toList();
+		// assert
+		ResourceHandlerInstance reference = new ResourceHandlerInstance("i18n_test/MessageBundle");
+		reference.setLocale(Locale.GERMAN);
+		for (int i = 1; i <= 1000; i++) {
+			assertEquals(reference.getMessage("dateWithLongFormat", LocalDate.of(2019, 1 + i % 12, 1 + i % 28)), results.get(i - 1));
+		}
+	}
+
 }
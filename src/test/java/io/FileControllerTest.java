@@ -0,0 +1,84 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileControllerTest {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void testReadKeepsLineEndings() throws IOException {
+		// data
+		String content = "first\r\nsecond\nÄnderung";
+		Path file = Files.writeString(directory.resolve("file.txt"), content, StandardCharsets.UTF_8);
+
+		// execute & assert
+		assertEquals(content, FileController.readFileToString(file.toFile()));
+		assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), FileController.readFileToBytes(file.toFile()));
+		assertEquals(content, FileController.readInputStreamToString(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	public void testSaveReplacesAtomically() throws IOException {
+		// data
+		Path file = Files.writeString(directory.resolve("out.tex"), "old content, which is longer");
+
+		// execute
+		FileController.saveStringToFile("new", file.toFile());
+
+		// assert
+		assertEquals("new", Files.readString(file));
+		try (var files = Files.list(directory)) {
+			assertEquals(List.of(file), files.toList()); // No temporary file is left behind
+		}
+	}
+
+	@Test
+	public void testWriteSynced() throws IOException {
+		// data
+		Path file = directory.resolve("journal.ndjson");
+		byte[] content = { 1, 2, 3 };
+
+		// execute
+		FileController.writeAtomically(file, content, true);
+
+		// assert
+		assertArrayEquals(content, Files.readAllBytes(file));
+	}
+
+	@Test
+	public void testWriteToMissingDirectory() {
+		// data
+		Path file = directory.resolve("missing").resolve("out.tex");
+
+		// execute & assert
+		assertThrows(IOException.class, () -> FileController.saveBytesToFile(new byte[] { 1 }, file.toFile()));
+	}
+
+	@Test
+	public void testMapFile() throws IOException {
+		// data
+		Path file = Files.write(directory.resolve("archive"), new byte[] { 4, 5, 6 });
+
+		// execute
+		MappedByteBuffer buffer = FileController.mapFile(file);
+
+		// assert
+		assertEquals(3, buffer.remaining());
+		assertEquals(5, buffer.get(1));
+	}
+
+}
@@ -0,0 +1,155 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputCacheTest {
+
+	private static final String KEY_A = "a".repeat(64);
+	private static final String KEY_B = "b".repeat(64);
+	private static final String KEY_C = "c".repeat(64);
+
+	@TempDir
+	private Path directory;
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testPutAndGet() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory)) {
+			// execute
+			cache.put(KEY_A, bytes("document"));
+
+			// assert
+			assertArrayEquals(bytes("document"), cache.get(KEY_A).orElseThrow());
+			assertEquals(Optional.empty(), cache.get(KEY_B));
+			assertEquals(8, cache.size());
+		}
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory, 10)) {
+			cache.put(KEY_A, bytes("aaaa"));
+			cache.put(KEY_B, bytes("bbbb"));
+			cache.get(KEY_A); // B is now the least recently used
+
+			// execute
+			cache.put(KEY_C, bytes("cccc"));
+
+			// assert
+			assertTrue(cache.contains(KEY_A));
+			assertFalse(cache.contains(KEY_B));
+			assertTrue(cache.contains(KEY_C));
+			assertEquals(8, cache.size());
+		}
+	}
+
+	@Test
+	public void testSkipTooLarge() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory, 4)) {
+			// execute
+			cache.put(KEY_A, bytes("too large"));
+
+			// assert
+			assertFalse(cache.contains(KEY_A));
+		}
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory, 10)) {
+			cache.put(KEY_A, bytes("aaaa"));
+			cache.put(KEY_B, bytes("bbbb"));
+			cache.get(KEY_A);
+		}
+
+		// execute
+		try (OutputCache cache = new OutputCache(directory, 10)) {
+			cache.put(KEY_C, bytes("cccc"));
+
+			// assert
+			assertArrayEquals(bytes("aaaa"), cache.get(KEY_A).orElseThrow());
+			assertFalse(cache.contains(KEY_B)); // The usage order was restored
+		}
+	}
+
+	@Test
+	public void testRemoveOrphanedAndMissing() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory)) {
+			cache.put(KEY_A, bytes("aaaa"));
+			cache.put(KEY_B, bytes("bbbb"));
+		}
+		Files.delete(directory.resolve(KEY_A + ".out"));
+		Files.writeString(directory.resolve(KEY_C + ".out"), "orphaned");
+		Files.setLastModifiedTime(directory.resolve(KEY_C + ".out"), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+		// execute
+		try (OutputCache cache = new OutputCache(directory)) {
+			// assert
+			assertFalse(cache.contains(KEY_A));
+			assertTrue(cache.contains(KEY_B));
+			assertFalse(Files.exists(directory.resolve(KEY_C + ".out")));
+			assertEquals(4, cache.size());
+		}
+	}
+
+	@Test
+	public void testKeepRecentUnindexed() throws IOException {
+		// data
+		Files.writeString(directory.resolve(KEY_C + ".out"), "being added by another process");
+
+		// execute
+		try (OutputCache cache = new OutputCache(directory)) {
+			// assert
+			assertFalse(cache.contains(KEY_C));
+			assertTrue(Files.exists(directory.resolve(KEY_C + ".out")));
+		}
+	}
+
+	@Test
+	public void testMergeIndexOfOtherInstances() throws IOException {
+		// execute
+		try (OutputCache first = new OutputCache(directory); OutputCache second = new OutputCache(directory)) {
+			first.put(KEY_A, bytes("aaaa"));
+			second.put(KEY_B, bytes("bbbb"));
+			first.get(KEY_A);
+		}
+
+		// assert
+		try (OutputCache cache = new OutputCache(directory)) {
+			assertArrayEquals(bytes("aaaa"), cache.get(KEY_A).orElseThrow());
+			assertArrayEquals(bytes("bbbb"), cache.get(KEY_B).orElseThrow());
+			assertEquals(8, cache.size());
+		}
+	}
+
+	@Test
+	public void testInvalidKey() throws IOException {
+		// data
+		try (OutputCache cache = new OutputCache(directory)) {
+			// execute & assert
+			assertThrows(IllegalArgumentException.class, () -> cache.get("../index"));
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import data.Employee;
+import data.TimeSheet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSheetArchiveTest {
+
+	private static final Employee FIRST = new Employee("Max Mustermann", 1234567);
+	private static final Employee SECOND = new Employee("Erika Musterfrau", 7654321);
+
+	@TempDir
+	private Path directory;
+
+	private Path writeArchive(List<TimeSheet> timeSheets) throws IOException {
+		Path file = directory.resolve("timesheets.tsga");
+		TimeSheetArchive.write(file, timeSheets);
+		return file;
+	}
+
+	private static List<TimeSheet> year(Employee employee, int year) {
+		List<TimeSheet> timeSheets = new ArrayList<>();
+		for (int month = 12; month >= 1; month--) {
+			timeSheets.add(TimeSheetCodecTest.timeSheet(employee, YearMonth.of(year, month)));
+		}
+		return timeSheets;
+	}
+
+	@Test
+	public void testGet() throws IOException {
+		// data
+		List<TimeSheet> timeSheets = new ArrayList<>(year(SECOND, 2019));
+		timeSheets.addAll(year(FIRST, 2019));
+		timeSheets.addAll(year(FIRST, 2020));
+		TimeSheetArchive archive = TimeSheetArchive.open(writeArchive(timeSheets));
+
+		// execute
+		Optional<TimeSheet> timeSheet = archive.get(FIRST.getId(), YearMonth.of(2020, 2));
+
+		// assert
+		assertEquals(36, archive.size());
+		assertEquals(Optional.of(TimeSheetCodecTest.timeSheet(FIRST, YearMonth.of(2020, 2))), timeSheet);
+		assertEquals(Optional.of(TimeSheetCodecTest.timeSheet(SECOND, YearMonth.of(2019, 12))), archive.get(SECOND.getId(), YearMonth.of(2019, 12)));
+	}
+
+	@Test
+	public void testGetMissing() throws IOException {
+		// data
+		TimeSheetArchive archive = TimeSheetArchive.open(writeArchive(year(FIRST, 2019)));
+
+		// execute & assert
+		assertTrue(archive.get(FIRST.getId(), YearMonth.of(2020, 1)).isEmpty());
+		assertTrue(archive.get(SECOND.getId(), YearMonth.of(2019, 1)).isEmpty());
+	}
+
+	@Test
+	public void testGetRange() throws IOException {
+		// data
+		List<TimeSheet> timeSheets = new ArrayList<>(year(FIRST, 2019));
+		timeSheets.addAll(year(FIRST, 2020));
+		timeSheets.addAll(year(SECOND, 2019));
+		TimeSheetArchive archive = TimeSheetArchive.open(writeArchive(timeSheets));
+
+		// execute
+		List<TimeSheet> range = archive.get(FIRST.getId(), YearMonth.of(2019, 11), YearMonth.of(2020, 2));
+
+		// assert
+		assertEquals(List.of(YearMonth.of(2019, 11), YearMonth.of(2019, 12), YearMonth.of(2020, 1), YearMonth.of(2020, 2)),
+				range.stream().map(timeSheet -> YearMonth.of(timeSheet.getYear(), timeSheet.getMonth())).toList());
+	}
+
+	@Test
+	public void testEmptyArchive() throws IOException {
+		// execute
+		TimeSheetArchive archive = TimeSheetArchive.open(writeArchive(List.of()));
+
+		// assert
+		assertEquals(0, archive.size());
+		assertTrue(archive.get(FIRST.getId(), YearMonth.of(2019, 1)).isEmpty());
+	}
+
+	@Test
+	public void testDuplicateTimeSheet() {
+		// data
+		List<TimeSheet> timeSheets = List.of(TimeSheetCodecTest.timeSheet(FIRST, YearMonth.of(2019, 1)),
+				TimeSheetCodecTest.timeSheet(FIRST, YearMonth.of(2019, 1)));
+
+		// execute & assert
+		assertThrows(IllegalArgumentException.class, () -> writeArchive(timeSheets));
+	}
+
+	@Test
+	public void testOpenNoArchive() throws IOException {
+		// data
+		Path file = Files.writeString(directory.resolve("month.json"), "{\"year\": 2019, \"month\": 11, \"entries\": []}");
+
+		// execute & assert
+		assertThrows(IOException.class, () -> TimeSheetArchive.open(file));
+	}
+
+}
@@ -0,0 +1,80 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import data.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSheetCodecTest {
+
+	private static final Employee EMPLOYEE = new Employee("Max Mustermann", 1234567);
+	private static final Profession PROFESSION = new Profession("Fakultät für Informatik", WorkingArea.UB, new TimeSpan(40, 0), 10.31);
+	private static final YearMonth YEAR_MONTH = YearMonth.of(2019, 11);
+	private static final TimeSpan zeroTs = new TimeSpan(0, 0);
+
+	static TimeSheet timeSheet(Employee employee, YearMonth yearMonth) {
+		Entry[] entries = { new Entry("Korrektur", yearMonth.atDay(4), new TimeSpan(8, 15), new TimeSpan(14, 45), new TimeSpan(0, 30), false),
+				new Entry("Übung", yearMonth.atDay(4), new TimeSpan(16, 0), new TimeSpan(18, 0), zeroTs, false),
+				new Entry("Urlaub", yearMonth.atDay(20), new TimeSpan(10, 0), new TimeSpan(12, 0), zeroTs, true),
+				new Entry("Korrektur", yearMonth.atEndOfMonth(), new TimeSpan(9, 0), new TimeSpan(10, 0), zeroTs, false) };
+		return new TimeSheet(employee, PROFESSION, yearMonth, entries, new TimeSpan(1, 30), new TimeSpan(0, 45));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		// data
+		TimeSheet timeSheet = timeSheet(EMPLOYEE, YEAR_MONTH);
+
+		// execute
+		byte[] encoded = TimeSheetCodec.encode(timeSheet);
+		TimeSheet decoded = TimeSheetCodec.decode(ByteBuffer.wrap(encoded));
+
+		// assert
+		assertEquals(timeSheet, decoded);
+		assertEquals(PROFESSION, decoded.getProfession());
+		assertEquals(LocalDate.of(2019, 11, 30), decoded.getEntries().get(3).getDate());
+		assertTrue(decoded.getEntries().get(2).isVacation());
+		assertFalse(decoded.getEntries().get(3).isVacation());
+		String content = new String(encoded, StandardCharsets.UTF_8);
+		assertEquals(content.indexOf("Korrektur"), content.lastIndexOf("Korrektur")); // Repeated actions are stored once
+	}
+
+	@Test
+	public void testRoundTripWithoutEntries() throws IOException {
+		// data
+		TimeSheet timeSheet = new TimeSheet(EMPLOYEE, PROFESSION, YEAR_MONTH, new Entry[0], zeroTs, zeroTs);
+
+		// execute & assert
+		assertEquals(timeSheet, TimeSheetCodec.decode(ByteBuffer.wrap(TimeSheetCodec.encode(timeSheet))));
+	}
+
+	@Test
+	public void testUnsupportedVersion() {
+		// data
+		byte[] encoded = TimeSheetCodec.encode(timeSheet(EMPLOYEE, YEAR_MONTH));
+		encoded[0] = TimeSheetCodec.VERSION + 1;
+
+		// execute & assert
+		assertThrows(IOException.class, () -> TimeSheetCodec.decode(ByteBuffer.wrap(encoded)));
+	}
+
+	@Test
+	public void testTruncated() {
+		// data
+		byte[] encoded = TimeSheetCodec.encode(timeSheet(EMPLOYEE, YEAR_MONTH));
+
+		// execute & assert
+		for (int length = 0; length < encoded.length; length++) {
+			ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, length);
+			assertThrows(IOException.class, () -> TimeSheetCodec.decode(truncated));
+		}
+	}
+
+}
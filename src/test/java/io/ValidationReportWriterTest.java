@@ -0,0 +1,82 @@
+/* Licensed under MIT 2024. */
+package io;
+
+import checker.CheckerError;
+import checker.CheckerException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import data.TimeSheet;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import service.TimeSheetService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+
+public class ValidationReportWriterTest {
+
+	// Entries on sundays are invalid without fetching holidays
+	private static final String JSON_MONTH_SUNDAYS = "{\"year\": 2019, \"month\": 11, \"entries\": ["
+			+ "{\"action\": \"Korrektur\", \"day\": 3, \"start\": \"10:00\", \"end\": \"11:00\"},"
+			+ "{\"action\": \"Korrektur\", \"day\": 10, \"start\": \"10:00\", \"end\": \"11:00\"}]}";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static TimeSheet timeSheet() throws ParseException {
+		return new TimeSheetService().parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAYS);
+	}
+
+	private static Collection<CheckerError> errors(TimeSheet timeSheet) throws CheckerException {
+		return new TimeSheetService().check(timeSheet);
+	}
+
+	@Test
+	public void testJson() throws IOException, ParseException, CheckerException {
+		// data
+		TimeSheet timeSheet = timeSheet();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		// execute
+		try (ValidationReportWriter report = new ValidationReportWriter(output, ValidationReportWriter.Format.JSON)) {
+			report.write("sheet", errors(timeSheet));
+			report.write("valid", List.of());
+		}
+
+		// assert
+		JsonNode root = MAPPER.readTree(output.toByteArray());
+		assertEquals(2, root.get("errors").size());
+		JsonNode error = root.get("errors").get(0);
+		assertEquals("sheet", error.get("sheet").asText());
+		assertEquals("TIME_SUNDAY", error.get("code").asText());
+		assertEquals("2019-11-03", error.get("date").asText());
+		assertEquals("2019-11-03", error.get("args").get(0).asText());
+		assertEquals(2, root.get("summary").get("sheets").asInt());
+		assertEquals(1, root.get("summary").get("invalidSheets").asInt());
+		assertEquals(2, root.get("summary").get("errors").get("TIME_SUNDAY").asInt());
+	}
+
+	@Test
+	public void testNdjson() throws IOException, ParseException, CheckerException {
+		// data
+		TimeSheet timeSheet = timeSheet();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		// execute
+		try (ValidationReportWriter report = new ValidationReportWriter(output, ValidationReportWriter.Format.NDJSON)) {
+			report.write("valid", List.of());
+			report.write("sheet", errors(timeSheet));
+		}
+
+		// assert
+		String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("2019-11-10", MAPPER.readTree(lines[1]).get("date").asText());
+	}
+
+}
@@ -0,0 +1,101 @@
+/* Licensed under MIT 2024. */
+package main;
+
+import profiling.StartupMilestone;
+
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the application jar until the output of a
+ * command line generation is written and until the first frame of the user
+ * interface is shown, with and without the class data sharing archive. The
+ * time to the first frame is only measured if a display is available. <br/>
+ * Usage: <code>StartupBenchmark &lt;jar&gt; [archive] [runs]</code>
+ */
+public final class StartupBenchmark {
+
+	private static final String GLOBAL = "{\"name\": \"Max Mustermann\", \"staffId\": 1234567, \"department\": \"Fakultät für Informatik\","
+			+ " \"workingTime\": \"40:00\", \"wage\": 10.31, \"workingArea\": \"ub\"}";
+	private static final String MONTH = "{\"year\": 2019, \"month\": 11, \"entries\": []}";
+	private static final int DEFAULT_RUNS = 10;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	private StartupBenchmark() {
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Path jar = Path.of(args[0]);
+		Path archive = args.length > 1 ? Path.of(args[1]) : null;
+		int runs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RUNS;
+
+		Path directory = Files.createTempDirectory("startup-benchmark");
+		Path global = Files.writeString(directory.resolve("global.json"), GLOBAL, StandardCharsets.UTF_8);
+		Path month = Files.writeString(directory.resolve("month.json"), MONTH, StandardCharsets.UTF_8);
+		List<String> generate = List.of("main.Main", "-f", global.toString(), month.toString(), directory.resolve("month.tex").toString());
+		List<String> openUserInterface = List.of("main.Main");
+
+		List<Path> archives = new ArrayList<>(Arrays.asList((Path) null));
+		if (archive != null && Files.exists(archive)) {
+			archives.add(archive);
+		}
+		for (Path sharedArchive : archives) {
+			String name = sharedArchive == null ? "default CDS" : "AppCDS";
+			report("time-to-output", name, measure(jar, sharedArchive, generate, StartupMilestone.OUTPUT, runs));
+			if (!GraphicsEnvironment.isHeadless()) {
+				report("time-to-first-frame", name, measure(jar, sharedArchive, openUserInterface, StartupMilestone.FIRST_FRAME, runs));
+			}
+		}
+	}
+
+	private static long[] measure(Path jar, Path archive, List<String> arguments, StartupMilestone milestone, int runs)
+			throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (archive != null) {
+			command.add("-XX:SharedArchiveFile=" + archive);
+		}
+		command.add("-D" + StartupMilestone.PROPERTY + "=true");
+		command.add("-cp");
+		command.add(jar.toString());
+		command.addAll(arguments);
+
+		long[] millis = new long[runs];
+		for (int run = 0; run < runs; run++) {
+			long start = System.nanoTime();
+			Process process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+			try (BufferedReader stderr = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+				String expected = StartupMilestone.REPORT_PREFIX + milestone.getName();
+				String line;
+				while ((line = stderr.readLine()) != null && !line.equals(expected)) {
+					// Skip other output
+				}
+				if (line == null) {
+					throw new IllegalStateException("The application exited before reaching " + milestone.getName());
+				}
+				millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			} finally {
+				process.destroy();
+				process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
+		}
+		return millis;
+	}
+
+	private static void report(String metric, String configuration, long[] millis) {
+		long[] sorted = millis.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-20s %-12s median %5d ms, min %5d ms, max %5d ms%n", metric, configuration, sorted[sorted.length / 2], sorted[0],
+				sorted[sorted.length - 1]);
+	}
+
+}
@@ -0,0 +1,65 @@
+/* Licensed under MIT 2024. */
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistogramTest {
+
+	@Test
+	public void testBucketBounds() {
+		// data
+		long[] values = { 0, 1, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE };
+
+		for (long value : values) {
+			// execute
+			int index = Histogram.bucketIndex(value);
+			long upperBound = Histogram.bucketUpperBound(index);
+
+			// assert
+			assertTrue(upperBound >= value);
+			assertTrue(upperBound - value <= value / Histogram.SUB_BUCKETS);
+			assertTrue(index == 0 || Histogram.bucketUpperBound(index - 1) < value);
+		}
+	}
+
+	@Test
+	public void testQuantiles() {
+		// data
+		Histogram histogram = new Histogram();
+
+		// execute
+		for (int value = 1; value <= 100; value++) {
+			histogram.record(value);
+		}
+
+		// assert
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(1, histogram.getValueAtQuantile(0));
+		assertEquals(51, histogram.getValueAtQuantile(0.5));
+		assertEquals(103, histogram.getValueAtQuantile(1));
+	}
+
+	@Test
+	public void testNegativeClamped() {
+		// data
+		Histogram histogram = new Histogram();
+
+		// execute
+		histogram.record(-5);
+
+		// assert
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getSum());
+		assertEquals(0, histogram.getValueAtQuantile(1));
+	}
+
+	@Test
+	public void testEmpty() {
+		// execute & assert
+		assertEquals(0, new Histogram().getValueAtQuantile(0.99));
+	}
+
+}
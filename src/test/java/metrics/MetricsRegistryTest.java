@@ -0,0 +1,87 @@
+/* Licensed under MIT 2024. */
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void testCounter() {
+		// data
+		MetricsRegistry registry = new MetricsRegistry();
+
+		// execute
+		registry.counter("test_errors_total", "Errors.", "code", "B").increment();
+		registry.counter("test_errors_total", "Errors.", "code", "A").add(2);
+		registry.counter("test_errors_total", "Errors.", "code", "B").increment();
+
+		// assert
+		assertEquals("""
+				# HELP test_errors_total Errors.
+				# TYPE test_errors_total counter
+				test_errors_total{code="A"} 2
+				test_errors_total{code="B"} 2
+				""", registry.toPrometheus());
+	}
+
+	@Test
+	public void testHistogram() {
+		// data
+		MetricsRegistry registry = new MetricsRegistry();
+		Histogram histogram = registry.histogram("test_duration_seconds", "Durations.");
+
+		// execute
+		histogram.record(2_000_000); // 2ms
+		histogram.record(20_000_000_000L); // 20s
+
+		// assert
+		String exported = registry.toPrometheus();
+		assertTrue(exported.contains("# TYPE test_duration_seconds histogram\n"));
+		assertTrue(exported.contains("test_duration_seconds_bucket{le=\"0.001\"} 0\n"));
+		assertTrue(exported.contains("test_duration_seconds_bucket{le=\"0.0025\"} 1\n"));
+		assertTrue(exported.contains("test_duration_seconds_bucket{le=\"10\"} 1\n"));
+		assertTrue(exported.contains("test_duration_seconds_bucket{le=\"+Inf\"} 2\n"));
+		assertTrue(exported.contains("test_duration_seconds_sum 20.002\n"));
+		assertTrue(exported.contains("test_duration_seconds_count 2\n"));
+	}
+
+	@Test
+	public void testLabelValueEscaped() {
+		// data
+		MetricsRegistry registry = new MetricsRegistry();
+
+		// execute
+		registry.counter("test_total", "Test.", "path", "a\"b").increment();
+
+		// assert
+		assertTrue(registry.toPrometheus().contains("test_total{path=\"a\\\"b\"} 1\n"));
+	}
+
+	@Test
+	public void testTypeConflict() {
+		// data
+		MetricsRegistry registry = new MetricsRegistry();
+		registry.counter("test_total", "Test.");
+
+		// execute & assert
+		assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_total", "Test."));
+	}
+
+	@Test
+	public void testOddLabels() {
+		// execute & assert
+		assertThrows(IllegalArgumentException.class, () -> new MetricsRegistry().counter("test_total", "Test.", "code"));
+	}
+
+	@Test
+	public void testNegativeIncrement() {
+		// data
+		Counter counter = new MetricsRegistry().counter("test_total", "Test.");
+
+		// execute & assert
+		assertThrows(IllegalArgumentException.class, () -> counter.add(-1));
+	}
+
+}
@@ -9,12 +9,11 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
 
 public class ParserJsonTest {
 
 	private static final String JSON_EMPTY = "{}";
-	private static final String JSON_GLOBAL_EXAMPLE = "{" + "\"name\": \"Max Mustermann\"," + "\"staffId\": 1234567,"
-			+ "\"department\": \"Fakultät für Informatik\"," + "\"workingTime\": \"40:00\"," + "\"wage\": 10.31," + "\"workingArea\": \"ub\"" + "}";
 	private static final String JSON_MONTH_EXAMPLE = "{" + "\"year\": 2019," + "\"month\": 11," + "\"pred_transfer\": \"2:00\","
 			+ "\"succ_transfer\": \"1:00\"," + "\"entries\": [" + "{\"action\": \"Korrektur\", \"day\": 2, \"start\": \"10:00\", \"end\": \"11:00\"},"
 			+ "{\"action\": \"Fragen beantworten\", \"day\": 4, \"start\": \"11:31\", \"end\": \"15:11\", \"pause\": \"00:30\"},"
@@ -0,0 +1,39 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+/**
+ * Json input files shared by the tests. The months can be checked without
+ * fetching holidays, as they have no entries on working days.
+ */
+public final class JsonFixtures {
+
+	/**
+	 * A global.json of an employee in the working area "ub".
+	 */
+	public static final String JSON_GLOBAL_EXAMPLE = global(1234567);
+	/**
+	 * A month without entries, which is valid.
+	 */
+	public static final String JSON_MONTH_EMPTY = "{\"year\": 2019, \"month\": 11, \"entries\": []}";
+	/**
+	 * A month with an entry on Sunday, 2019-11-03, which is invalid.
+	 */
+	public static final String JSON_MONTH_SUNDAY = "{\"year\": 2019, \"month\": 11, \"entries\": ["
+			+ "{\"action\": \"Korrektur\", \"day\": 3, \"start\": \"10:00\", \"end\": \"11:00\"}]}";
+
+	private JsonFixtures() {
+	}
+
+	/**
+	 * Creates the global.json of {@link #JSON_GLOBAL_EXAMPLE} with another staff
+	 * id.
+	 *
+	 * @param staffId - The staff id of the employee.
+	 * @return The global.json.
+	 */
+	public static String global(int staffId) {
+		return "{" + "\"name\": \"Max Mustermann\"," + "\"staffId\": " + staffId + "," + "\"department\": \"Fakultät für Informatik\","
+				+ "\"workingTime\": \"40:00\"," + "\"wage\": 10.31," + "\"workingArea\": \"ub\"" + "}";
+	}
+
+}
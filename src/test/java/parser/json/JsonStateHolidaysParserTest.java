@@ -0,0 +1,45 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import checker.holiday.Holiday;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStateHolidaysParserTest {
+
+	private static final String JSON_EXAMPLE = "{\"BW\": {\"Heilige Drei Könige\": {\"datum\": \"2019-01-06\", \"hinweis\": \"\"},"
+			+ " \"Gründonnerstag\": {\"datum\": \"2019-04-18\", \"hinweis\": \"Gemäß § 4 Abs. 3 des Feiertagsgesetzes ist schulfrei\"}},"
+			+ " \"BE\": {}}";
+
+	@Test
+	public void testGetHolidaysByState() throws ParseException {
+		// data
+		JsonStateHolidaysParser parser = new JsonStateHolidaysParser(JSON_EXAMPLE);
+
+		// execute
+		Map<String, Collection<Holiday>> holidaysByState = parser.getHolidaysByState();
+
+		// assert
+		assertEquals(List.of("BW", "BE"), List.copyOf(holidaysByState.keySet()));
+		assertEquals(1, holidaysByState.get("BW").size()); // The school holiday is left out
+		assertTrue(holidaysByState.get("BW").iterator().next().equalsDate(LocalDate.of(2019, 1, 6)));
+		assertTrue(holidaysByState.get("BE").isEmpty());
+	}
+
+	@Test
+	public void testGetHolidaysByStateMissingDate() {
+		// data
+		JsonStateHolidaysParser parser = new JsonStateHolidaysParser("{\"BW\": {\"Neujahrstag\": {\"hinweis\": \"\"}}}");
+
+		// execute & assert
+		assertThrows(ParseException.class, parser::getHolidaysByState);
+	}
+
+}
@@ -0,0 +1,47 @@
+/* Licensed under MIT 2024. */
+package parser.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import data.TimeSpan;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimeSpanJsonTest {
+
+	@Test
+	public void testDeserialize() throws JsonProcessingException {
+		// execute
+		TimeSpan timeSpan = JsonMappers.MAPPER.readValue("\"12:05\"", TimeSpan.class);
+
+		// assert
+		assertEquals(new TimeSpan(12, 5), timeSpan);
+	}
+
+	@Test
+	public void testSerialize() throws JsonProcessingException {
+		// execute
+		String json = JsonMappers.MAPPER.writeValueAsString(new TimeSpan(3, 7));
+
+		// assert
+		assertEquals("\"03:07\"", json);
+	}
+
+	@Test
+	public void testDeserializeInvalid() {
+		// execute & assert
+		Assertions.assertThrows(JsonProcessingException.class, () -> JsonMappers.MAPPER.readValue("\"12-05\"", TimeSpan.class));
+		Assertions.assertThrows(JsonProcessingException.class, () -> JsonMappers.MAPPER.readValue("1205", TimeSpan.class));
+	}
+
+	@Test
+	public void testNullPauseRejected() {
+		// data
+		String json = "{\"year\": 2019, \"month\": 11, \"entries\": [{\"action\": \"a\", \"day\": 2, \"start\": \"10:00\", \"end\": \"11:00\", \"pause\": null}]}";
+
+		// execute & assert
+		Assertions.assertThrows(JsonProcessingException.class, () -> JsonMappers.MAPPER.readValue(json, MonthJson.class));
+	}
+
+}
@@ -0,0 +1,69 @@
+/* Licensed under MIT 2024. */
+package profiling;
+
+import checker.CheckerException;
+import data.TimeSheet;
+import io.FileController;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import parser.ParseException;
+import service.TimeSheetService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+public class PipelineEventsTest {
+
+	@TempDir
+	private Path directory;
+
+	private List<RecordedEvent> record(Path destination) throws IOException, ParseException, CheckerException {
+		try (Recording recording = Profiler.start(destination)) {
+			TimeSheetService service = new TimeSheetService();
+			TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY);
+			service.check(timeSheet);
+			FileController.saveStringToFile(service.generateTex(timeSheet), directory.resolve("out.tex").toFile());
+			recording.stop();
+		}
+		return RecordingFile.readAllEvents(destination).stream().filter(event -> event.getEventType().getName().startsWith("timesheetgenerator."))
+				.toList();
+	}
+
+	private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+		return events.stream().filter(event -> event.getEventType().getName().equals("timesheetgenerator." + name)).toList();
+	}
+
+	@Test
+	public void testPipelineEvents() throws IOException, ParseException, CheckerException {
+		// execute
+		List<RecordedEvent> events = record(directory.resolve("recording.jfr"));
+
+		// assert
+		RecordedEvent parse = ofType(events, "Parse").getFirst();
+		assertEquals("1234567/2019-11", parse.getString("sheetId"));
+		assertEquals(1, parse.getInt("entryCount"));
+		assertEquals(JSON_MONTH_SUNDAY.length(), parse.getLong("monthBytes"));
+
+		List<RecordedEvent> rules = ofType(events, "CheckRule");
+		assertEquals(8, rules.size());
+		RecordedEvent workingDays = rules.stream().filter(event -> event.getString("rule").equals("validWorkingDays")).findFirst().orElseThrow();
+		assertEquals(1, workingDays.getInt("errorCount"));
+
+		RecordedEvent generate = ofType(events, "Generate").getFirst();
+		assertEquals("tex", generate.getString("format"));
+		assertTrue(generate.getLong("bytes") > 0);
+
+		RecordedEvent write = ofType(events, "FileIO").getFirst();
+		assertEquals(FileIOEvent.WRITE, write.getString("operation"));
+		assertEquals(generate.getLong("bytes"), write.getLong("bytes"));
+	}
+
+}
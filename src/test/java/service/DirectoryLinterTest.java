@@ -0,0 +1,89 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+import static parser.json.JsonFixtures.global;
+
+public class DirectoryLinterTest {
+
+	@TempDir
+	private Path root;
+
+	private final List<DirectoryLinter.Result> results = new ArrayList<>();
+
+	private Path writeEmployee(String name, int staffId) throws IOException {
+		Path directory = Files.createDirectories(root.resolve("department").resolve(name));
+		Files.writeString(directory.resolve("global.json"), global(staffId));
+		return directory;
+	}
+
+	@Test
+	public void testLint() throws IOException {
+		// data
+		for (int i = 0; i < 20; i++) {
+			Path employee = writeEmployee("employee" + i, 1000 + i);
+			Files.writeString(employee.resolve("2019-11.json"), i % 4 == 0 ? JSON_MONTH_SUNDAY : JSON_MONTH_EMPTY);
+		}
+
+		// execute
+		DirectoryLinter.Summary summary = new DirectoryLinter(new TimeSheetService(), 4).lint(root, results::add);
+
+		// assert
+		assertEquals(20, summary.sheets());
+		assertEquals(5, summary.invalidSheets());
+		assertEquals(0, summary.failedSheets());
+		assertEquals(Map.of("TIME_SUNDAY", 5), summary.invalidSheetsByCode());
+		assertFalse(summary.isValid());
+		assertEquals(20, results.size());
+		Set<String> invalid = results.stream().filter(result -> !result.isValid()).map(DirectoryLinter.Result::sheetId).collect(Collectors.toSet());
+		assertEquals(Set.of("1000/2019-11", "1004/2019-11", "1008/2019-11", "1012/2019-11", "1016/2019-11"), invalid);
+	}
+
+	@Test
+	public void testFailures() throws IOException {
+		// data
+		Path employee = writeEmployee("mustermann", 1234567);
+		Files.writeString(employee.resolve("2019-11.json"), JSON_MONTH_EMPTY);
+		Files.writeString(employee.resolve("2019-12.json"), "{");
+		Files.writeString(employee.resolve(".hidden.json"), "{");
+		Path orphan = Files.createDirectory(root.resolve("orphan"));
+		Files.writeString(orphan.resolve("2019-11.json"), JSON_MONTH_EMPTY);
+
+		// execute
+		DirectoryLinter.Summary summary = new DirectoryLinter(new TimeSheetService(), 2).lint(root, results::add);
+
+		// assert
+		assertEquals(3, summary.sheets());
+		assertEquals(0, summary.invalidSheets());
+		assertEquals(2, summary.failedSheets());
+		assertTrue(summary.invalidSheetsByCode().isEmpty());
+		Set<Path> failed = results.stream().filter(result -> result.failure() != null).map(DirectoryLinter.Result::file).collect(Collectors.toSet());
+		assertEquals(Set.of(employee.resolve("2019-12.json"), orphan.resolve("2019-11.json")), failed);
+	}
+
+	@Test
+	public void testEmptyDirectory() throws IOException {
+		// execute
+		DirectoryLinter.Summary summary = new DirectoryLinter(new TimeSheetService()).lint(root, results::add);
+
+		// assert
+		assertEquals(0, summary.sheets());
+		assertTrue(summary.isValid());
+		assertTrue(results.isEmpty());
+	}
+
+}
@@ -0,0 +1,101 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import i18n.MessageSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+public class StreamProcessorTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static String record(String id, String month) {
+		return "{\"id\": %s, \"global\": %s, \"month\": %s}".formatted(id, JSON_GLOBAL_EXAMPLE, month);
+	}
+
+	private static List<JsonNode> process(StreamProcessor.Format format, int maxRecordChars, String... lines) throws IOException {
+		StreamProcessor processor = new StreamProcessor(new TimeSheetService(), format, MessageSource.forLocale(Locale.ENGLISH), maxRecordChars);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		processor.process(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)), output);
+
+		List<JsonNode> results = new ArrayList<>();
+		for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+			results.add(MAPPER.readTree(line));
+		}
+		return results;
+	}
+
+	private static List<JsonNode> process(StreamProcessor.Format format, String... lines) throws IOException {
+		return process(format, StreamProcessor.DEFAULT_MAX_RECORD_CHARS, lines);
+	}
+
+	@Test
+	public void testTex() throws IOException {
+		// execute
+		List<JsonNode> results = process(StreamProcessor.Format.TEX, record("\"a\"", JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(1, results.size());
+		assertEquals("a", results.getFirst().get("id").asText());
+		assertTrue(results.getFirst().get("valid").asBoolean());
+		assertTrue(results.getFirst().get("tex").asText().contains("Max Mustermann"));
+		assertFalse(results.getFirst().has("pdf"));
+	}
+
+	@Test
+	public void testPdf() throws IOException {
+		// execute
+		List<JsonNode> results = process(StreamProcessor.Format.PDF, record("1", JSON_MONTH_EMPTY));
+
+		// assert
+		byte[] pdf = Base64.getDecoder().decode(results.getFirst().get("pdf").asText());
+		assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void testInvalidAndMalformedRecords() throws IOException {
+		// execute
+		List<JsonNode> results = process(StreamProcessor.Format.TEX, record("1", JSON_MONTH_SUNDAY), "", "{not json", "{\"global\": {}}",
+				record("5", JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(4, results.size()); // The empty line is skipped
+		assertFalse(results.get(0).get("valid").asBoolean());
+		assertEquals(1, results.get(0).get("errors").size());
+		assertFalse(results.get(0).has("tex"));
+		assertEquals(3, results.get(1).get("id").asInt()); // Line number
+		assertTrue(results.get(1).has("error"));
+		assertTrue(results.get(2).has("error"));
+		assertTrue(results.get(3).get("valid").asBoolean());
+	}
+
+	@Test
+	public void testRecordTooLong() throws IOException {
+		// data
+		String tooLong = record("1", JSON_MONTH_EMPTY);
+
+		// execute
+		List<JsonNode> results = process(StreamProcessor.Format.TEX, tooLong.length() - 1, tooLong, "{}");
+
+		// assert
+		assertEquals(2, results.size());
+		assertTrue(results.get(0).get("error").asText().contains(String.valueOf(tooLong.length() - 1)));
+		assertEquals(2, results.get(1).get("id").asInt());
+	}
+
+}
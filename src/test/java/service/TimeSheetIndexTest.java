@@ -0,0 +1,177 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import data.TimeSpan;
+import data.WorkingArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSheetIndexTest {
+
+	private static final String JSON_GLOBAL_FORMAT = "{\"name\": \"%s\", \"staffId\": %d, \"department\": \"%s\", \"workingTime\": \"40:00\","
+			+ " \"wage\": 10.31, \"workingArea\": \"%s\"}";
+	private static final String JSON_MONTH_FORMAT = "{\"year\": %d, \"month\": %d, \"entries\": ["
+			+ "{\"action\": \"Korrektur\", \"day\": 3, \"start\": \"10:00\", \"end\": \"%s\"}]}";
+
+	@TempDir
+	private Path root;
+
+	private Path first;
+	private Path second;
+	private final List<String> log = new ArrayList<>();
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		first = Files.createDirectories(root.resolve("informatik").resolve("mustermann"));
+		Files.writeString(first.resolve("global.json"), JSON_GLOBAL_FORMAT.formatted("Max Mustermann", 1234567, "Fakultät für Informatik", "ub"));
+		second = Files.createDirectories(root.resolve("physik").resolve("musterfrau"));
+		Files.writeString(second.resolve("global.json"), JSON_GLOBAL_FORMAT.formatted("Erika Musterfrau", 7654321, "Fakultät für Physik", "gf"));
+		for (int month = 1; month <= 12; month++) {
+			writeMonth(first, 2019, month, "11:00");
+			writeMonth(second, 2019, month, "12:00");
+		}
+	}
+
+	private static Path writeMonth(Path directory, int year, int month, String end) throws IOException {
+		return Files.writeString(directory.resolve("%d-%02d.json".formatted(year, month)), JSON_MONTH_FORMAT.formatted(year, month, end));
+	}
+
+	private TimeSheetIndex index() {
+		return new TimeSheetIndex(new TimeSheetService(), root, log::add);
+	}
+
+	@Test
+	public void testFind() throws IOException {
+		// data
+		TimeSheetIndex index = index();
+
+		// execute
+		int parsed = index.refresh();
+		List<TimeSheetIndex.Sheet> sheets = index.find(new TimeSheetIndex.Query(1234567, YearMonth.of(2019, 3), YearMonth.of(2019, 4), null, null));
+
+		// assert
+		assertEquals(24, parsed);
+		assertEquals(24, index.size());
+		assertEquals(List.of(YearMonth.of(2019, 3), YearMonth.of(2019, 4)), sheets.stream().map(TimeSheetIndex.Sheet::yearMonth).toList());
+		TimeSheetIndex.Sheet sheet = sheets.get(0);
+		assertEquals(first.resolve("2019-03.json").toAbsolutePath(), sheet.file());
+		assertEquals("Max Mustermann", sheet.employeeName());
+		assertEquals(new TimeSpan(1, 0), sheet.workTime());
+		assertEquals(new TimeSpan(40, 0), sheet.maxWorkingTime());
+		assertTrue(log.isEmpty());
+	}
+
+	@Test
+	public void testFindByDepartmentAndArea() throws IOException {
+		// data
+		TimeSheetIndex index = index();
+		index.refresh();
+
+		// execute & assert
+		assertEquals(12, index.find(new TimeSheetIndex.Query(null, null, null, "Fakultät für Physik", null)).size());
+		assertEquals(12, index.find(new TimeSheetIndex.Query(null, null, null, null, WorkingArea.UB)).size());
+		assertTrue(index.find(new TimeSheetIndex.Query(7654321, null, null, null, WorkingArea.UB)).isEmpty());
+		assertEquals(24, index.find(TimeSheetIndex.Query.ALL).size());
+	}
+
+	@Test
+	public void testStoredIndexReused() throws IOException {
+		// data
+		index().refresh();
+
+		// execute
+		TimeSheetIndex reloaded = index();
+		int parsed = reloaded.refresh();
+
+		// assert
+		assertTrue(Files.exists(root.resolve(TimeSheetIndex.INDEX_FILE_NAME)));
+		assertEquals(0, parsed);
+		assertEquals(new TimeSpan(2, 0), reloaded.find(new TimeSheetIndex.Query(7654321, YearMonth.of(2019, 5), YearMonth.of(2019, 5), null, null))
+				.get(0).workTime());
+	}
+
+	@Test
+	public void testRefreshChanged() throws IOException {
+		// data
+		TimeSheetIndex index = index();
+		index.refresh();
+		Path changed = writeMonth(first, 2019, 5, "14:00");
+		Files.setLastModifiedTime(changed, FileTime.from(Instant.now().plusSeconds(60)));
+		writeMonth(first, 2020, 1, "11:00");
+		Files.delete(second.resolve("2019-12.json"));
+
+		// execute
+		int parsed = index.refresh();
+
+		// assert
+		assertEquals(2, parsed);
+		assertEquals(24, index.size());
+		assertEquals(new TimeSpan(4, 0), index.find(new TimeSheetIndex.Query(1234567, YearMonth.of(2019, 5), YearMonth.of(2019, 5), null, null))
+				.get(0).workTime());
+	}
+
+	@Test
+	public void testRefreshChangedGlobal() throws IOException {
+		// data
+		TimeSheetIndex index = index();
+		index.refresh();
+		Path global = second.resolve("global.json");
+		Files.writeString(global, JSON_GLOBAL_FORMAT.formatted("Erika Musterfrau", 7654321, "Fakultät für Chemie", "gf"));
+		Files.setLastModifiedTime(global, FileTime.from(Instant.now().plusSeconds(60)));
+
+		// execute
+		int parsed = index.refresh();
+
+		// assert
+		assertEquals(12, parsed);
+		assertEquals(12, index.find(new TimeSheetIndex.Query(null, null, null, "Fakultät für Chemie", null)).size());
+	}
+
+	@Test
+	public void testFailedFileSkippedUntilChanged() throws IOException {
+		// data
+		Path invalid = first.resolve("2020-01.json");
+		Files.writeString(invalid, "{");
+		index().refresh();
+		TimeSheetIndex reloaded = index();
+
+		// execute
+		int parsedUnchanged = reloaded.refresh();
+		writeMonth(first, 2020, 1, "11:00");
+		Files.setLastModifiedTime(invalid, FileTime.from(Instant.now().plusSeconds(60)));
+		int parsedChanged = reloaded.refresh();
+
+		// assert
+		assertEquals(0, parsedUnchanged);
+		assertEquals(1, parsedChanged);
+		assertEquals(1, log.size()); // Only the first refresh reported the file
+		assertEquals(25, reloaded.size());
+	}
+
+	@Test
+	public void testCorruptedIndexRebuilt() throws IOException {
+		// data
+		Files.writeString(root.resolve(TimeSheetIndex.INDEX_FILE_NAME), "{");
+
+		// execute
+		TimeSheetIndex index = index();
+		int parsed = index.refresh();
+
+		// assert
+		assertEquals(24, parsed);
+		assertEquals(24, index.size());
+	}
+
+}
@@ -0,0 +1,215 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+public class TimeSheetServerTest {
+
+	private TimeSheetServer server;
+	private HttpClient client;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = startServer(TimeSheetServer.DEFAULT_MAX_REQUEST_BYTES, TimeSheetServer.DEFAULT_MAX_CONCURRENT_REQUESTS);
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.stop(0);
+		client.close();
+	}
+
+	private static TimeSheetServer startServer(int maxRequestBytes, int maxConcurrentRequests) throws IOException {
+		TimeSheetServer server = new TimeSheetServer(new TimeSheetService(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxRequestBytes,
+				maxConcurrentRequests);
+		server.start();
+		return server;
+	}
+
+	private static String body(String month) {
+		return "{\"global\": %s, \"month\": %s}".formatted(JSON_GLOBAL_EXAMPLE, month);
+	}
+
+	private HttpResponse<byte[]> post(TimeSheetServer target, String path, String body) throws IOException, InterruptedException {
+		URI uri = URI.create("http://localhost:%d%s".formatted(target.getAddress().getPort(), path));
+		HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static String text(HttpResponse<byte[]> response) {
+		return new String(response.body(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testValidateValid() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/validate", body(JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(200, response.statusCode());
+		assertEquals("{\"valid\":true,\"errors\":[]}", text(response));
+	}
+
+	@Test
+	public void testValidateInvalid() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/validate", body(JSON_MONTH_SUNDAY));
+
+		// assert
+		assertEquals(200, response.statusCode());
+		assertTrue(text(response).startsWith("{\"valid\":false,\"errors\":[\""));
+	}
+
+	@Test
+	public void testTex() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/tex", body(JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(200, response.statusCode());
+		assertTrue(text(response).contains("Max Mustermann"));
+	}
+
+	@Test
+	public void testTexInvalid() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/tex", body(JSON_MONTH_SUNDAY));
+
+		// assert
+		assertEquals(422, response.statusCode());
+		assertTrue(text(response).contains("\"valid\":false"));
+	}
+
+	@Test
+	public void testPdf() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/pdf", body(JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(200, response.statusCode());
+		assertEquals("application/pdf", response.headers().firstValue("Content-Type").orElseThrow());
+		assertTrue(text(response).startsWith("%PDF"));
+	}
+
+	@Test
+	public void testMonthAsJsonString() throws IOException, InterruptedException {
+		// data
+		String body = "{\"global\": %s, \"month\": \"%s\"}".formatted(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EMPTY.replace("\"", "\\\""));
+
+		// execute
+		HttpResponse<byte[]> response = post(server, "/validate", body);
+
+		// assert
+		assertEquals(200, response.statusCode());
+	}
+
+	@Test
+	public void testInvalidJson() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/validate", "{\"global\": {}}");
+
+		// assert
+		assertEquals(400, response.statusCode());
+		assertTrue(text(response).startsWith("{\"error\":"));
+	}
+
+	@Test
+	public void testMethodNotAllowed() throws IOException, InterruptedException {
+		// data
+		URI uri = URI.create("http://localhost:%d/validate".formatted(server.getAddress().getPort()));
+
+		// execute
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+		// assert
+		assertEquals(405, response.statusCode());
+		assertEquals("POST", response.headers().firstValue("Allow").orElseThrow());
+	}
+
+	@Test
+	public void testMetrics() throws IOException, InterruptedException {
+		// data
+		post(server, "/validate", body(JSON_MONTH_SUNDAY));
+		URI uri = URI.create("http://localhost:%d/metrics".formatted(server.getAddress().getPort()));
+
+		// execute
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+		// assert
+		assertEquals(200, response.statusCode());
+		assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain; version=0.0.4"));
+		assertTrue(response.body().contains("# TYPE timesheet_sheets_invalid_total counter"));
+		assertTrue(response.body().contains("timesheet_checker_errors_total{code=\"TIME_SUNDAY\"}"));
+		assertTrue(response.body().contains("timesheet_check_duration_seconds_bucket{le=\"+Inf\"}"));
+	}
+
+	@Test
+	public void testMetricsPostNotAllowed() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/metrics", "");
+
+		// assert
+		assertEquals(405, response.statusCode());
+		assertEquals("GET", response.headers().firstValue("Allow").orElseThrow());
+	}
+
+	@Test
+	public void testUnknownPath() throws IOException, InterruptedException {
+		// execute
+		HttpResponse<byte[]> response = post(server, "/validate/more", body(JSON_MONTH_EMPTY));
+
+		// assert
+		assertEquals(404, response.statusCode());
+	}
+
+	@Test
+	public void testRequestTooLarge() throws IOException, InterruptedException {
+		// data
+		TimeSheetServer limited = startServer(100, TimeSheetServer.DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+		try {
+			// execute
+			HttpResponse<byte[]> response = post(limited, "/validate", body(JSON_MONTH_EMPTY));
+
+			// assert
+			assertEquals(413, response.statusCode());
+		} finally {
+			limited.stop(0);
+		}
+	}
+
+	@Test
+	public void testConcurrencyLimit() throws IOException, InterruptedException {
+		// data
+		TimeSheetServer saturated = startServer(TimeSheetServer.DEFAULT_MAX_REQUEST_BYTES, 0);
+
+		try {
+			// execute
+			HttpResponse<byte[]> response = post(saturated, "/validate", body(JSON_MONTH_EMPTY));
+
+			// assert
+			assertEquals(503, response.statusCode());
+			assertTrue(response.headers().firstValue("Retry-After").isPresent());
+		} finally {
+			saturated.stop(0);
+		}
+	}
+
+}
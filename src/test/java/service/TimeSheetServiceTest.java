@@ -0,0 +1,102 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerException;
+import data.TimeSheet;
+import i18n.MessageSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+public class TimeSheetServiceTest {
+
+	private static final String JSON_MONTH_EXAMPLE = "{" + "\"year\": 2019," + "\"month\": 11," + "\"pred_transfer\": \"2:00\","
+			+ "\"succ_transfer\": \"1:00\"," + "\"entries\": [" + "{\"action\": \"Korrektur\", \"day\": 2, \"start\": \"10:00\", \"end\": \"11:00\"}" + "]"
+			+ "}";
+	private static final String JSON_MONTH_NEGATIVE = "{" + "\"year\": 2019," + "\"month\": 11," + "\"pred_transfer\": \"50:00\"," + "\"entries\": []"
+			+ "}";
+
+	@Test
+	public void testParse() throws ParseException {
+		// execute
+		TimeSheet timeSheet = new TimeSheetService().parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EXAMPLE);
+
+		// assert
+		assertEquals(2019, timeSheet.getYear());
+		assertEquals(1, timeSheet.getEntries().size());
+	}
+
+	@Test
+	public void testParseInvalidTimeSheet() {
+		// execute
+		Assertions.assertThrows(ParseException.class, () -> new TimeSheetService().parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_NEGATIVE));
+	}
+
+	@Test
+	public void testGenerateTex() throws ParseException, IOException {
+		// data
+		TimeSheetService service = new TimeSheetService();
+		TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EXAMPLE);
+
+		// execute
+		String tex = service.generateTex(timeSheet);
+
+		// assert
+		assertTrue(tex.contains("Korrektur"));
+		assertFalse(tex.contains("!action"));
+	}
+
+	@Test
+	public void testTemplateCached() throws IOException {
+		// data
+		TimeSheetService service = new TimeSheetService();
+
+		// execute & assert
+		assertSame(service.getLatexTemplate(), service.getLatexTemplate());
+	}
+
+	@Test
+	public void testTexCacheKeyIgnoresFormatting() throws ParseException, IOException, CheckerException {
+		// data
+		TimeSheetService service = new TimeSheetService();
+		MessageSource messageSource = MessageSource.forLocale(Locale.ENGLISH);
+		String reordered = "{\"workingArea\":\"ub\",\"wage\":10.31,\"workingTime\":\"40:00\",\"department\":\"Fakultät für Informatik\","
+				+ "\"staffId\":1234567,\"name\":\"Max Mustermann\"}";
+
+		// execute
+		TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY);
+		String key = service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY, timeSheet, messageSource);
+		String keyReordered = service.getTexCacheKey(reordered, JSON_MONTH_SUNDAY, timeSheet, messageSource);
+
+		// assert
+		assertEquals(64, key.length());
+		assertEquals(key, keyReordered);
+	}
+
+	@Test
+	public void testTexCacheKeyDependsOnInput() throws ParseException, IOException, CheckerException {
+		// data
+		TimeSheetService service = new TimeSheetService();
+		MessageSource messageSource = MessageSource.forLocale(Locale.ENGLISH);
+
+		// execute
+		TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY);
+		TimeSheet otherTimeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EMPTY);
+		String key = service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY, timeSheet, messageSource);
+		String keyOtherMonth = service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EMPTY, otherTimeSheet, messageSource);
+		String keyOtherLocale = service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, JSON_MONTH_SUNDAY, timeSheet, MessageSource.forLocale(Locale.GERMAN));
+
+		// assert
+		assertNotEquals(key, keyOtherMonth);
+		assertNotEquals(key, keyOtherLocale);
+	}
+
+}
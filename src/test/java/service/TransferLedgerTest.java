@@ -0,0 +1,154 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import data.TimeSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+
+public class TransferLedgerTest {
+
+	private static final String JSON_MONTH_FORMAT = "{\"year\": %d, \"month\": %d, \"pred_transfer\": \"%s\", \"succ_transfer\": \"%s\", \"entries\": ["
+			+ "{\"action\": \"Korrektur\", \"day\": 3, \"start\": \"10:00\", \"end\": \"11:30\"}]}";
+
+	@TempDir
+	private Path root;
+
+	private Path employee;
+	private final List<String> log = new ArrayList<>();
+	private TransferLedger ledger;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		employee = Files.createDirectory(root.resolve("mustermann"));
+		Files.writeString(employee.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+		ledger = new TransferLedger(new TimeSheetService(), root, log::add);
+	}
+
+	private Path writeMonth(int month, String predTransfer, String succTransfer) throws IOException {
+		Path file = employee.resolve("2019-%02d.json".formatted(month));
+		Files.writeString(file, JSON_MONTH_FORMAT.formatted(2019, month, predTransfer, succTransfer));
+		return file;
+	}
+
+	private List<TransferLedger.Month> months() {
+		return ledger.getMonths().get(employee.toAbsolutePath());
+	}
+
+	@Test
+	public void testChain() throws IOException {
+		// data
+		writeMonth(9, "00:00", "02:00");
+		writeMonth(10, "02:00", "01:00");
+		writeMonth(11, "01:00", "00:00");
+
+		// execute
+		int recomputed = ledger.refresh();
+
+		// assert
+		assertEquals(3, recomputed);
+		List<TransferLedger.Month> months = months();
+		assertEquals(List.of(YearMonth.of(2019, 9), YearMonth.of(2019, 10), YearMonth.of(2019, 11)),
+				months.stream().map(TransferLedger.Month::yearMonth).toList());
+		assertEquals(90, months.get(0).workedMinutes());
+		assertEquals(40 * 60, months.get(0).maxMinutes());
+		assertEquals(3 * (90 - 40 * 60), months.get(2).balanceMinutes());
+		assertEquals(new TimeSpan(1, 0), months.get(1).succTransfer());
+		assertTrue(ledger.getBreaks().isEmpty());
+		assertTrue(log.isEmpty());
+	}
+
+	@Test
+	public void testBreaks() throws IOException {
+		// data
+		writeMonth(8, "00:00", "02:00");
+		writeMonth(9, "01:00", "00:00");
+		writeMonth(11, "00:00", "00:00");
+
+		// execute
+		ledger.refresh();
+
+		// assert
+		List<TransferLedger.Month> breaks = ledger.getBreaks();
+		assertEquals(2, breaks.size());
+		assertEquals(YearMonth.of(2019, 9), breaks.get(0).yearMonth());
+		assertEquals(TransferLedger.ChainBreak.TRANSFER_MISMATCH, breaks.get(0).chainBreak());
+		assertEquals(YearMonth.of(2019, 11), breaks.get(1).yearMonth());
+		assertEquals(TransferLedger.ChainBreak.MISSING_MONTH, breaks.get(1).chainBreak());
+	}
+
+	@Test
+	public void testRefreshUnchanged() throws IOException {
+		// data
+		writeMonth(9, "00:00", "00:00");
+		writeMonth(10, "00:00", "00:00");
+		ledger.refresh();
+
+		// execute & assert
+		assertEquals(0, ledger.refresh());
+	}
+
+	@Test
+	public void testRefreshOnlyDownstream() throws IOException {
+		// data
+		writeMonth(9, "00:00", "02:00");
+		Path october = writeMonth(10, "02:00", "01:00");
+		writeMonth(11, "01:00", "00:00");
+		ledger.refresh();
+
+		// execute
+		Files.writeString(october, JSON_MONTH_FORMAT.formatted(2019, 10, "02:00", "03:00"));
+		Files.setLastModifiedTime(october, FileTime.from(Instant.now().plusSeconds(60)));
+		int recomputed = ledger.refresh();
+
+		// assert
+		assertEquals(2, recomputed); // October and November, but not September
+		List<TransferLedger.Month> breaks = ledger.getBreaks();
+		assertEquals(1, breaks.size());
+		assertEquals(YearMonth.of(2019, 11), breaks.get(0).yearMonth());
+	}
+
+	@Test
+	public void testRefreshRemovedMonth() throws IOException {
+		// data
+		writeMonth(9, "00:00", "00:00");
+		Path october = writeMonth(10, "00:00", "00:00");
+		writeMonth(11, "00:00", "00:00");
+		ledger.refresh();
+
+		// execute
+		Files.delete(october);
+		ledger.refresh();
+
+		// assert
+		assertEquals(2, months().size());
+		assertEquals(TransferLedger.ChainBreak.MISSING_MONTH, ledger.getBreaks().get(0).chainBreak());
+	}
+
+	@Test
+	public void testInvalidMonthLogged() throws IOException {
+		// data
+		writeMonth(9, "00:00", "00:00");
+		Files.writeString(employee.resolve("2019-10.json"), "{");
+
+		// execute
+		ledger.refresh();
+
+		// assert
+		assertEquals(1, months().size());
+		assertEquals(1, log.size());
+	}
+
+}
@@ -0,0 +1,161 @@
+/* Licensed under MIT 2024. */
+package service;
+
+import checker.CheckerException;
+import data.TimeSheet;
+import i18n.ResourceHandler;
+import io.OutputCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import parser.ParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+import static parser.json.JsonFixtures.JSON_MONTH_EMPTY;
+import static parser.json.JsonFixtures.JSON_MONTH_SUNDAY;
+
+public class WatchDaemonTest {
+
+	private static final Duration DEBOUNCE = Duration.ofMillis(100);
+	private static final long TIMEOUT_MILLIS = 10_000;
+
+	@TempDir
+	private Path directory;
+
+	private final Queue<String> log = new ConcurrentLinkedQueue<>();
+
+	private WatchDaemon startDaemon() throws IOException {
+		WatchDaemon daemon = new WatchDaemon(new TimeSheetService(), List.of(directory), DEBOUNCE, WatchDaemon.DEFAULT_QUEUE_CAPACITY, log::add);
+		daemon.start();
+		return daemon;
+	}
+
+	private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+			Thread.sleep(20);
+		}
+	}
+
+	private long countLog(String part) {
+		return log.stream().filter(message -> message.contains(part)).count();
+	}
+
+	@Test
+	public void testGenerateOutdatedOnStart() throws IOException, InterruptedException {
+		// data
+		Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+		Files.writeString(directory.resolve("2019-11.json"), JSON_MONTH_EMPTY);
+		Path upToDate = directory.resolve("2019-10.json");
+		Files.writeString(upToDate, JSON_MONTH_EMPTY);
+		Path upToDateOutput = directory.resolve("2019-10.tex");
+		Files.writeString(upToDateOutput, "unchanged");
+		Files.setLastModifiedTime(upToDateOutput, FileTime.from(Instant.now().plusSeconds(60)));
+
+		// execute
+		try (WatchDaemon ignored = startDaemon()) {
+			awaitCondition(() -> Files.exists(directory.resolve("2019-11.tex")));
+		}
+
+		// assert
+		assertTrue(Files.readString(directory.resolve("2019-11.tex")).contains("Max Mustermann"));
+		assertEquals("unchanged", Files.readString(upToDateOutput));
+	}
+
+	@Test
+	public void testRegenerateChangedMonth() throws IOException, InterruptedException {
+		// data
+		Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+		Path month = directory.resolve("2019-11.json");
+
+		try (WatchDaemon ignored = startDaemon()) {
+			// execute
+			for (int i = 0; i < 5; i++) { // Burst of writes
+				Files.writeString(month, JSON_MONTH_EMPTY);
+			}
+			awaitCondition(() -> Files.exists(directory.resolve("2019-11.tex")));
+			Thread.sleep(DEBOUNCE.toMillis() * 5);
+		}
+
+		// assert
+		assertEquals(1, countLog("2019-11.tex"));
+	}
+
+	@Test
+	public void testInvalidMonth() throws IOException, InterruptedException {
+		// data
+		Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+
+		try (WatchDaemon ignored = startDaemon()) {
+			// execute
+			Files.writeString(directory.resolve("2019-11.json"), JSON_MONTH_SUNDAY);
+			awaitCondition(() -> countLog("2019-11.json") > 0);
+		}
+
+		// assert
+		assertFalse(Files.exists(directory.resolve("2019-11.tex")));
+		assertTrue(log.size() > 1); // The errors follow the file name
+	}
+
+	@Test
+	public void testGlobalChangeRegeneratesMonths() throws IOException, InterruptedException {
+		// data
+		Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+		Files.writeString(directory.resolve("2019-11.json"), JSON_MONTH_EMPTY);
+
+		try (WatchDaemon ignored = startDaemon()) {
+			awaitCondition(() -> Files.exists(directory.resolve("2019-11.tex")));
+
+			// execute
+			Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE.replace("Max Mustermann", "Erika Mustermann"));
+			awaitCondition(() -> countLog("2019-11.tex") > 1);
+		}
+
+		// assert
+		assertTrue(Files.readString(directory.resolve("2019-11.tex")).contains("Erika Mustermann"));
+	}
+
+	@Test
+	public void testGenerateIfCacheFails() throws IOException, InterruptedException, ParseException, CheckerException {
+		// data
+		TimeSheetService service = new TimeSheetService();
+		Files.writeString(directory.resolve("global.json"), JSON_GLOBAL_EXAMPLE);
+		Files.writeString(directory.resolve("2019-11.json"), JSON_MONTH_EMPTY);
+		TimeSheet timeSheet = service.parse(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EMPTY);
+		String key = service.getTexCacheKey(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EMPTY, timeSheet, ResourceHandler.getMessageSource());
+		Path cacheDirectory = Files.createDirectory(directory.resolve("cache"));
+
+		try (OutputCache cache = new OutputCache(cacheDirectory)) {
+			cache.put(key, "cached".getBytes(StandardCharsets.UTF_8));
+			// Neither readable nor replaceable
+			Path entry = cacheDirectory.resolve(key + ".out");
+			Files.delete(entry);
+			Files.createFile(Files.createDirectory(entry).resolve("content"));
+
+			// execute
+			try (WatchDaemon daemon = new WatchDaemon(service, List.of(directory), DEBOUNCE, WatchDaemon.DEFAULT_QUEUE_CAPACITY, cache,
+					log::add)) {
+				daemon.start();
+				awaitCondition(() -> countLog("2019-11.tex") > 0);
+			}
+		}
+
+		// assert
+		assertTrue(Files.readString(directory.resolve("2019-11.tex")).contains("Max Mustermann"));
+		assertEquals(1, log.size());
+	}
+
+}
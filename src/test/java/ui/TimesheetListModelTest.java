@@ -0,0 +1,155 @@
+/* Licensed under MIT 2024. */
+package ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetListModelTest {
+
+	private final TimesheetListModel model = new TimesheetListModel();
+
+	private static TimesheetEntry entry(int day, int startHour, int endHour, boolean vacation) {
+		return new TimesheetEntry("Korrektur", day, new Time(startHour, 0), new Time(endHour, 0), new Time(0, 30), vacation);
+	}
+
+	private List<TimesheetEntry> entries() {
+		List<TimesheetEntry> entries = new ArrayList<>();
+		model.forEach(entries::add);
+		return entries;
+	}
+
+	@Test
+	public void testInsertionOrder() {
+		// data
+		TimesheetEntry third = entry(12, 8, 10, false);
+		TimesheetEntry first = entry(3, 14, 16, false);
+		TimesheetEntry second = entry(12, 7, 12, false);
+		TimesheetEntry fourth = entry(12, 8, 11, false);
+		List<ListDataEvent> events = new ArrayList<>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add(e);
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add(e);
+			}
+		});
+
+		// execute
+		int thirdIndex = model.add(third);
+		int firstIndex = model.add(first);
+		int secondIndex = model.add(second);
+		int fourthIndex = model.add(fourth);
+
+		// assert
+		assertEquals(List.of(0, 0, 1, 3), List.of(thirdIndex, firstIndex, secondIndex, fourthIndex));
+		assertEquals(List.of(first, second, third, fourth), entries());
+		assertEquals(4, model.getSize());
+		assertSame(second, model.getElementAt(1));
+		assertEquals(4, events.size());
+		assertTrue(events.stream().allMatch(e -> e.getType() == ListDataEvent.INTERVAL_ADDED));
+		assertEquals(1, events.get(2).getIndex0());
+		assertEquals(1, events.get(2).getIndex1());
+	}
+
+	@Test
+	public void testTies() {
+		// data
+		TimesheetEntry first = entry(5, 10, 12, false);
+		TimesheetEntry second = entry(5, 10, 12, false);
+
+		// execute
+		model.add(first);
+		int index = model.add(second);
+
+		// assert
+		assertEquals(0, index);
+		assertEquals(List.of(second, first), entries());
+		assertEquals(0, model.indexOf(second));
+		assertEquals(1, model.indexOf(first));
+		assertEquals(-1, model.indexOf(entry(5, 10, 12, false)));
+	}
+
+	@Test
+	public void testRemoval() {
+		// data
+		TimesheetEntry first = entry(1, 10, 12, false);
+		TimesheetEntry second = entry(2, 10, 12, false);
+		TimesheetEntry tie = entry(2, 10, 12, false);
+		model.add(first);
+		model.add(second);
+		model.add(tie);
+
+		// execute
+		boolean removedSecond = model.remove(second);
+		boolean removedAgain = model.remove(second);
+		TimesheetEntry removedFirst = model.remove(0);
+
+		// assert
+		assertTrue(removedSecond);
+		assertFalse(removedAgain);
+		assertSame(first, removedFirst);
+		assertEquals(List.of(tie), entries());
+	}
+
+	@Test
+	public void testTotals() {
+		// data
+		TimesheetEntry first = entry(1, 8, 12, false); // 3:30
+		TimesheetEntry second = entry(2, 10, 12, false); // 1:30
+		TimesheetEntry third = entry(3, 9, 17, false); // 7:30
+
+		// execute
+		model.add(first);
+		model.add(second);
+		model.add(third);
+		Time afterAdding = model.getTotalWorkedTime();
+		model.remove(second);
+		Time afterRemoving = model.getTotalWorkedTime();
+		int countAfterRemoving = model.getWorkEntryCount();
+		model.clear();
+
+		// assert
+		assertEquals("12:30", afterAdding.toString());
+		assertEquals("11:00", afterRemoving.toString());
+		assertEquals(2, countAfterRemoving);
+		assertEquals("00:00", model.getTotalWorkedTime().toString());
+		assertEquals(0, model.getWorkEntryCount());
+		assertEquals(0, model.getSize());
+	}
+
+	@Test
+	public void testVacationTotal() {
+		// data
+		TimesheetEntry work = entry(1, 8, 12, false); // 3:30
+		TimesheetEntry vacation = entry(2, 8, 16, true); // 7:30
+
+		// execute
+		model.add(work);
+		model.add(vacation);
+		Time withVacation = model.getTotalWorkedTime();
+		int countWithVacation = model.getWorkEntryCount();
+		model.remove(vacation);
+
+		// assert
+		assertEquals("11:00", withVacation.toString());
+		assertEquals(1, countWithVacation);
+		assertEquals("03:30", model.getTotalWorkedTime().toString());
+		assertEquals(1, model.getWorkEntryCount());
+	}
+
+}
@@ -0,0 +1,85 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONHandlerTest {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void testLoadSettings() throws IOException {
+		// data
+		Files.writeString(directory.resolve("global.json"), "{\"name\": \"Erika Musterfrau\", \"staffId\": 7654321}");
+		Files.writeString(directory.resolve("settings.json"), "{\"addSignature\": true}");
+
+		// execute
+		JSONHandler.initialize(directory.toString());
+		Global global = JSONHandler.getGlobalSettings();
+		UISettings uiSettings = JSONHandler.getUISettings();
+
+		// assert
+		assertTrue(JSONHandler.isGlobalSettingsLoaded());
+		assertEquals("Erika Musterfrau", global.getName());
+		assertEquals(7654321, global.getStaffId());
+		assertTrue(uiSettings.getAddSignature());
+	}
+
+	@Test
+	public void testCreateDefaultSettings() {
+		// execute
+		JSONHandler.initialize(directory.resolve("TimeSheetGenerator").toString());
+		Global global = JSONHandler.getGlobalSettings();
+		UISettings uiSettings = JSONHandler.getUISettings();
+
+		// assert
+		assertEquals("Max Mustermann", global.getName());
+		assertFalse(uiSettings.getAddSignature());
+		assertTrue(Files.isRegularFile(directory.resolve("TimeSheetGenerator").resolve("global.json")));
+		assertTrue(Files.isRegularFile(directory.resolve("TimeSheetGenerator").resolve("settings.json")));
+	}
+
+	@Test
+	public void testFallBackToDefaultSettings() throws IOException {
+		// data
+		Path loaded = Files.createDirectory(directory.resolve("loaded"));
+		Files.writeString(loaded.resolve("global.json"), "{\"name\": \"Erika Musterfrau\", \"staffId\": 7654321}");
+		Files.writeString(loaded.resolve("settings.json"), "{\"addSignature\": true}");
+		JSONHandler.initialize(loaded.toString());
+		JSONHandler.getGlobalSettings();
+		JSONHandler.getUISettings();
+		Files.writeString(directory.resolve("global.json"), "{");
+		Files.writeString(directory.resolve("settings.json"), "{");
+
+		// execute
+		JSONHandler.initialize(directory.toString());
+		Global global = JSONHandler.getGlobalSettings();
+		UISettings uiSettings = JSONHandler.getUISettings();
+
+		// assert
+		assertEquals("Max Mustermann", global.getName());
+		assertEquals("40:00", global.getWorkingTime());
+		assertFalse(uiSettings.getAddSignature());
+	}
+
+	@Test
+	public void testFallBackToDefaultSettingsIfLoadingFails() {
+		// execute
+		JSONHandler.initialize(null); // Loading fails with an unchecked exception
+		Global global = JSONHandler.getGlobalSettings();
+		UISettings uiSettings = JSONHandler.getUISettings();
+
+		// assert
+		assertEquals("Max Mustermann", global.getName());
+		assertFalse(uiSettings.getAddSignature());
+	}
+
+}
@@ -0,0 +1,190 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonthJournalTest {
+
+	@TempDir
+	private Path directory;
+
+	private static Month createMonth(int month, String... actions) {
+		Month result = new Month();
+		result.setYear(2024);
+		result.setMonth(month);
+		result.setPredTransfer("00:00");
+		result.setSuccTransfer("00:00");
+		List<Month.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < actions.length; i++) {
+			Month.Entry entry = new Month.Entry();
+			entry.setAction(actions[i]);
+			entry.setDay(i + 1);
+			entry.setStart("10:00");
+			entry.setEnd("12:00");
+			entry.setPause("00:00");
+			entries.add(entry);
+		}
+		result.setEntries(entries);
+		return result;
+	}
+
+	@Test
+	public void testRecoverLatestSnapshot() throws IOException {
+		// data
+		Path journalFile = directory.resolve("journal.ndjson");
+		File monthFile = directory.resolve("month.json").toFile();
+
+		// execute
+		try (MonthJournal journal = new MonthJournal(journalFile)) {
+			journal.append(null, createMonth(4, "First"));
+			journal.append(monthFile, createMonth(5, "First", "Second"));
+		}
+		Optional<MonthJournal.Snapshot> snapshot = new MonthJournal(journalFile).recover();
+
+		// assert
+		assertTrue(snapshot.isPresent());
+		assertEquals(monthFile.getAbsoluteFile(), snapshot.get().file());
+		assertEquals(5, snapshot.get().month().getMonth());
+		assertEquals(2, snapshot.get().month().getEntries().size());
+		assertEquals("Second", snapshot.get().month().getEntries().get(1).getAction());
+	}
+
+	@Test
+	public void testRecoverSkipsTornRecord() throws IOException {
+		// data
+		Path journalFile = directory.resolve("journal.ndjson");
+		try (MonthJournal journal = new MonthJournal(journalFile)) {
+			journal.append(null, createMonth(4, "First"));
+		}
+		// Simulate a crash while appending the next record
+		Files.writeString(journalFile, "{\"file\":null,\"month\":{\"year\":20", StandardOpenOption.APPEND);
+
+		// execute
+		Optional<MonthJournal.Snapshot> snapshot = new MonthJournal(journalFile).recover();
+
+		// assert
+		assertTrue(snapshot.isPresent());
+		assertNull(snapshot.get().file());
+		assertEquals(4, snapshot.get().month().getMonth());
+	}
+
+	@Test
+	public void testSaveCompactsJournalIntoMonthFile() throws IOException {
+		// data
+		Path journalFile = directory.resolve("journal.ndjson");
+		Path monthFile = directory.resolve("month.json");
+		Files.writeString(monthFile, "outdated");
+
+		// execute
+		try (MonthJournal journal = new MonthJournal(journalFile)) {
+			journal.append(monthFile.toFile(), createMonth(4, "First"));
+			assertNull(journal.save(monthFile.toFile(), createMonth(4, "First", "Second")).join());
+		}
+
+		// assert
+		assertFalse(Files.exists(journalFile));
+		assertTrue(new MonthJournal(journalFile).recover().isEmpty());
+		Month saved = new ObjectMapper().readValue(monthFile.toFile(), Month.class);
+		assertEquals(2, saved.getEntries().size());
+		try (var files = Files.list(directory)) {
+			// No temporary file is left behind
+			assertEquals(List.of(monthFile), files.toList());
+		}
+	}
+
+	@Test
+	public void testFailedSaveKeepsJournal() throws IOException {
+		// data
+		Path journalFile = directory.resolve("journal.ndjson");
+		File monthFile = directory.resolve("missing").resolve("month.json").toFile();
+		CompletableFuture<Void> saved;
+
+		// execute
+		try (MonthJournal journal = new MonthJournal(journalFile)) {
+			journal.append(monthFile, createMonth(4, "First"));
+			saved = journal.save(monthFile, createMonth(4, "First"));
+		}
+
+		// assert
+		CompletionException exception = assertThrows(CompletionException.class, saved::join);
+		assertInstanceOf(IOException.class, exception.getCause());
+		assertFalse(monthFile.exists());
+		Optional<MonthJournal.Snapshot> snapshot = new MonthJournal(journalFile).recover();
+		assertTrue(snapshot.isPresent());
+		assertEquals("First", snapshot.get().month().getEntries().getFirst().getAction());
+	}
+
+	@Test
+	public void testJournalIsCompacted() throws IOException {
+		// data
+		Path journalFile = directory.resolve("journal.ndjson");
+
+		// execute
+		try (MonthJournal journal = new MonthJournal(journalFile)) {
+			for (int i = 0; i < 100; i++) {
+				journal.append(null, createMonth(1 + i % 12, "Entry " + i));
+			}
+		}
+
+		// assert
+		List<String> lines = Files.readAllLines(journalFile);
+		assertTrue(lines.size() < 100);
+		Optional<MonthJournal.Snapshot> snapshot = new MonthJournal(journalFile).recover();
+		assertTrue(snapshot.isPresent());
+		assertEquals("Entry 99", snapshot.get().month().getEntries().getFirst().getAction());
+	}
+
+	@Test
+	public void testRecoverJournalLeftBehind() throws IOException {
+		// data
+		try (MonthJournal journal = MonthJournal.open(directory)) {
+			journal.append(null, createMonth(4, "First"));
+		} // Closed without saving or discarding, like after a crash
+
+		// execute
+		try (MonthJournal journal = MonthJournal.open(directory)) {
+			Optional<MonthJournal.Snapshot> snapshot = journal.recover();
+
+			// assert
+			assertTrue(snapshot.isPresent());
+			assertEquals("First", snapshot.get().month().getEntries().getFirst().getAction());
+		}
+	}
+
+	@Test
+	public void testJournalOfRunningInstanceIsNotRecovered() throws IOException {
+		// data
+		try (MonthJournal running = MonthJournal.open(directory)) {
+			running.append(null, createMonth(4, "First"));
+			running.flush();
+
+			// execute
+			try (MonthJournal journal = MonthJournal.open(directory)) {
+				Optional<MonthJournal.Snapshot> snapshot = journal.recover();
+				journal.append(null, createMonth(5, "Second"));
+				journal.discard();
+				journal.flush();
+
+				// assert
+				assertTrue(snapshot.isEmpty());
+				assertTrue(running.recover().isPresent()); // Not affected by the other journal
+			}
+		}
+	}
+
+}
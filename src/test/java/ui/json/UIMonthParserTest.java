@@ -0,0 +1,129 @@
+/* Licensed under MIT 2024. */
+package ui.json;
+
+import data.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static parser.json.JsonFixtures.JSON_GLOBAL_EXAMPLE;
+
+public class UIMonthParserTest {
+
+	private static final String JSON_MONTH_EXAMPLE = "{" + "\"year\": 2019," + "\"month\": 11," + "\"pred_transfer\": \"2:00\","
+			+ "\"succ_transfer\": \"1:00\"," + "\"entries\": [" + "{\"action\": \"Korrektur\", \"day\": 2, \"start\": \"10:00\", \"end\": \"11:00\"},"
+			+ "{\"action\": \"Fragen beantworten\", \"day\": 4, \"start\": \"11:31\", \"end\": \"15:11\", \"pause\": \"00:30\"},"
+			+ "{\"action\": \"Urlaub in Italien\", \"day\": 11, \"start\": \"09:00\", \"end\": \"12:00\", \"vacation\": true}" + "]" + "}";
+
+	private static Global createGlobal() {
+		Global global = new Global();
+		global.setName("Max Mustermann");
+		global.setStaffId(1234567);
+		global.setDepartment("Fakultät für Informatik");
+		global.setWorkingTime("40:00");
+		global.setWage(10.31);
+		global.setWorkingArea("ub");
+		return global;
+	}
+
+	private static Month.Entry createEntry(String action, int day, String start, String end, String pause, boolean vacation) {
+		Month.Entry entry = new Month.Entry();
+		entry.setAction(action);
+		entry.setDay(day);
+		entry.setStart(start);
+		entry.setEnd(end);
+		entry.setPause(pause);
+		entry.setVacation(vacation);
+		return entry;
+	}
+
+	private static Month createMonth() {
+		Month month = new Month();
+		month.setYear(2019);
+		month.setMonth(11);
+		month.setPredTransfer("2:00");
+		month.setSuccTransfer("1:00");
+		List<Month.Entry> entries = new ArrayList<>();
+		entries.add(createEntry("Korrektur", 2, "10:00", "11:00", null, false));
+		entries.add(createEntry("Fragen beantworten", 4, "11:31", "15:11", "00:30", false));
+		// The pause of vacation entries is ignored, like it is when saving the month
+		entries.add(createEntry("Urlaub in Italien", 11, "09:00", "12:00", "00:30", true));
+		month.setEntries(entries);
+		return month;
+	}
+
+	@Test
+	public void testSameAsJson() throws ParseException {
+		// execute
+		TimeSheet fromJson = Parser.parseTimeSheetJson(JSON_GLOBAL_EXAMPLE, JSON_MONTH_EXAMPLE);
+		TimeSheet fromUi = Parser.parseTimeSheet(new UIGlobalParser(createGlobal()), new UIMonthParser(createMonth()));
+
+		// assert
+		assertEquals(fromJson, fromUi);
+	}
+
+	@Test
+	public void testEntries() throws ParseException {
+		// execute
+		Entry[] entries = new UIMonthParser(createMonth()).getEntries();
+
+		// assert
+		assertEquals(3, entries.length);
+		assertEquals(new Entry("Urlaub in Italien", LocalDate.of(2019, 11, 11), new TimeSpan(9, 0), new TimeSpan(12, 0), new TimeSpan(0, 0), true),
+				entries[2]);
+	}
+
+	@Test
+	public void testMissingTransfers() throws ParseException {
+		// data
+		Month month = createMonth();
+		month.setPredTransfer(null);
+		month.setSuccTransfer(null);
+
+		// execute
+		UIMonthParser parser = new UIMonthParser(month);
+
+		// assert
+		assertEquals(YearMonth.of(2019, 11), parser.getYearMonth());
+		assertEquals(new TimeSpan(0, 0), parser.getPredTransfer());
+		assertEquals(new TimeSpan(0, 0), parser.getSuccTransfer());
+	}
+
+	@Test
+	public void testInvalidDay() {
+		// data
+		Month month = createMonth();
+		month.getEntries().add(createEntry("Invalid", 31, "10:00", "11:00", "00:00", false));
+
+		// execute
+		Assertions.assertThrows(ParseException.class, () -> new UIMonthParser(month).getEntries());
+	}
+
+	@Test
+	public void testInvalidTime() {
+		// data
+		Month month = createMonth();
+		month.getEntries().add(createEntry("Invalid", 5, "10:00", "", "00:00", false));
+
+		// execute
+		Assertions.assertThrows(ParseException.class, () -> new UIMonthParser(month).getEntries());
+	}
+
+	@Test
+	public void testInvalidWorkingArea() {
+		// data
+		Global global = createGlobal();
+		global.setWorkingArea("xy");
+
+		// execute
+		Assertions.assertThrows(ParseException.class, () -> new UIGlobalParser(global).getProfession());
+	}
+
+}